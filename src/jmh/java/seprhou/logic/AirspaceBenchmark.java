@@ -0,0 +1,117 @@
+package seprhou.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link Airspace} refresh and its main stages
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AirspaceBenchmark
+{
+	/** Delta used for each refresh (60 fps) */
+	private static final float DELTA = 1 / 60f;
+
+	/** One in this many objects are outside the airspace in the cull benchmark */
+	private static final int CULL_EVERY = 100;
+
+	/** An airspace which has been refreshed once */
+	@State(Scope.Thread)
+	public static class AirspaceState
+	{
+		@Param({ "10", "100", "1000", "10000" })
+		public int objectCount;
+
+		@Param({ "CARTESIAN", "POLAR" })
+		public MotionModel motionModel;
+
+		public Airspace airspace;
+
+		@Setup(Level.Iteration)
+		public void setup()
+		{
+			airspace = BenchmarkObject.createAirspace(objectCount, 42);
+			for (AirspaceObject object : airspace.getActiveObjects())
+				object.setMotionModel(motionModel);
+
+			airspace.refresh(DELTA);
+		}
+	}
+
+	/**
+	 * An airspace where some objects are outside, which must be restored before every cull
+	 *
+	 * <p>
+	 * Restoring the objects in an invocation level setup would cost more than the cull itself,
+	 * so the benchmarks restore them inside the measured method instead. The time taken by
+	 * {@link #restoreObjects(CullState)} should be subtracted from {@link #cullObjects(CullState)}.
+	 */
+	@State(Scope.Thread)
+	public static class CullState
+	{
+		@Param({ "10", "100", "1000", "10000" })
+		public int objectCount;
+
+		public Airspace airspace;
+		private final List<AirspaceObject> objects = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup()
+		{
+			airspace = BenchmarkObject.createAirspace(objectCount, 42);
+			objects.addAll(airspace.getActiveObjects());
+
+			// Move some objects outside the airspace
+			Vector2D outside = new Vector2D(airspace.getDimensions().getWidth() * 2, 0);
+			for (int i = 0; i < objects.size(); i += CULL_EVERY)
+				objects.get(i).setPosition(outside);
+		}
+
+		/** Puts all the objects back into the airspace */
+		public void restoreObjects()
+		{
+			Collection<AirspaceObject> activeObjects = airspace.getActiveObjects();
+
+			activeObjects.clear();
+			activeObjects.addAll(objects);
+			airspace.syncStateStore();
+		}
+	}
+
+	@Benchmark
+	public Airspace refresh(AirspaceState state)
+	{
+		state.airspace.refresh(DELTA);
+		return state.airspace;
+	}
+
+	@Benchmark
+	public Collection<CollisionWarning> calculateCollisions(AirspaceState state)
+	{
+		state.airspace.calculateCollisions();
+		return state.airspace.getCollisionWarnings();
+	}
+
+	@Benchmark
+	public Collection<AirspaceObject> restoreObjects(CullState state)
+	{
+		state.restoreObjects();
+		return state.airspace.getActiveObjects();
+	}
+
+	@Benchmark
+	public Collection<AirspaceObject> cullObjects(CullState state)
+	{
+		state.restoreObjects();
+		state.airspace.cullObjects();
+		return state.airspace.getCulledObjects();
+	}
+}
@@ -0,0 +1,127 @@
+package seprhou.logic;
+
+import java.util.Random;
+
+/**
+ * An airspace object used by the benchmarks
+ *
+ * <p>
+ * Benchmark objects keep choosing new random targets so the velocity calculations are
+ * always exercised. They also wrap around the edges of a box so the number of objects
+ * and their density stays the same however long a benchmark runs for.
+ */
+class BenchmarkObject extends AirspaceObject
+{
+	/** Average area given to each object (about the same as 10 aircraft in the game area) */
+	public static final float AREA_PER_OBJECT = 1400 * 1050 / 10f;
+
+	/** Time between choosing new targets (seconds) */
+	private static final float TARGET_INTERVAL = 5;
+
+	private final Random random;
+	private final float boxSize;
+	private float targetTimer;
+
+	/**
+	 * Creates a new benchmark object at a random position
+	 *
+	 * @param random random number generator used for positions and targets
+	 * @param boxSize size of the box the object wraps around (or 0 to never wrap)
+	 */
+	public BenchmarkObject(Random random, float boxSize)
+	{
+		this.random = random;
+		this.boxSize = boxSize;
+
+		setPosition(new Vector2D(random.nextFloat() * boxSize, random.nextFloat() * boxSize));
+		setVelocity(randomVelocity());
+		altitude = randomAltitude();
+		chooseTargets();
+	}
+
+	/**
+	 * Creates an airspace containing the given number of benchmark objects
+	 *
+	 * <p>
+	 * The objects are placed in a box whose area is proportional to the number of objects.
+	 * No new aircraft are generated by the airspace.
+	 *
+	 * @param count number of objects
+	 * @param seed seed for the random number generator
+	 * @return the new airspace
+	 */
+	public static Airspace createAirspace(int count, long seed)
+	{
+		Random random = new Random(seed);
+		float boxSize = (float) Math.sqrt(count * AREA_PER_OBJECT);
+
+		// Leave a margin so objects are never culled
+		float margin = LogicConstants.AIRCRAFT_SIZE * 4;
+		Airspace airspace = new Airspace(new Rectangle(
+				new Vector2D(-margin, -margin),
+				new Vector2D(boxSize + margin, boxSize + margin)), null);
+
+		airspace.setLateralSeparation(200);
+		airspace.setVerticalSeparation(1000);
+		airspace.setFlightPlanGenerator(null);
+
+		for (int i = 0; i < count; i++)
+			airspace.getActiveObjects().add(new BenchmarkObject(random, boxSize));
+
+		return airspace;
+	}
+
+	private Vector2D randomVelocity()
+	{
+		float speed = LogicConstants.AIRCRAFT_MIN_SPEED +
+				random.nextFloat() * (LogicConstants.AIRCRAFT_MAX_SPEED - LogicConstants.AIRCRAFT_MIN_SPEED);
+
+		return Vector2D.fromPolar(speed, (float) (random.nextFloat() * 2 * Math.PI));
+	}
+
+	private float randomAltitude()
+	{
+		return LogicConstants.INITIAL_ALTITUDES.get(random.nextInt(LogicConstants.INITIAL_ALTITUDES.size()));
+	}
+
+	private void chooseTargets()
+	{
+		setTargetVelocity(randomVelocity());
+		setTargetAltitude(randomAltitude());
+		targetTimer = random.nextFloat() * TARGET_INTERVAL;
+	}
+
+	@Override
+	public void refresh(float dt)
+	{
+		super.refresh(dt);
+
+		// Choose new targets every so often
+		targetTimer -= dt;
+		if (targetTimer <= 0)
+			chooseTargets();
+
+		// Wrap around the box
+		float x = getPositionX();
+		float y = getPositionY();
+
+		if (boxSize > 0 && (x < 0 || x >= boxSize || y < 0 || y >= boxSize))
+		{
+			x = ((x % boxSize) + boxSize) % boxSize;
+			y = ((y % boxSize) + boxSize) % boxSize;
+			setPosition(new Vector2D(x, y));
+		}
+	}
+
+	@Override public void draw(Object state) { }
+
+	@Override public float getSize()             { return LogicConstants.AIRCRAFT_SIZE; }
+	@Override public float getAscentRate()       { return LogicConstants.AIRCRAFT_ASCENT_RATE; }
+	@Override public float getMaxTurnRate()      { return LogicConstants.AIRCRAFT_TURN_RATE; }
+
+	@Override public float getMinSpeed()         { return LogicConstants.AIRCRAFT_MIN_SPEED; }
+	@Override public float getMaxSpeed()         { return LogicConstants.AIRCRAFT_MAX_SPEED; }
+	@Override public float getMinAltitude()      { return LogicConstants.AIRCRAFT_MIN_ALTITUDE; }
+	@Override public float getMaxAltitude()      { return LogicConstants.AIRCRAFT_MAX_ALTITUDE; }
+	@Override public float getMaxAcceleration()  { return LogicConstants.AIRCRAFT_ACCELERATION; }
+}
@@ -0,0 +1,102 @@
+package seprhou.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the collision broad phases with traffic clustered around the waypoints and runways
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadPhaseBenchmark
+{
+	/** Standard deviation of the distance of each object from its cluster centre */
+	private static final float CLUSTER_SPREAD = 100;
+
+	/** Delta used for each refresh (60 fps) */
+	private static final float DELTA = 1 / 60f;
+
+	@Param({ "100", "1000", "5000" })
+	public int objectCount;
+
+	@Param({ "bruteforce", "grid", "sweepandprune" })
+	public String broadPhase;
+
+	private Airspace airspace;
+
+	@Setup(Level.Iteration)
+	public void setup()
+	{
+		Random random = new Random(42);
+		Rectangle dimensions = new Rectangle(1400, 1050);
+
+		// Traffic is clustered around the waypoints and both ends of the runways
+		List<Vector2D> centres = new ArrayList<>(LogicConstants.WAYPOINTS);
+		for (Runway runway : LogicConstants.RUNWAYS)
+		{
+			centres.add(runway.getStart());
+			centres.add(runway.getEnd());
+		}
+
+		airspace = new Airspace(dimensions, null);
+		airspace.setLateralSeparation(200);
+		airspace.setVerticalSeparation(1000);
+		airspace.setFlightPlanGenerator(null);
+		airspace.setBroadPhase(createBroadPhase(broadPhase));
+
+		Collection<AirspaceObject> objects = airspace.getActiveObjects();
+		for (int i = 0; i < objectCount; i++)
+		{
+			Vector2D centre = centres.get(random.nextInt(centres.size()));
+			BenchmarkObject object = new BenchmarkObject(random, 0);
+
+			object.setPosition(new Vector2D(
+					centre.getX() + (float) random.nextGaussian() * CLUSTER_SPREAD,
+					centre.getY() + (float) random.nextGaussian() * CLUSTER_SPREAD));
+			objects.add(object);
+		}
+
+		// Fill in the state store
+		airspace.refresh(0);
+	}
+
+	/** Creates a broad phase from its benchmark parameter name */
+	private static BroadPhase createBroadPhase(String name)
+	{
+		switch (name)
+		{
+			case "bruteforce":
+				return new BruteForceBroadPhase();
+			case "grid":
+				return new GridBroadPhase();
+			case "sweepandprune":
+				return new SweepAndPruneBroadPhase();
+			default:
+				throw new IllegalArgumentException("unknown broad phase " + name);
+		}
+	}
+
+	@Benchmark
+	public Collection<CollisionWarning> calculateCollisions()
+	{
+		airspace.calculateCollisions();
+		return airspace.getCollisionWarnings();
+	}
+
+	@Benchmark
+	public Airspace refreshMoving()
+	{
+		// The objects move slowly apart so the clusters last for the whole iteration
+		airspace.refresh(DELTA / 100);
+		return airspace;
+	}
+}
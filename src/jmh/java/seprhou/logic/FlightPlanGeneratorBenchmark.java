@@ -0,0 +1,33 @@
+package seprhou.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link FlightPlanGenerator}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlightPlanGeneratorBenchmark
+{
+	private final FlightPlanGenerator generator = new FlightPlanGenerator();
+	private Airspace airspace;
+
+	@Setup
+	public void setup()
+	{
+		// Empty airspace so all the entry points are free
+		airspace = new Airspace(new Rectangle(1400, 1050), null);
+	}
+
+	@Benchmark
+	public FlightPlan makeFlightPlanNow()
+	{
+		return generator.makeFlightPlanNow(airspace);
+	}
+}
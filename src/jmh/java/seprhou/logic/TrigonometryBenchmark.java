@@ -0,0 +1,74 @@
+package seprhou.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link Trigonometry} implementations
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrigonometryBenchmark
+{
+	/** Number of inputs to cycle through (so results are not constant) */
+	private static final int INPUTS = 1024;
+
+	@Param({ "STRICT", "FAST" })
+	public Trigonometry trigonometry;
+
+	private final float[] angles = new float[INPUTS];
+	private final float[] xs = new float[INPUTS], ys = new float[INPUTS];
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		Random random = new Random(42);
+
+		for (int i = 0; i < INPUTS; i++)
+		{
+			angles[i] = (float) ((random.nextDouble() * 2 - 1) * Math.PI);
+			xs[i] = random.nextFloat() * 200 - 100;
+			ys[i] = random.nextFloat() * 200 - 100;
+		}
+	}
+
+	/** Returns the index of the next input to use */
+	private int nextInput()
+	{
+		next = (next + 1) & (INPUTS - 1);
+		return next;
+	}
+
+	@Benchmark
+	public double sin()
+	{
+		return trigonometry.sin(angles[nextInput()]);
+	}
+
+	@Benchmark
+	public float atan2()
+	{
+		int i = nextInput();
+		return trigonometry.atan2(ys[i], xs[i]);
+	}
+
+	@Benchmark
+	public Vector2D fromPolar()
+	{
+		return Vector2D.fromPolar(50, angles[nextInput()], trigonometry);
+	}
+
+	@Benchmark
+	public Vector2D rotate()
+	{
+		int i = nextInput();
+		return new Vector2D(xs[i], ys[i]).rotate(angles[i], trigonometry);
+	}
+}
@@ -0,0 +1,41 @@
+package seprhou.logic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link Vector2D} primitives
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Vector2DBenchmark
+{
+	// Non-final fields so the JIT cannot fold the calculations away
+	private Vector2D a = new Vector2D(123.5f, 456.25f);
+	private Vector2D b = new Vector2D(-78.5f, 910.75f);
+	private float length = 50;
+	private float angle = 1.25f;
+
+	@Benchmark
+	public float distanceTo()
+	{
+		return a.distanceTo(b);
+	}
+
+	@Benchmark
+	public Vector2D rotate()
+	{
+		return a.rotate(angle);
+	}
+
+	@Benchmark
+	public Vector2D fromPolar()
+	{
+		return Vector2D.fromPolar(length, angle);
+	}
+}
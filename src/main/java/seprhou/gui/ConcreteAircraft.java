@@ -4,20 +4,13 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import seprhou.logic.*;
 
-import java.util.Collections;
-
 /** The only type of aircraft (currently?) available */
 public class ConcreteAircraft extends Aircraft
 {
 	/** The AirspaceObjectFactory which can create concrete aircraft */
 	public static final AirspaceObjectFactory FACTORY = new FactoryClass();
 
-	// Derived constants
-	// The +1 and -1 here are leeway needed due to float rounding errors
-	private static final float AIRCRAFT_MIN_SPEED = Collections.min(LogicConstants.INITIAL_SPEEDS) - 10;
-	private static final float AIRCRAFT_MAX_SPEED = Collections.max(LogicConstants.INITIAL_SPEEDS) + 10;
-	private static final float AIRCRAFT_MIN_ALTITUDE = 5000f;
-	private static final float AIRCRAFT_MAX_ALTITUDE = Collections.max(LogicConstants.INITIAL_ALTITUDES);
+	// Shadow constants
 	private static final float SHADOW_HEIGHT_MULTIPLIER = 0.001f;
 	private static final float SHADOW_ANGLE = 10.5f;
 	private static final Vector2D SHADOW_DIRECTION = Vector2D.fromPolar(SHADOW_HEIGHT_MULTIPLIER, SHADOW_ANGLE);
@@ -46,9 +39,12 @@ public class ConcreteAircraft extends Aircraft
 		GameArea gameArea = (GameArea) state;
 		Batch batch = gameArea.getBatch();
 
+		// Interpolate between the last two logic refreshes
+		Vector2D position = getInterpolatedPosition(gameArea.getInterpolationAlpha());
+
 		// Add parent X and Y since Batch does not adjust coordinates for the Actor
-		float xPos = gameArea.getX() + getPosition().getX() - getSize();
-		float yPos = gameArea.getY() + getPosition().getY() - getSize();
+		float xPos = gameArea.getX() + position.getX() - getSize();
+		float yPos = gameArea.getY() + position.getY() - getSize();
 
 		// Draw the aircraft
 		Texture aircraftTexture;
@@ -62,8 +58,8 @@ public class ConcreteAircraft extends Aircraft
 			{
 				float circleRadius = Assets.CIRCLE_TEXTURE.getWidth() / 2;
 				batch.draw(Assets.CIRCLE_TEXTURE, gameArea.getX()
-						+ this.getPosition().getX() - circleRadius,
-						gameArea.getY() + this.getPosition().getY()
+						+ position.getX() - circleRadius,
+						gameArea.getY() + position.getY()
 								- circleRadius);
 			}
 		}
@@ -129,11 +125,11 @@ public class ConcreteAircraft extends Aircraft
 	@Override public float getAscentRate()       { return LogicConstants.AIRCRAFT_ASCENT_RATE; }
 	@Override public float getMaxTurnRate()      { return LogicConstants.AIRCRAFT_TURN_RATE; }
 
-	@Override public float getMinSpeed()         { return AIRCRAFT_MIN_SPEED; }
-	@Override public float getMaxSpeed()         { return AIRCRAFT_MAX_SPEED; }
-	@Override public float getMinAltitude()      { return AIRCRAFT_MIN_ALTITUDE; }
-	@Override public float getMaxAltitude()      { return AIRCRAFT_MAX_ALTITUDE; }
+	@Override public float getMinSpeed()         { return LogicConstants.AIRCRAFT_MIN_SPEED; }
+	@Override public float getMaxSpeed()         { return LogicConstants.AIRCRAFT_MAX_SPEED; }
+	@Override public float getMinAltitude()      { return LogicConstants.AIRCRAFT_MIN_ALTITUDE; }
+	@Override public float getMaxAltitude()      { return LogicConstants.AIRCRAFT_MAX_ALTITUDE; }
 
 	// Change of speed now enabled!
-	@Override public float getMaxAcceleration()  { return 10; }
+	@Override public float getMaxAcceleration()  { return LogicConstants.AIRCRAFT_ACCELERATION; }
 }
@@ -31,6 +31,10 @@ public class GameArea extends Actor
 	/** Set containing the keys pressed since the last act */
 	private BitSet buttonsPressed = new BitSet();
 
+	/** Splits frames into fixed size game logic refreshes */
+	private final FixedTimestep timestep =
+			new FixedTimestep(LogicConstants.LOGIC_TIMESTEP, LogicConstants.MAX_LOGIC_STEPS_PER_FRAME);
+
 	/**
 	 * Creates a new GameArea
 	 */
@@ -69,6 +73,18 @@ public class GameArea extends Actor
 		return parent;
 	}
 
+	/**
+	 * Returns the fraction of a logic refresh which has passed since the last refresh
+	 *
+	 * <p>Aircraft use this to interpolate their positions when drawing
+	 *
+	 * @see AirspaceObject#getInterpolatedPosition(float)
+	 */
+	public float getInterpolationAlpha()
+	{
+		return timestep.getAlpha();
+	}
+
 	/**
 	 * Returns the batch used for drawing
 	 *
@@ -106,7 +122,8 @@ public class GameArea extends Actor
 		Aircraft selected = parent.getSelectedAircraft();
 
 		// Deselect the aircraft if it was culled
-		if (airspace.getCulledObjects().contains(selected))
+		//  Check the active objects since several refreshes may have happened since the last act
+		if (selected != null && !airspace.getActiveObjects().contains(selected))
 			selected = null;
 
 		// Selecting new aircraft
@@ -184,7 +201,16 @@ public class GameArea extends Actor
 		buttonsPressed.clear();
 
 		// Refresh airspace + process sent network messages
-		endpoint.actEnd(delta);
+		//  The airspace is refreshed using fixed size steps so it behaves the same at any frame rate
+		//  Stop stepping once the game ends or the connection is lost (the next act handles it)
+		int steps = timestep.advance(delta);
+		for (int i = 0; i < steps; i++)
+		{
+			if (airspace.isGameOver() || endpoint.getState() != GameEndpointState.CONNECTED)
+				break;
+
+			endpoint.actEnd(timestep.getStep());
+		}
 	}
 
 	@Override
@@ -215,7 +241,7 @@ public class GameArea extends Actor
 			if (selected != null)
 			{
 				List<Vector2D> waypoints = selected.getFlightPlan().getWaypoints();
-				Vector2D current = selected.getPosition();
+				Vector2D current = selected.getInterpolatedPosition(getInterpolationAlpha());
 
 				// Draw from current position to next waypoint, to next waypoint (etc)
 				for (int i = selected.getLastWaypoint() + 1; i < waypoints.size(); i++)
@@ -276,8 +302,8 @@ public class GameArea extends Actor
 			// Draw collision warnings
 			for (CollisionWarning collision : airspace.getCollisionWarnings())
 			{
-				Vector2D position = collision.getObject1().getPosition();
-				Vector2D position2 = collision.getObject2().getPosition();
+				Vector2D position = collision.getObject1().getInterpolatedPosition(getInterpolationAlpha());
+				Vector2D position2 = collision.getObject2().getInterpolatedPosition(getInterpolationAlpha());
 				float circleRadius = Assets.VIOLATED_TEXTURE.getWidth() / 2;
 
 				batch.draw(Assets.VIOLATED_TEXTURE,
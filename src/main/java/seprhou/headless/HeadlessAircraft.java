@@ -0,0 +1,49 @@
+package seprhou.headless;
+
+import seprhou.logic.*;
+
+/**
+ * An aircraft which behaves exactly like the GUI aircraft but has no graphics
+ *
+ * <p>
+ * This class does not depend on libGDX so it can be used on machines without a display.
+ */
+public class HeadlessAircraft extends Aircraft
+{
+	/** The AirspaceObjectFactory which can create headless aircraft */
+	public static final AirspaceObjectFactory FACTORY = new FactoryClass();
+
+	/** Creates a new headless aircraft */
+	private HeadlessAircraft(String name, float weight, int crew, AircraftColour colour, FlightPlan flightPlan, Airspace airspace)
+	{
+		super(name, weight, crew, colour, flightPlan, 1000, airspace);
+	}
+
+	/**
+	 * Factory class which can create aircraft from an airspace and a flight plan
+	 */
+	private static class FactoryClass implements AirspaceObjectFactory
+	{
+		@Override
+		public AirspaceObject makeObject(Airspace airspace, FlightPlan flightPlan, String flightNumber, AircraftColour colour)
+		{
+			return new HeadlessAircraft(flightNumber, 100, 5, colour, flightPlan, airspace);
+		}
+	}
+
+	@Override
+	public void draw(Object state)
+	{
+		// Nothing to draw
+	}
+
+	@Override public float getSize()             { return LogicConstants.AIRCRAFT_SIZE; }
+	@Override public float getAscentRate()       { return LogicConstants.AIRCRAFT_ASCENT_RATE; }
+	@Override public float getMaxTurnRate()      { return LogicConstants.AIRCRAFT_TURN_RATE; }
+
+	@Override public float getMinSpeed()         { return LogicConstants.AIRCRAFT_MIN_SPEED; }
+	@Override public float getMaxSpeed()         { return LogicConstants.AIRCRAFT_MAX_SPEED; }
+	@Override public float getMinAltitude()      { return LogicConstants.AIRCRAFT_MIN_ALTITUDE; }
+	@Override public float getMaxAltitude()      { return LogicConstants.AIRCRAFT_MAX_ALTITUDE; }
+	@Override public float getMaxAcceleration()  { return LogicConstants.AIRCRAFT_ACCELERATION; }
+}
@@ -0,0 +1,159 @@
+package seprhou.headless;
+
+import seprhou.logic.Airspace;
+import seprhou.logic.LogicConstants;
+import seprhou.logic.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Runs the game logic without any graphics as fast as possible
+ *
+ * <p>
+ * The airspace is refreshed with a fixed delta for the given number of simulated minutes,
+ * then the number of ticks per second is printed. This can be used for capacity planning
+ * and regression runs on machines without a display.
+ *
+ * <p>
+ * Usage: {@code HeadlessRunner [minutes] [delta] [maxAircraft] [seed]}
+ */
+public class HeadlessRunner
+{
+	/** Dimensions of the airspace (same as the game area in the GUI) */
+	public static final Rectangle DIMENSIONS = new Rectangle(1400, 1050);
+
+	/** Default number of simulated minutes */
+	public static final float DEFAULT_MINUTES = 60;
+
+	/** Default delta (seconds per tick, 60 fps) */
+	public static final float DEFAULT_DELTA = 1 / 60f;
+
+	/** Default lateral separation (normal difficulty) */
+	public static final float LATERAL_SEPARATION = 200;
+
+	/** Default vertical separation (normal difficulty) */
+	public static final float VERTICAL_SEPARATION = 1000;
+
+	private final Airspace airspace;
+	private final float delta;
+
+	private long ticks;
+	private int gameOverTicks;
+
+	/**
+	 * Creates a new headless runner
+	 *
+	 * @param delta number of seconds to advance the airspace each tick
+	 * @param maxAircraft maximum number of aircraft to generate
+	 * @param seed seed for the airspace's random number generator
+	 */
+	public HeadlessRunner(float delta, int maxAircraft, long seed)
+	{
+		if (delta <= 0)
+			throw new IllegalArgumentException("delta must be greater than 0");
+
+		this.delta = delta;
+
+		airspace = new Airspace(DIMENSIONS, HeadlessAircraft.FACTORY, seed);
+		airspace.setLateralSeparation(LATERAL_SEPARATION);
+		airspace.setVerticalSeparation(VERTICAL_SEPARATION);
+		airspace.getFlightPlanGenerator().setMaxAircraft(maxAircraft);
+	}
+
+	/** Returns the airspace being simulated */
+	public Airspace getAirspace()
+	{
+		return airspace;
+	}
+
+	/** Returns the number of ticks run so far */
+	public long getTicks()
+	{
+		return ticks;
+	}
+
+	/** Returns the number of ticks which ended with the game over flag set */
+	public int getGameOverTicks()
+	{
+		return gameOverTicks;
+	}
+
+	/**
+	 * Runs the simulation for the given number of ticks
+	 *
+	 * <p>
+	 * Crashes do not stop the simulation. The game over flag is cleared after
+	 * each tick it was set in so the airspace keeps running.
+	 *
+	 * @param count number of ticks to run
+	 */
+	public void run(long count)
+	{
+		for (long i = 0; i < count; i++)
+		{
+			airspace.refresh(delta);
+			ticks++;
+
+			if (airspace.isGameOver())
+			{
+				gameOverTicks++;
+				airspace.setGameOver(false);
+			}
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		float minutes = DEFAULT_MINUTES;
+		float delta = DEFAULT_DELTA;
+		int maxAircraft = LogicConstants.MAX_AIRCRAFT;
+		long seed = new Random().nextLong();
+
+		// Check arguments
+		try
+		{
+			if (args.length >= 1)
+				minutes = Float.parseFloat(args[0]);
+			if (args.length >= 2)
+				delta = Float.parseFloat(args[1]);
+			if (args.length >= 3)
+				maxAircraft = Integer.parseInt(args[2]);
+			if (args.length >= 4)
+				seed = Long.parseLong(args[3]);
+		}
+		catch (NumberFormatException e)
+		{
+			args = null;
+		}
+
+		if (args == null || args.length > 4 || minutes <= 0 || delta <= 0 || maxAircraft < 0)
+		{
+			System.err.println("Usage: HeadlessRunner [minutes] [delta] [maxAircraft] [seed]");
+			System.err.println("  minutes     number of simulated minutes (default " + DEFAULT_MINUTES + ")");
+			System.err.println("  delta       seconds per tick (default " + DEFAULT_DELTA + ")");
+			System.err.println("  maxAircraft maximum number of aircraft (default " + LogicConstants.MAX_AIRCRAFT + ")");
+			System.err.println("  seed        random number generator seed (default random)");
+			System.err.println();
+			System.exit(1);
+			return;
+		}
+
+		long totalTicks = (long) Math.ceil(minutes * 60 / delta);
+		HeadlessRunner runner = new HeadlessRunner(delta, maxAircraft, seed);
+
+		// Run simulation
+		long startTime = System.nanoTime();
+		runner.run(totalTicks);
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+
+		// Print results
+		Airspace airspace = runner.getAirspace();
+
+		System.out.printf("Simulated %.1f minutes in %d ticks (delta %.4fs, seed %d)%n", minutes, runner.getTicks(), delta, seed);
+		System.out.printf("Real time: %.3fs%n", seconds);
+		System.out.printf("Ticks/sec: %.1f%n", runner.getTicks() / seconds);
+		System.out.printf("Active aircraft: %d, landed: %d, score: %d, ticks with crashes: %d%n",
+				airspace.getActiveObjects().size(), airspace.getLandedObjects(),
+				airspace.getScore(), runner.getGameOverTicks());
+	}
+}
@@ -0,0 +1,8 @@
+/**
+ * Runs the game logic without any graphics.
+ *
+ * <p>The {@link seprhou.headless.HeadlessRunner} class refreshes an airspace containing
+ * {@link seprhou.headless.HeadlessAircraft} objects as fast as possible and reports how
+ * many ticks per second were achieved. Nothing in this package depends on libGDX.
+ */
+package seprhou.headless;
@@ -10,7 +10,14 @@ public abstract class Aircraft extends AirspaceObject
 {
 	private static final int DECAY_RATE = 10;
 
-	private final Airspace airspace;
+	/**
+	 * Fraction of the earliest possible arrival time to wait before checking for a waypoint
+	 *
+	 * <p>This leaves some room for rounding errors in the position updates.
+	 */
+	private static final float WAYPOINT_CHECK_MARGIN = 0.9f;
+
+	private Airspace airspace;
 	private final FlightPlan flightPlan;
 	private final String name;
 	private final float weight;
@@ -29,6 +36,14 @@ public abstract class Aircraft extends AirspaceObject
 	private int lastWaypoint;
 	private int waypointsHit;
 
+	// True if the aircraft can land, waiting for commitRefresh to check the landing counters
+	private boolean landingPending;
+	private boolean landing;
+
+	// Time until the next waypoint needs to be checked for, and the speed limit used to calculate it
+	private float waypointCheckTime;
+	private float waypointCheckSpeed;
+
 	/**
 	 * Constructs a new aircraft
 	 *
@@ -55,28 +70,32 @@ public abstract class Aircraft extends AirspaceObject
 		this.airspace = airspace;
 
 		// Setup initial flightplan related attributes
-		this.position = flightPlan.getWaypoints().get(0);
-		this.velocity = flightPlan.getInitialVelocity();
+		this.setPosition(flightPlan.getWaypoints().get(0));
+		this.setVelocity(flightPlan.getInitialVelocity());
 
 		if (this.flightPlan.isStartOnRunway()) {
 			this.altitude = 0;
-			this.targetAltitude = LogicConstants.INITIAL_ALTITUDES.get(Utils
-					.getRandom().nextInt(LogicConstants.INITIAL_ALTITUDES.size()));
+			this.targetAltitude = Utils.randomItem(airspace.getRandom(), LogicConstants.INITIAL_ALTITUDES);
 			Vector2D direction = flightPlan.getWaypoints().get(1)
 					.sub(flightPlan.getWaypoints().get(0)).normalize();
-			this.velocity = direction;
-			this.targetVelocity = direction.multiply(LogicConstants.INITIAL_SPEEDS
-					.get(Utils.getRandom().nextInt(
-							LogicConstants.INITIAL_SPEEDS.size())));
+			this.setVelocity(direction);
+			this.setTargetVelocityNoClamping(direction.multiply(
+					Utils.randomItem(airspace.getRandom(), LogicConstants.INITIAL_SPEEDS)));
 			this.active = false;
 		} else {
 			this.altitude = flightPlan.getInitialAltitude();
 			this.targetAltitude = this.altitude;
-			this.targetVelocity = this.velocity;
+			this.setTargetVelocityNoClamping(this.getVelocity());
 			this.active = true;
 		}
 	}
 
+	@Override
+	void setAirspace(Airspace airspace)
+	{
+		this.airspace = airspace;
+	}
+
 	/** Returns this aircraft's name */
 	public String getName()
 	{
@@ -95,7 +114,7 @@ public abstract class Aircraft extends AirspaceObject
 	 */
 	public float getBearing()
 	{
-		return this.velocity.getBearing();
+		return this.getVelocity().getBearing(getTrigonometry());
 	}
 
 	/** Returns this aircraft's weight */
@@ -230,14 +249,26 @@ public abstract class Aircraft extends AirspaceObject
 		}
 		else
 		{
+			// Skip the test if the waypoint cannot have been reached yet
+			this.waypointCheckTime -= dt;
+			if (this.waypointCheckTime > 0)
+				return;
+
 			Vector2D waypointPosition = waypoints.get(this.lastWaypoint + 1);
+			float distance = Vector2D.distance(this.getPositionX(), this.getPositionY(),
+					waypointPosition.getX(), waypointPosition.getY());
 
-			if (this.position.distanceTo(waypointPosition) <= this.getSize()) {
+			if (distance > this.getSize())
+			{
+				this.scheduleWaypointCheck(distance - this.getSize());
+			}
+			else
+			{
 				// Landing on runway
 				if (this.lastWaypoint + 3 == waypoints.size()
 						&& this.flightPlan.isLanding())
 				{
-					double angle = (waypoints.get(waypoints.size() - 1).sub(waypoints.get(waypoints.size() - 2))).getBearing();
+					double angle = (waypoints.get(waypoints.size() - 1).sub(waypoints.get(waypoints.size() - 2))).getBearing(getTrigonometry());
 					// Checks that the plane is approaching airport
 					// at correct angle, altitude and speed
 					if (this.getBearing() > angle - 25
@@ -245,35 +276,126 @@ public abstract class Aircraft extends AirspaceObject
 							&& Math.abs(this.getAltitude()
 									- this.getMinAltitude()) < 1
 							&& Math.abs(this.getVelocity().getLength()
-									- this.getMinSpeed()) < 1
-							&& this.airspace.getLandedObjects()
-									+ this.airspace.getLandingPlanes() < 10)
+									- this.getMinSpeed()) < 1)
 					{
-						// Increment the counter of landing planes.
-						this.airspace.setLandingPlanes(this.airspace.getLandingPlanes() + 1);
-						// Remove control of the plane from the player.
-						this.active = false;
-						// Land the plane automatically.
-						this.setTargetVelocityNoClamping(waypoints
-								.get(waypoints.size() - 1).sub(this.position)
-								.changeLength(30f));
-						this.setTargetAltitudeNoClamping(0);
-					}
-					else
-					{
-						//If the next waypoint of the plane is start of runway,
-						//but the plane is approaching the airport at wrong parameters
-						//return without incrementing pointers.
-						return;
+						// The landing counters are shared with the other aircraft,
+						// so they are checked in commitRefresh
+						this.landingPending = true;
 					}
+
+					//If the next waypoint of the plane is start of runway,
+					//but the plane is approaching the airport at wrong parameters
+					//return without incrementing pointers.
+					return;
 				}
 
-				// Increment the pointer to the waypoints list
-				this.lastWaypoint++;
-				this.waypointsHit++;
-				// Increase the grace period of the plane for hitting a waypoint
-				this.gracePeriod += 5;
+				this.hitWaypoint();
 			}
 		}
 	}
+
+	/**
+	 * Works out when the next waypoint needs to be checked for
+	 *
+	 * <p>
+	 * The speed of the aircraft only moves towards its target speed, so it cannot travel faster
+	 * than the larger of the two until the target velocity is changed.
+	 *
+	 * @param distance distance the aircraft must travel before it can reach the waypoint
+	 */
+	private void scheduleWaypointCheck(float distance)
+	{
+		float speed = Math.max(this.getMaxSpeed(), Math.max(
+				Vector2D.length(this.getVelocityX(), this.getVelocityY()),
+				Vector2D.length(this.getTargetVelocityX(), this.getTargetVelocityY())));
+
+		this.waypointCheckSpeed = speed;
+		this.waypointCheckTime = (speed > 0) ? distance / speed * WAYPOINT_CHECK_MARGIN : 0;
+	}
+
+	/** Makes the aircraft check for its next waypoint if it could now move faster than expected */
+	private void checkWaypointSpeed(float speed)
+	{
+		if (speed > this.waypointCheckSpeed)
+			this.waypointCheckTime = 0;
+	}
+
+	@Override
+	public void setPosition(Vector2D position)
+	{
+		super.setPosition(position);
+		this.waypointCheckTime = 0;
+	}
+
+	@Override
+	public void setVelocity(Vector2D velocity)
+	{
+		super.setVelocity(velocity);
+		this.checkWaypointSpeed(velocity.getLength());
+	}
+
+	@Override
+	public void setTargetVelocityNoClamping(Vector2D newVelocity)
+	{
+		super.setTargetVelocityNoClamping(newVelocity);
+		this.checkWaypointSpeed(newVelocity.getLength());
+	}
+
+	@Override
+	public void setMotion(float positionX, float positionY, float velocityX, float velocityY)
+	{
+		super.setMotion(positionX, positionY, velocityX, velocityY);
+		this.waypointCheckTime = 0;
+	}
+
+	@Override
+	public void setTargetVelocityNoClamping(float targetVelocityX, float targetVelocityY)
+	{
+		super.setTargetVelocityNoClamping(targetVelocityX, targetVelocityY);
+		this.checkWaypointSpeed(Vector2D.length(targetVelocityX, targetVelocityY));
+	}
+
+	@Override
+	public boolean isLanding()
+	{
+		return this.landing;
+	}
+
+	@Override
+	public void commitRefresh()
+	{
+		if (!this.landingPending)
+			return;
+
+		this.landingPending = false;
+
+		if (this.airspace.getLandedObjects() + this.airspace.getLandingPlanes() < 10)
+		{
+			List<Vector2D> waypoints = this.flightPlan.getWaypoints();
+
+			// Increment the counter of landing planes.
+			this.airspace.setLandingPlanes(this.airspace.getLandingPlanes() + 1);
+			this.landing = true;
+			// Remove control of the plane from the player.
+			this.active = false;
+			// Land the plane automatically.
+			this.setTargetVelocityNoClamping(waypoints
+					.get(waypoints.size() - 1).sub(this.getPosition())
+					.changeLength(30f));
+			this.setTargetAltitudeNoClamping(0);
+
+			this.hitWaypoint();
+		}
+	}
+
+	/** Moves on to the next waypoint */
+	private void hitWaypoint()
+	{
+		// Increment the pointer to the waypoints list
+		this.lastWaypoint++;
+		this.waypointsHit++;
+		this.waypointCheckTime = 0;
+		// Increase the grace period of the plane for hitting a waypoint
+		this.gracePeriod += 5;
+	}
 }
@@ -1,6 +1,8 @@
 package seprhou.logic;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Controls an entire air space and all the aircraft in it
@@ -12,18 +14,41 @@ import java.util.*;
  */
 public class Airspace
 {
+	/** Number of objects refreshed by each task in parallel refreshes */
+	private static final int PARALLEL_CHUNK_SIZE = 256;
+
+	/**
+	 * Maximum average number of places each object can be moved while sorting by altitude
+	 * before giving up and using a full sort
+	 */
+	private static final int MAX_SORT_SHIFTS_PER_OBJECT = 8;
+
+	/** Pool used for parallel refreshes (shared by all airspaces, created when first needed) */
+	private static ForkJoinPool refreshPool;
+
 	// Config variables
 	private final AirspaceObjectFactory objectFactory;
 	private final Rectangle dimensions;
-	private FlightPlanGenerator flightPlanGenerator = new FlightPlanGenerator();
+	private final Random random;
+	private FlightPlanGenerator flightPlanGenerator;
+	private BroadPhase broadPhase = new BruteForceBroadPhase();
+	private final NarrowPhase narrowPhase = new NarrowPhase();
+	private ConflictProbe conflictProbe = new ConflictProbe();
 	private float lateralSeparation, verticalSeparation;
+	private int parallelThreshold;
+	private Trigonometry trigonometry = Trigonometry.STRICT;
 
 	// Lists
+	private final ObjectStateStore stateStore = new ObjectStateStore();
 	private final ArrayList<AirspaceObject> culledObjects = new ArrayList<>();
 	private final ArrayList<CollisionWarning> collisionWarnings = new ArrayList<>();
+	private final Collection<CollisionWarning> collisionWarningsView = Collections.unmodifiableCollection(collisionWarnings);
+	private final ArrayList<CollisionWarning> collisionWarningPool = new ArrayList<>();
+	private final SpatialIndex spatialIndex = new SpatialIndex();
+	private int spatialIndexModCount = -1;
 
 	/** During the game refresh, this list is sorted so that LOWER planes (altitude) are put FIRST */
-	private final ArrayList<AirspaceObject> activeObjects = new ArrayList<>();
+	private final ObjectList activeObjects = new ObjectList();
 
 	// Other variables
 	private boolean gameOver;
@@ -43,12 +68,36 @@ public class Airspace
 	 * @param factory object factor used to generate aircraft
 	 */
 	public Airspace(Rectangle dimensions, AirspaceObjectFactory factory)
+	{
+		this(dimensions, factory, new Random());
+	}
+
+	/**
+	 * Creates a new airspace with a seeded random number generator
+	 *
+	 * <p>
+	 * Two airspaces created with the same seed (and given the same commands at the
+	 * same times) will always generate exactly the same aircraft.
+	 *
+	 * @param dimensions dimensions of the airspace
+	 * @param factory object factor used to generate aircraft
+	 * @param seed seed for the random number generator
+	 * @see #Airspace(Rectangle, AirspaceObjectFactory)
+	 */
+	public Airspace(Rectangle dimensions, AirspaceObjectFactory factory, long seed)
+	{
+		this(dimensions, factory, new Random(seed));
+	}
+
+	private Airspace(Rectangle dimensions, AirspaceObjectFactory factory, Random random)
 	{
 		if (dimensions == null)
 			throw new IllegalArgumentException("dimensions cannot be null");
 
 		this.objectFactory = factory;
 		this.dimensions = dimensions;
+		this.random = random;
+		this.flightPlanGenerator = new FlightPlanGenerator(Utils.splitRandom(random));
 	}
 
 	/** Returns the factory responsible for constructing airspace objects */
@@ -63,6 +112,19 @@ public class Airspace
 		return dimensions;
 	}
 
+	/**
+	 * Returns the random number generator owned by this airspace
+	 *
+	 * <p>
+	 * All random choices made by the objects in this airspace should use this generator so that
+	 * airspaces can be run on different threads and seeded airspaces can be replayed exactly.
+	 * The default flight plan generator has its own generator which is seeded from this one.
+	 */
+	public Random getRandom()
+	{
+		return random;
+	}
+
 	/** Returns the flight path generator used for new aircraft */
 	public FlightPlanGenerator getFlightPlanGenerator()
 	{
@@ -79,6 +141,100 @@ public class Airspace
 		this.flightPlanGenerator = flightPlanGenerator;
 	}
 
+	/** Returns the broad phase used to speed up collision detection */
+	public BroadPhase getBroadPhase()
+	{
+		return broadPhase;
+	}
+
+	/**
+	 * Sets a new collision detection broad phase
+	 *
+	 * <p>
+	 * The broad phase only affects how fast collisions are detected. All broad phases
+	 * generate exactly the same collision warnings.
+	 *
+	 * @param broadPhase new broad phase
+	 * @see GridBroadPhase
+	 * @see SweepAndPruneBroadPhase
+	 */
+	public void setBroadPhase(BroadPhase broadPhase)
+	{
+		if (broadPhase == null)
+			throw new IllegalArgumentException("broadPhase cannot be null");
+
+		this.broadPhase = broadPhase;
+	}
+
+	/** Returns the conflict probe used to predict conflicts (may be null) */
+	public ConflictProbe getConflictProbe()
+	{
+		return conflictProbe;
+	}
+
+	/**
+	 * Sets a new conflict probe
+	 *
+	 * @param conflictProbe new conflict probe or null to disable conflict prediction
+	 * @see #getPredictedConflicts()
+	 */
+	public void setConflictProbe(ConflictProbe conflictProbe)
+	{
+		this.conflictProbe = conflictProbe;
+	}
+
+	/**
+	 * Returns the minimum number of objects needed to refresh them in parallel
+	 *
+	 * @see #setParallelThreshold(int)
+	 */
+	public int getParallelThreshold()
+	{
+		return parallelThreshold;
+	}
+
+	/**
+	 * Sets the minimum number of objects needed to refresh them in parallel
+	 *
+	 * <p>
+	 * When there are at least this many active objects, their {@link AirspaceObject#refresh(float)}
+	 * methods are called in parallel using a shared fork join pool. The results are exactly the same
+	 * as refreshing them one at a time. Use 0 (the default) to always refresh objects one at a time.
+	 *
+	 * @param threshold minimum number of objects, or 0 to disable parallel refreshes
+	 */
+	public void setParallelThreshold(int threshold)
+	{
+		if (threshold < 0)
+			throw new IllegalArgumentException("threshold cannot be negative");
+
+		this.parallelThreshold = threshold;
+	}
+
+	/** Returns the trigonometric functions used to refresh the objects in this airspace */
+	public Trigonometry getTrigonometry()
+	{
+		return trigonometry;
+	}
+
+	/**
+	 * Sets the trigonometric functions used to refresh the objects in this airspace
+	 *
+	 * <p>
+	 * The active objects are switched to these functions at the start of each refresh.
+	 * {@link Trigonometry#FAST} is faster but the game will not play exactly the same
+	 * as with {@link Trigonometry#STRICT} (the default).
+	 *
+	 * @param trigonometry the trigonometric functions to use
+	 */
+	public void setTrigonometry(Trigonometry trigonometry)
+	{
+		if (trigonometry == null)
+			throw new IllegalArgumentException("trigonometry cannot be null");
+
+		this.trigonometry = trigonometry;
+	}
+
 	/**
 	 * Returns the lateral separation distance to generate warnings at
 	 *
@@ -173,16 +329,75 @@ public class Airspace
 		return activeObjects;
 	}
 
+	/**
+	 * Returns the state store containing a copy of the active objects' state
+	 *
+	 * <p>
+	 * The store is filled during each refresh as soon as the objects have moved, and is then
+	 * kept in step with the active objects list while objects are culled and created. Culling,
+	 * collision detection and conflict prediction all read the state from the store. Its slots
+	 * are the indexes of the active objects before they are sorted by altitude.
+	 */
+	public ObjectStateStore getStateStore()
+	{
+		return stateStore;
+	}
+
 	/**
 	 * Returns the list of collision warnings generated during the last refresh
 	 *
 	 * <p>
-	 * The returned list is unmodifiable and is reused each refresh (so you must
-	 * copy it if you want to keep it between refreshes)
+	 * The returned list is unmodifiable and is reused each refresh. The warnings
+	 * inside it are also reused, so you must copy their contents if you want to keep
+	 * them between refreshes.
 	 */
 	public Collection<CollisionWarning> getCollisionWarnings()
 	{
-		return Collections.unmodifiableCollection(collisionWarnings);
+		return collisionWarningsView;
+	}
+
+	/**
+	 * Returns the list of predicted conflicts found the last time the conflict probe ran
+	 *
+	 * <p>
+	 * These are pairs of aircraft which will lose separation in the near future if they
+	 * carry on flying the same way. The probe does not run every refresh, so this list may be
+	 * out of date. If there is no conflict probe, the list is empty.
+	 *
+	 * @see ConflictProbe#getConflicts()
+	 */
+	public Collection<PredictedConflict> getPredictedConflicts()
+	{
+		if (conflictProbe == null)
+			return Collections.emptyList();
+
+		return conflictProbe.getConflicts();
+	}
+
+	/**
+	 * Returns the spatial index containing the positions of the active objects
+	 *
+	 * <p>
+	 * The index is built from the state store during each refresh. If objects have been added to
+	 * or removed from the active objects list since then, the store is synced again and the index
+	 * is rebuilt before it is returned.
+	 */
+	public SpatialIndex getSpatialIndex()
+	{
+		if (spatialIndexModCount != activeObjects.getModCount())
+		{
+			syncStateStore();
+			rebuildSpatialIndex();
+		}
+
+		return spatialIndex;
+	}
+
+	/** Rebuilds the spatial index from the state store (which must match the active objects list) */
+	private void rebuildSpatialIndex()
+	{
+		spatialIndex.rebuild(getDimensions(), stateStore);
+		spatialIndexModCount = activeObjects.getModCount();
 	}
 
 	/**
@@ -197,17 +412,7 @@ public class Airspace
 	 */
 	public AirspaceObject findAircraft(Vector2D centre)
 	{
-		// Iterate through all objects IN REVERSE and return the first found
-		for (int i = activeObjects.size() - 1; i >= 0; i--)
-		{
-			AirspaceObject current = activeObjects.get(i);
-			float distance = current.getPosition().distanceTo(centre);
-
-			if (distance < current.getSize())
-				return current;
-		}
-
-		return null;
+		return getSpatialIndex().findAt(centre);
 	}
 
 	// Iterates a pointer through all Objects, returning the value of whichever
@@ -232,19 +437,23 @@ public class Airspace
 	 */
 	public List<AirspaceObject> findAircraft(Vector2D centre, float radius)
 	{
-		ArrayList<AirspaceObject> results = new ArrayList<>();
-
-		// Iterate through all objects IN REVERSE and return the accepted objects
-		for (int i = activeObjects.size() - 1; i >= 0; i--)
-		{
-			AirspaceObject current = activeObjects.get(i);
-			float distance = current.getPosition().distanceTo(centre);
-
-			if (distance < radius)
-				results.add(current);
-		}
+		return getSpatialIndex().findRadius(centre, radius);
+	}
 
-		return results;
+	/**
+	 * Visits the aircraft who's centres are within the given circle
+	 *
+	 * <p>
+	 * Unlike {@link #findAircraft(Vector2D, float)}, this does not allocate any memory
+	 * and the aircraft are visited in no particular order.
+	 *
+	 * @param centre the centre of the circle to search
+	 * @param radius the radius of the circle to search
+	 * @param visitor visitor called for each aircraft found
+	 */
+	public void findAircraft(Vector2D centre, float radius, SpatialIndex.ObjectVisitor visitor)
+	{
+		getSpatialIndex().visitRadius(centre, radius, visitor);
 	}
 
 	/** Returns true if the game is over */
@@ -289,13 +498,14 @@ public class Airspace
 		if (objectFactory != null && flightPlan != null)
 		{
 			// Generate random flight number
-			String flightNumber = String.format("YO%03d", Utils.getRandom().nextInt(1000));
+			String flightNumber = String.format("YO%03d", random.nextInt(1000));
 
 			// Try to create aircraft
 			AirspaceObject newObject = objectFactory.makeObject(this, flightPlan, flightNumber, AircraftColour.WHITE);
 			if (newObject != null)
 			{
 				activeObjects.add(newObject);
+				stateStore.add(newObject);
 				return true;
 			}
 		}
@@ -303,87 +513,123 @@ public class Airspace
 		return false;
 	}
 
-	/** Culls objects outside the game area */
-	private void cullObjects()
+	/** Copies the state of the active objects into the state store (package private for tests) */
+	void syncStateStore()
+	{
+		stateStore.sync(activeObjects);
+	}
+
+	/**
+	 * Culls objects outside the game area (package private for benchmarks)
+	 *
+	 * <p>
+	 * The remaining objects are moved down the list in one pass so culling many objects at once
+	 * does not shift the rest of the list for each one. The state store is compacted in the same
+	 * way so its slots still match the list. The culled objects are listed in reverse order.
+	 */
+	void cullObjects()
 	{
 		Rectangle gameArea = getDimensions();
+		float[] x = stateStore.getX();
+		float[] y = stateStore.getY();
+		float[] objectSize = stateStore.getSize();
+		int size = activeObjects.size();
+		int kept = 0;
+		int scoreGained = 0;
+		int landed = 0;
 
 		culledObjects.clear();
 
 		// Test if every object is within the area and cull if not
-		//  Do in reverse in case multiple objects are culled
-		for (int i = activeObjects.size() - 1; i >= 0; i--)
+		for (int i = 0; i < size; i++)
 		{
 			AirspaceObject object = activeObjects.get(i);
 
 			// Test for intersection with game area OR if the aircraft has finished
-			if (!gameArea.intersects(object.getPosition(), object.getSize()) || object.isFinished())
+			if (!gameArea.intersects(x[i], y[i], objectSize[i]) || object.isFinished())
 			{
-				activeObjects.remove(i);
 				culledObjects.add(object);
 
-				// Update score and landed planes if finished
+				// Count score and landed planes if finished
 				if (object.isFinished())
 				{
-					score += object.getScore();
+					scoreGained += object.getScore();
 					if (object.getFlightPlan() != null && object.getFlightPlan().isLanding())
-					{
-						landingPlanes--;
-						landedObjects++;
-					}
+						landed++;
 				}
 			}
+			else
+			{
+				// Keep the object (moving it over any culled objects)
+				if (kept != i)
+				{
+					activeObjects.set(kept, object);
+					stateStore.move(i, kept);
+				}
+
+				kept++;
+			}
 		}
-	}
 
-	/** Generates the list of collision warnings */
-	private void calculateCollisions()
-	{
-		// This is a simple collision algorithm, going through all objects
-		// and checking them with all other objects.
-		// As such it is O(n^2) so it may be slow for lots of objects
+		// Remove the leftover references from the end of the list
+		for (int i = size - 1; i >= kept; i--)
+			activeObjects.remove(i);
 
-		float lateralSeparation = getLateralSeparation();
-		float vertSeparation = getVerticalSeparation();
-		int objectsCount = activeObjects.size();
+		stateStore.truncate(kept);
 
+		Collections.reverse(culledObjects);
+
+		// Update score and landed planes
+		score += scoreGained;
+		landingPlanes -= landed;
+		landedObjects += landed;
+	}
+
+	/** Generates the list of collision warnings (package private for benchmarks) */
+	void calculateCollisions()
+	{
 		// Erase existing warnings
 		collisionWarnings.clear();
 
-		// Find new warnings
-		for (int a = 0; a < objectsCount; a++)
-		{
-			AirspaceObject object1 = activeObjects.get(a);
+		// The broad phase finds pairs of objects which are close together,
+		// then each pair is tested properly in the narrow phase
+		broadPhase.findPairs(this, stateStore, narrowPhase);
+	}
 
-			// Ignore non-solid objects
-			if (!object1.isSolid())
-				continue;
+	/** Tests pairs of objects found by the broad phase and generates collision warnings */
+	private class NarrowPhase implements BroadPhase.PairCallback
+	{
+		@Override
+		public void pair(int a, int b)
+		{
+			float[] x = stateStore.getX();
+			float[] y = stateStore.getY();
+			float[] altitude = stateStore.getAltitude();
 
-			Vector2D object1Position = object1.getPosition();
-			float object1Altitude = object1.getAltitude();
+			// Test collision
+			float lateralDistance = Vector2D.distance(x[a], y[a], x[b], y[b]);
+			float verticalDistance = Math.abs(altitude[a] - altitude[b]);
 
-			for (int b = a + 1; b < objectsCount; b++)
+			if (lateralDistance < lateralSeparation && verticalDistance < verticalSeparation)
 			{
-				AirspaceObject object2 = activeObjects.get(b);
+				AirspaceObject object1 = stateStore.getObject(a);
+				AirspaceObject object2 = stateStore.getObject(b);
 
-				// Ignore non-solid objects
-				if (!object2.isSolid())
-					continue;
+				// Add collision warning
+				object1.setViolated(true);
+				object2.setViolated(true);
 
-				// Test collision
-				if (object1Position.distanceTo(object2.getPosition()) < lateralSeparation &&
-					Math.abs(object1Altitude - object2.getAltitude()) < vertSeparation)
-				{
-					// Add collision warning
-					object1.setViolated(true);
-					object2.setViolated(true);
-					
-					CollisionWarning warning = new CollisionWarning(object1, object2);
-					collisionWarnings.add(warning);
-
-					if (warning.hasCollided())
-						gameOver = true;
-				}
+				// Reuse a warning from the pool if possible
+				int index = collisionWarnings.size();
+				if (index == collisionWarningPool.size())
+					collisionWarningPool.add(new CollisionWarning());
+
+				CollisionWarning warning = collisionWarningPool.get(index);
+				warning.set(object1, object2, lateralDistance, verticalDistance);
+				collisionWarnings.add(warning);
+
+				if (warning.hasCollided())
+					gameOver = true;
 			}
 		}
 	}
@@ -404,8 +650,21 @@ public class Airspace
 	public void refresh(float delta)
 	{
 		// Refresh all active objects
+		if (parallelThreshold > 0 && activeObjects.size() >= parallelThreshold)
+			getRefreshPool().invoke(new RefreshTask(activeObjects, 0, activeObjects.size(), delta, trigonometry));
+		else
+			for (AirspaceObject current : activeObjects)
+			{
+				current.setTrigonometry(trigonometry);
+				current.refresh(delta);
+			}
+
+		// Apply any changes to shared state (always in list order)
 		for (AirspaceObject current : activeObjects)
-			current.refresh(delta);
+			current.commitRefresh();
+
+		// Copy the new state of the objects into the state store
+		syncStateStore();
 
 		// Cull any objects outside the game area
 		cullObjects();
@@ -414,11 +673,61 @@ public class Airspace
 		if (flightPlanGenerator != null)
 			tryMakeObject(flightPlanGenerator.makeFlightPlan(this, delta));
 
+		// Update the spatial index for searches
+		rebuildSpatialIndex();
+
 		// Generate collision warnings + determine if game is over
 		calculateCollisions();
 
+		// Predict future conflicts (every so often)
+		if (conflictProbe != null)
+			conflictProbe.refresh(this, delta);
+
 		// Sort the list of aircraft
-		Collections.sort(activeObjects, AltitudeComparator.INSTANCE);
+		//  This only reorders the list, so the spatial index is still valid afterwards
+		sortByAltitude(activeObjects);
+		spatialIndexModCount = activeObjects.getModCount();
+	}
+
+	/**
+	 * Sorts a list of objects by altitude (lowest first)
+	 *
+	 * <p>
+	 * Altitudes change slowly, so the list is usually nearly sorted already. This uses
+	 * an insertion sort which is fast and does not allocate anything for nearly sorted lists,
+	 * and falls back to {@link Collections#sort(List, Comparator)} if too many objects need to
+	 * be moved. Both sorts are stable so the order is always the same as a full sort.
+	 *
+	 * @param objects list to sort
+	 */
+	static void sortByAltitude(List<AirspaceObject> objects)
+	{
+		int size = objects.size();
+		int shiftsLeft = size * MAX_SORT_SHIFTS_PER_OBJECT;
+
+		for (int i = 1; i < size; i++)
+		{
+			AirspaceObject current = objects.get(i);
+			float altitude = current.getAltitude();
+
+			// Shift larger objects up one place
+			int j = i;
+			while (j > 0 && Float.compare(objects.get(j - 1).getAltitude(), altitude) > 0)
+			{
+				if (--shiftsLeft < 0)
+				{
+					// The list is not nearly sorted (the list is still in a valid state here)
+					objects.set(j, current);
+					Collections.sort(objects, AltitudeComparator.INSTANCE);
+					return;
+				}
+
+				objects.set(j, objects.get(j - 1));
+				j--;
+			}
+
+			objects.set(j, current);
+		}
 	}
 
 	/**
@@ -436,6 +745,72 @@ public class Airspace
 			current.draw(state);
 	}
 
+	/** Returns the pool used for parallel refreshes (also used by {@link SectorGrid}) */
+	static synchronized ForkJoinPool getRefreshPool()
+	{
+		if (refreshPool == null)
+			refreshPool = new ForkJoinPool();
+
+		return refreshPool;
+	}
+
+	/** Task which refreshes a range of objects, splitting it into smaller tasks if it is large */
+	private static class RefreshTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<AirspaceObject> objects;
+		private final int start, end;
+		private final float delta;
+		private final Trigonometry trigonometry;
+
+		public RefreshTask(List<AirspaceObject> objects, int start, int end, float delta, Trigonometry trigonometry)
+		{
+			this.objects = objects;
+			this.start = start;
+			this.end = end;
+			this.delta = delta;
+			this.trigonometry = trigonometry;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start <= PARALLEL_CHUNK_SIZE)
+			{
+				for (int i = start; i < end; i++)
+				{
+					AirspaceObject object = objects.get(i);
+					object.setTrigonometry(trigonometry);
+					object.refresh(delta);
+				}
+			}
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new RefreshTask(objects, start, middle, delta, trigonometry),
+						new RefreshTask(objects, middle, end, delta, trigonometry));
+			}
+		}
+	}
+
+	/**
+	 * List of active objects which exposes its modification count
+	 *
+	 * <p>
+	 * The count changes whenever objects are added or removed, including by code outside the
+	 * airspace (like the network client), so it is used to tell when the spatial index is stale.
+	 */
+	private static class ObjectList extends ArrayList<AirspaceObject>
+	{
+		private static final long serialVersionUID = 1L;
+
+		public int getModCount()
+		{
+			return modCount;
+		}
+	}
+
 	/** Comparator comparing by altitude */
 	private static class AltitudeComparator implements Comparator<AirspaceObject>
 	{
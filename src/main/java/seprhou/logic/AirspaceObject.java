@@ -14,18 +14,47 @@ package seprhou.logic;
  * This class contains lots of abstract methods. These all specify various physics properties
  * about the object, and are used in the refresh method to control how the position and velocity
  * are updated.
+ *
+ * <p>
+ * The position and velocities are stored as primitive floats so that refreshing an object does not
+ * allocate any memory. The {@link Vector2D} versions returned by the getters are only created
+ * when they are asked for.
+ *
+ * <p>
+ * Objects using the {@link MotionModel#POLAR} motion model also store their velocity and
+ * target velocity as a speed and heading, which are used to refresh the object instead.
  */
 public abstract class AirspaceObject
 {
 	// Current state of the motion of the aircraft (position + 2d velocity)
-	protected Vector2D position = Vector2D.ZERO;
-	protected Vector2D velocity = Vector2D.ZERO;
+	private float positionX, positionY;
+	private float velocityX, velocityY;
 	protected float altitude;
 
 	// Targets
-	protected Vector2D targetVelocity = Vector2D.ZERO;
+	private float targetVelocityX, targetVelocityY;
 	protected float targetAltitude;
 
+	// Polar state (only used by the POLAR motion model)
+	private MotionModel motionModel = MotionModel.CARTESIAN;
+	private Trigonometry trigonometry = Trigonometry.STRICT;
+	private float speed, heading;
+	private float targetSpeed, targetHeading;
+
+	// Position before the last refresh (used to interpolate when drawing)
+	private float previousPositionX, previousPositionY;
+
+	// Slot given to this object by the last ObjectStateStore it was synced into
+	int storeSlot = -1;
+
+	// Sweep of the conflict probe which last probed this object (used by ConflictProbe)
+	int probeSweep;
+
+	// Vectors returned by the getters (null if they need to be recreated)
+	private Vector2D position = Vector2D.ZERO;
+	private Vector2D velocity = Vector2D.ZERO;
+	private Vector2D targetVelocity = Vector2D.ZERO;
+
 	/**
 	 * Constructs a new AirspaceObject with 0 initial values
 	 */
@@ -36,23 +65,115 @@ public abstract class AirspaceObject
 	/** Returns this aircraft's current position */
 	public Vector2D getPosition()
 	{
+		if (position == null)
+			position = new Vector2D(positionX, positionY);
+
 		return position;
 	}
+
+	/** Returns the X value of this aircraft's current position */
+	public float getPositionX()
+	{
+		return positionX;
+	}
+
+	/** Returns the Y value of this aircraft's current position */
+	public float getPositionY()
+	{
+		return positionY;
+	}
 	
-	/** Allows network to modify an aircraft's position*/
+	/**
+	 * Returns a position between the position before the last refresh and the current position
+	 *
+	 * <p>
+	 * This is used to draw objects smoothly when the game logic is refreshed at a different
+	 * rate to the screen.
+	 *
+	 * @param alpha fraction of the way to the current position (0 = previous position, 1 = current position)
+	 * @return the interpolated position
+	 * @see FixedTimestep#getAlpha()
+	 */
+	public Vector2D getInterpolatedPosition(float alpha)
+	{
+		return new Vector2D(
+				previousPositionX + (positionX - previousPositionX) * alpha,
+				previousPositionY + (positionY - previousPositionY) * alpha);
+	}
+	
+	/**
+	 * Allows network to modify an aircraft's position
+	 *
+	 * <p>This also sets the previous position so the object is not interpolated from its old position.
+	 */
 	public void setPosition(Vector2D position) {
+		this.positionX = position.getX();
+		this.positionY = position.getY();
+		this.previousPositionX = this.positionX;
+		this.previousPositionY = this.positionY;
 		this.position = position;
 	}
 
+	/**
+	 * Allows network to modify an aircraft's position and velocity without allocating memory
+	 *
+	 * <p>
+	 * Unlike {@link #setPosition(Vector2D)}, this does not change the previous position, so the
+	 * object is still interpolated from where it was before the last refresh.
+	 *
+	 * @param positionX new X position
+	 * @param positionY new Y position
+	 * @param velocityX new X velocity
+	 * @param velocityY new Y velocity
+	 */
+	public void setMotion(float positionX, float positionY, float velocityX, float velocityY)
+	{
+		this.positionX = positionX;
+		this.positionY = positionY;
+		this.velocityX = velocityX;
+		this.velocityY = velocityY;
+		this.position = null;
+		this.velocity = null;
+
+		if (motionModel == MotionModel.POLAR)
+		{
+			this.speed = Vector2D.length(velocityX, velocityY);
+			this.heading = trigonometry.atan2(velocityY, velocityX);
+		}
+	}
+
 	/** Returns this aircraft's current velocity */
 	public Vector2D getVelocity()
 	{
+		if (velocity == null)
+			velocity = new Vector2D(velocityX, velocityY);
+
 		return velocity;
 	}
+
+	/** Returns the X value of this aircraft's current velocity */
+	public float getVelocityX()
+	{
+		return velocityX;
+	}
+
+	/** Returns the Y value of this aircraft's current velocity */
+	public float getVelocityY()
+	{
+		return velocityY;
+	}
 	
 	/** Allows network to modify an aircraft's velocity*/
 	public void setVelocity(Vector2D velocity) {
+		this.velocityX = velocity.getX();
+		this.velocityY = velocity.getY();
 		this.velocity = velocity;
+
+		if (motionModel == MotionModel.POLAR)
+		{
+			this.speed = velocity.getLength();
+			this.heading = velocity.getAngle(trigonometry);
+		}
 	}
 
 	/** Returns this aircraft's current altitude */
@@ -69,9 +190,24 @@ public abstract class AirspaceObject
 	/** Returns this aircraft's target velocity */
 	public Vector2D getTargetVelocity()
 	{
+		if (targetVelocity == null)
+			targetVelocity = new Vector2D(targetVelocityX, targetVelocityY);
+
 		return targetVelocity;
 	}
 
+	/** Returns the X value of this aircraft's target velocity */
+	public float getTargetVelocityX()
+	{
+		return targetVelocityX;
+	}
+
+	/** Returns the Y value of this aircraft's target velocity */
+	public float getTargetVelocityY()
+	{
+		return targetVelocityY;
+	}
+
 	/** Returns this aircraft's target altitude */
 	public float getTargetAltitude()
 	{
@@ -99,11 +235,11 @@ public abstract class AirspaceObject
 			else if (speed > maxSpeed)
 				speed = maxSpeed;
 
-			this.targetVelocity = newVelocity.changeLength(speed);
+			setTargetVelocityNoClamping(newVelocity.changeLength(speed));
 		}
 		else
 		{
-			this.targetVelocity = newVelocity;
+			setTargetVelocityNoClamping(newVelocity);
 		}
 	}
 
@@ -116,7 +252,88 @@ public abstract class AirspaceObject
 	 * @param newVelocity new target velocity
 	 */
 	public void setTargetVelocityNoClamping(Vector2D newVelocity) {
+		this.targetVelocityX = newVelocity.getX();
+		this.targetVelocityY = newVelocity.getY();
 		this.targetVelocity = newVelocity;
+
+		if (motionModel == MotionModel.POLAR)
+		{
+			this.targetSpeed = newVelocity.getLength();
+			this.targetHeading = newVelocity.getAngle(trigonometry);
+		}
+	}
+
+	/**
+	 * Sets a new target velocity for this object without range clamping or allocating memory
+	 *
+	 * @param targetVelocityX X value of the new target velocity
+	 * @param targetVelocityY Y value of the new target velocity
+	 * @see #setTargetVelocityNoClamping(Vector2D)
+	 */
+	public void setTargetVelocityNoClamping(float targetVelocityX, float targetVelocityY)
+	{
+		this.targetVelocityX = targetVelocityX;
+		this.targetVelocityY = targetVelocityY;
+		this.targetVelocity = null;
+
+		if (motionModel == MotionModel.POLAR)
+		{
+			this.targetSpeed = Vector2D.length(targetVelocityX, targetVelocityY);
+			this.targetHeading = trigonometry.atan2(targetVelocityY, targetVelocityX);
+		}
+	}
+
+	/** Returns the motion model used to refresh this object */
+	public MotionModel getMotionModel()
+	{
+		return motionModel;
+	}
+
+	/**
+	 * Sets the motion model used to refresh this object
+	 *
+	 * <p>
+	 * Changing to the {@link MotionModel#POLAR} model calculates the speed and heading
+	 * from the current velocity and target velocity.
+	 *
+	 * @param motionModel the new motion model
+	 */
+	public void setMotionModel(MotionModel motionModel)
+	{
+		if (motionModel == null)
+			throw new IllegalArgumentException("motionModel cannot be null");
+
+		if (motionModel == MotionModel.POLAR && this.motionModel != MotionModel.POLAR)
+		{
+			speed = Vector2D.length(velocityX, velocityY);
+			heading = trigonometry.atan2(velocityY, velocityX);
+			targetSpeed = Vector2D.length(targetVelocityX, targetVelocityY);
+			targetHeading = trigonometry.atan2(targetVelocityY, targetVelocityX);
+		}
+
+		this.motionModel = motionModel;
+	}
+
+	/** Returns the trigonometric functions used to refresh this object */
+	public Trigonometry getTrigonometry()
+	{
+		return trigonometry;
+	}
+
+	/**
+	 * Sets the trigonometric functions used to refresh this object
+	 *
+	 * <p>Objects in an airspace have this set by the airspace each refresh.
+	 *
+	 * @param trigonometry the trigonometric functions to use
+	 * @see Airspace#setTrigonometry(Trigonometry)
+	 */
+	public void setTrigonometry(Trigonometry trigonometry)
+	{
+		if (trigonometry == null)
+			throw new IllegalArgumentException("trigonometry cannot be null");
+
+		this.trigonometry = trigonometry;
 	}
 
 	/**
@@ -153,7 +370,7 @@ public abstract class AirspaceObject
 	}
 
 	/** Moves value towards target in one step of size change */
-	private static float floatMoveTowards(float value, float target, float change)
+	static float floatMoveTowards(float value, float target, float change)
 	{
 		if (target < value)
 		{
@@ -174,6 +391,16 @@ public abstract class AirspaceObject
 	/**
 	 * Called every game tick to update this object's position and other data
 	 *
+	 * <p>
+	 * This method does not allocate any memory. With the {@link MotionModel#CARTESIAN} motion
+	 * model and {@link Trigonometry#STRICT} trigonometry it gives exactly the same results as doing
+	 * the calculations using {@link Vector2D} methods.
+	 *
+	 * <p>
+	 * This method may be called at the same time as the refresh methods of other objects
+	 * in the airspace (using different threads). It must not change any shared state -
+	 * use {@link #commitRefresh()} for that instead.
+	 *
 	 * @param dt number of seconds elapsed since the last call to this method
 	 * @see Airspace#refresh(float)
 	 */
@@ -188,20 +415,38 @@ public abstract class AirspaceObject
 		}
 
 		// Update velocity
-		if (!velocity.equals(targetVelocity))
+		if (motionModel == MotionModel.POLAR)
+			refreshPolarVelocity(dt);
+		else
+			refreshCartesianVelocity(dt);
+
+		// Update position
+		previousPositionX = positionX;
+		previousPositionY = positionY;
+		positionX += velocityX * dt;
+		positionY += velocityY * dt;
+		position = null;
+	}
+
+	/** Moves the velocity towards the target velocity using the cartesian motion model */
+	private void refreshCartesianVelocity(float dt)
+	{
+		// The test is the same as Vector2D.equals
+		if (Float.floatToIntBits(velocityX) != Float.floatToIntBits(targetVelocityX) ||
+			Float.floatToIntBits(velocityY) != Float.floatToIntBits(targetVelocityY))
 		{
 			float acceleration = getMaxAcceleration() * dt;
 			float turnRate = getMaxTurnRate() * dt;
 
 			// Process speed value
-			float speed = velocity.getLength();
-			float targetSpeed = targetVelocity.getLength();
+			float speed = Vector2D.length(velocityX, velocityY);
+			float targetSpeed = Vector2D.length(targetVelocityX, targetVelocityY);
 
 			speed = floatMoveTowards(speed, targetSpeed, acceleration);
 
 			// Process angle value
-			float angle = velocity.getAngle();
-			float targetAngle = targetVelocity.getAngle();
+			float angle = trigonometry.atan2(velocityY, velocityX);
+			float targetAngle = trigonometry.atan2(targetVelocityY, targetVelocityX);
 
 			// Adjust turn direction so the angle moves around the discontinuity properly
 			if (Math.abs(angle - targetAngle) > Math.PI)
@@ -209,12 +454,63 @@ public abstract class AirspaceObject
 
 			angle = floatMoveTowards(angle, targetAngle, turnRate);
 
-			// Reconstruct velocity vector
-			velocity = Vector2D.fromPolar(speed, angle);
+			// Reconstruct velocity vector (same as Vector2D.fromPolar)
+			velocityX = (float) (speed * trigonometry.cos(angle));
+			velocityY = (float) (speed * trigonometry.sin(angle));
+			velocity = null;
 		}
+	}
 
-		// Update position
-		position = position.add(velocity.multiply(dt));
+	/** Moves the velocity towards the target velocity using the polar motion model */
+	private void refreshPolarVelocity(float dt)
+	{
+		if (speed != targetSpeed || heading != targetHeading)
+		{
+			speed = floatMoveTowards(speed, targetSpeed, getMaxAcceleration() * dt);
+
+			// Adjust turn direction so the heading moves around the discontinuity properly
+			float turnRate = getMaxTurnRate() * dt;
+			if (Math.abs(heading - targetHeading) > Math.PI)
+				turnRate = -turnRate;
+
+			heading = floatMoveTowards(heading, targetHeading, turnRate);
+
+			// Keep the heading in the same range as Vector2D.angle
+			if (heading > Math.PI)
+				heading -= (float) (2 * Math.PI);
+			else if (heading < -Math.PI)
+				heading += (float) (2 * Math.PI);
+
+			// Recalculate the X and Y values
+			velocityX = (float) (speed * trigonometry.cos(heading));
+			velocityY = (float) (speed * trigonometry.sin(heading));
+			velocity = null;
+		}
+	}
+
+	/**
+	 * Called when this object is moved into a different airspace
+	 *
+	 * <p>Objects which keep a reference to their airspace should update it here.
+	 *
+	 * @param airspace the new airspace
+	 * @see SectorGrid
+	 */
+	void setAirspace(Airspace airspace)
+	{
+	}
+
+	/**
+	 * Called after every object in the airspace has been refreshed
+	 *
+	 * <p>
+	 * This is called on one thread for each object in turn (in the order of the active objects list)
+	 * so it can safely change state shared with the other objects (like the airspace's counters).
+	 *
+	 * @see #refresh(float)
+	 */
+	public void commitRefresh()
+	{
 	}
 
 	/**
@@ -275,6 +571,13 @@ public abstract class AirspaceObject
 	/** Returns the Score of the Object */
 	public int getScore() { return 0; }
 
+	/**
+	 * Returns true if this object is counted in its airspace's landing planes
+	 *
+	 * @see Airspace#getLandingPlanes()
+	 */
+	public boolean isLanding() { return false; }
+
 	/** Returns the FLightPlan of an Object */
 	public FlightPlan getFlightPlan() { return null; }
 }
@@ -0,0 +1,44 @@
+package seprhou.logic;
+
+/**
+ * The first (broad) phase of the collision detection in an {@link Airspace}
+ *
+ * <p>
+ * A broad phase quickly throws away pairs of objects which are too far apart to generate
+ * a collision warning. The remaining pairs are then tested exactly by the airspace.
+ *
+ * <p>
+ * Implementations must report every pair of solid objects whose centres are closer than
+ * the lateral separation of the airspace (reporting some extra pairs is fine). Pairs whose
+ * altitudes are not within the vertical separation of the airspace may be skipped. Each pair is
+ * reported once with the smaller slot first, and the pairs are reported in ascending order
+ * (by first slot, then by second slot). This means the generated collision warnings do not
+ * depend on which broad phase is in use.
+ *
+ * @see Airspace#setBroadPhase(BroadPhase)
+ */
+public interface BroadPhase
+{
+	/**
+	 * Finds the pairs of objects which may be within lateral separation of each other
+	 *
+	 * @param airspace the airspace the objects are in
+	 * @param store state of the objects to test (pairs are reported as slots in this store)
+	 * @param callback callback to report pairs to
+	 */
+	public void findPairs(Airspace airspace, ObjectStateStore store, PairCallback callback);
+
+	/**
+	 * Callback which receives the pairs found by a broad phase
+	 */
+	public interface PairCallback
+	{
+		/**
+		 * Called for each pair found
+		 *
+		 * @param a slot of the first object
+		 * @param b slot of the second object (always greater than a)
+		 */
+		public void pair(int a, int b);
+	}
+}
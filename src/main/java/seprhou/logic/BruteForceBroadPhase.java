@@ -0,0 +1,31 @@
+package seprhou.logic;
+
+/**
+ * A broad phase which reports every pair of solid objects
+ *
+ * <p>
+ * This is O(n^2) so it may be slow for lots of objects, but it has no overhead
+ * so it is the fastest broad phase when there are only a few objects.
+ */
+public class BruteForceBroadPhase implements BroadPhase
+{
+	@Override
+	public void findPairs(Airspace airspace, ObjectStateStore store, PairCallback callback)
+	{
+		boolean[] solid = store.getSolid();
+		int objectsCount = store.getCount();
+
+		for (int a = 0; a < objectsCount; a++)
+		{
+			// Ignore non-solid objects
+			if (!solid[a])
+				continue;
+
+			for (int b = a + 1; b < objectsCount; b++)
+			{
+				if (solid[b])
+					callback.pair(a, b);
+			}
+		}
+	}
+}
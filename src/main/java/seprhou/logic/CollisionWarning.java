@@ -2,10 +2,16 @@ package seprhou.logic;
 
 /**
  * A warning that two aircraft are "close" to each other
+ *
+ * <p>
+ * The distances between the aircraft are calculated when the warning is created.
+ * Warnings returned by {@link Airspace#getCollisionWarnings()} are reused by the
+ * airspace on the next refresh.
  */
 public class CollisionWarning
 {
-	private final AirspaceObject object1, object2;
+	private AirspaceObject object1, object2;
+	private float lateralDistance, verticalDistance;
 
 	/**
 	 * Constructs a warning involving two aircraft
@@ -14,9 +20,31 @@ public class CollisionWarning
 	 * @param object2 the second aircraft
 	 */
 	public CollisionWarning(AirspaceObject object1, AirspaceObject object2)
+	{
+		set(object1, object2,
+				object1.getPosition().distanceTo(object2.getPosition()),
+				Math.abs(object1.getAltitude() - object2.getAltitude()));
+	}
+
+	/** Constructs an empty warning (used by the airspace's warning pool) */
+	CollisionWarning()
+	{
+	}
+
+	/**
+	 * Changes the aircraft and distances stored in this warning
+	 *
+	 * @param object1 the first aircraft
+	 * @param object2 the second aircraft
+	 * @param lateralDistance the horizontal distance between the aircraft
+	 * @param verticalDistance the vertical distance between the aircraft
+	 */
+	void set(AirspaceObject object1, AirspaceObject object2, float lateralDistance, float verticalDistance)
 	{
 		this.object1 = object1;
 		this.object2 = object2;
+		this.lateralDistance = lateralDistance;
+		this.verticalDistance = verticalDistance;
 	}
 
 	/** returns the first aircraft */
@@ -35,18 +63,18 @@ public class CollisionWarning
 	public boolean hasCollided()
 	{
 		float threshold = object1.getSize() + object2.getSize();
-		return getLateralDistance() < threshold && getVerticalDistance() < threshold;
+		return lateralDistance < threshold && verticalDistance < threshold;
 	}
 
 	/** returns the horizontal distance between the objects */
 	public float getLateralDistance()
 	{
-		return object1.getPosition().distanceTo(object2.getPosition());
+		return lateralDistance;
 	}
 
 	/** returns the vertical distance between the objects (altitudes) */
 	public float getVerticalDistance()
 	{
-		return Math.abs(object1.getAltitude() - object2.getAltitude());
+		return verticalDistance;
 	}
 }
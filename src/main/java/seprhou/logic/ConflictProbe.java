@@ -0,0 +1,303 @@
+package seprhou.logic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Predicts which aircraft will lose separation in the near future
+ *
+ * <p>
+ * For each pair of solid objects, the probe calculates the closest point of approach assuming
+ * both objects carry on at their current velocities. If the objects will be closer than the
+ * lateral separation within the horizon (and are currently within the vertical separation),
+ * a {@link PredictedConflict} is generated.
+ *
+ * <p>
+ * Predictions do not need to be made every frame, so the work is spread out. Each sweep probes
+ * every object once over the interval, a fraction of the objects each refresh, and the predicted
+ * conflicts are replaced when a sweep finishes. Each object is probed by searching the airspace's
+ * {@link SpatialIndex} for objects close enough to reach it within the horizon.
+ *
+ * @see Airspace#getPredictedConflicts()
+ */
+public class ConflictProbe
+{
+	/** Source of sweep numbers (shared so objects moved between airspaces are never confused) */
+	private static final AtomicInteger nextSweep = new AtomicInteger();
+
+	private float horizon = LogicConstants.CONFLICT_PROBE_HORIZON;
+	private float interval = LogicConstants.CONFLICT_PROBE_INTERVAL;
+
+	/** Fraction of the current sweep which has been done (or NaN before the first sweep) */
+	private float sweepProgress = Float.NaN;
+	private int sweep = nextSweep.incrementAndGet();
+
+	private final ArrayList<PredictedConflict> conflicts = new ArrayList<>();
+	private final Collection<PredictedConflict> conflictsView = Collections.unmodifiableCollection(conflicts);
+	private final ArrayList<PredictedConflict> sweepConflicts = new ArrayList<>();
+
+	// Pools of conflicts used by the published conflicts and the current sweep (swapped after each sweep)
+	private ArrayList<PredictedConflict> conflictPool = new ArrayList<>();
+	private ArrayList<PredictedConflict> sweepConflictPool = new ArrayList<>();
+	private final NeighbourVisitor neighbourVisitor = new NeighbourVisitor();
+
+	// State of the current probe
+	private ObjectStateStore store;
+	private float lateralSeparation, verticalSeparation;
+
+	/** Returns how far into the future conflicts are predicted (seconds) */
+	public float getHorizon()
+	{
+		return horizon;
+	}
+
+	/**
+	 * Sets how far into the future conflicts are predicted
+	 *
+	 * @param horizon new horizon in seconds
+	 */
+	public void setHorizon(float horizon)
+	{
+		if (!(horizon >= 0))
+			throw new IllegalArgumentException("horizon cannot be negative");
+
+		this.horizon = horizon;
+	}
+
+	/** Returns the time taken by each sweep of the probe (seconds) */
+	public float getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Sets the time taken by each sweep of the probe
+	 *
+	 * @param interval new interval in seconds (0 probes every object each refresh)
+	 */
+	public void setInterval(float interval)
+	{
+		if (!(interval >= 0))
+			throw new IllegalArgumentException("interval cannot be negative");
+
+		this.interval = interval;
+	}
+
+	/**
+	 * Returns the conflicts found by the last complete sweep
+	 *
+	 * <p>The conflicts are sorted so that the soonest conflicts are first.
+	 *
+	 * <p>
+	 * The returned list is unmodifiable and is reused by each sweep (so you must copy it if you
+	 * want to keep it). The conflicts inside it are also reused. The objects in it may have been
+	 * culled since they were probed, and the times are measured from when each pair was probed
+	 * during the sweep.
+	 */
+	public Collection<PredictedConflict> getConflicts()
+	{
+		return conflictsView;
+	}
+
+	/**
+	 * Probes the next fraction of the objects in an airspace
+	 *
+	 * <p>
+	 * The fraction probed is the time since the last refresh divided by the interval.
+	 * The first refresh probes every object at once so there are conflicts straight away.
+	 *
+	 * <p>
+	 * This uses the airspace's state store and spatial index, which must be up to date.
+	 *
+	 * @param airspace the airspace the objects are in
+	 * @param delta the time (in seconds) since the last call to this method
+	 * @return true if a sweep finished (so the conflicts have been replaced)
+	 */
+	public boolean refresh(Airspace airspace, float delta)
+	{
+		if (Float.isNaN(sweepProgress) || !(delta < interval))
+		{
+			probe(airspace);
+			return true;
+		}
+
+		int count = airspace.getStateStore().getCount();
+		float newProgress = sweepProgress + delta / interval;
+
+		// Probe the objects between the old and new progress
+		//  Culling moves objects to lower slots during a sweep, so the last refresh of a sweep
+		//  goes over every slot again to catch any objects which moved behind the progress
+		//  (objects which have already been probed are skipped)
+		int start = (newProgress >= 1) ? 0 : Math.min((int) (sweepProgress * count), count);
+		int end = (newProgress >= 1) ? count : Math.min((int) (newProgress * count), count);
+
+		probeObjects(airspace, start, end);
+
+		if (newProgress < 1)
+		{
+			sweepProgress = newProgress;
+			return false;
+		}
+
+		finishSweep();
+		return true;
+	}
+
+	/**
+	 * Probes every object in an airspace now, replacing the existing predicted conflicts
+	 *
+	 * <p>This starts a new sweep, throwing away the conflicts found so far in the current one.
+	 *
+	 * @param airspace the airspace the objects are in
+	 * @see #refresh(Airspace, float)
+	 */
+	public void probe(Airspace airspace)
+	{
+		sweepConflicts.clear();
+		sweep = nextSweep.incrementAndGet();
+		probeObjects(airspace, 0, airspace.getStateStore().getCount());
+		finishSweep();
+	}
+
+	/** Publishes the conflicts found by the current sweep and starts a new one */
+	private void finishSweep()
+	{
+		conflicts.clear();
+		conflicts.addAll(sweepConflicts);
+		sweepConflicts.clear();
+
+		// The published conflicts now belong to the sweep's pool, so the next sweep uses the other one
+		ArrayList<PredictedConflict> pool = conflictPool;
+		conflictPool = sweepConflictPool;
+		sweepConflictPool = pool;
+		sweepProgress = 0;
+		sweep = nextSweep.incrementAndGet();
+
+		// Put the soonest conflicts first
+		Collections.sort(conflicts, TimeComparator.INSTANCE);
+	}
+
+	/** Probes the objects in a range of slots */
+	private void probeObjects(Airspace airspace, int start, int end)
+	{
+		if (start >= end)
+			return;
+
+		// Get the index first since it may sync the store again
+		SpatialIndex index = airspace.getSpatialIndex();
+
+		store = airspace.getStateStore();
+		lateralSeparation = airspace.getLateralSeparation();
+		verticalSeparation = airspace.getVerticalSeparation();
+
+		float[] x = store.getX(), y = store.getY();
+		float[] velocityX = store.getVelocityX(), velocityY = store.getVelocityY();
+		boolean[] solid = store.getSolid();
+		int objectsCount = store.getCount();
+
+		// Find the fastest object (any object further away than it can travel cannot conflict)
+		float maxSpeedSquared = 0;
+		for (int i = 0; i < objectsCount; i++)
+			maxSpeedSquared = Math.max(maxSpeedSquared, velocityX[i] * velocityX[i] + velocityY[i] * velocityY[i]);
+
+		float maxSpeed = (float) Math.sqrt(maxSpeedSquared);
+
+		for (int a = start; a < Math.min(end, objectsCount); a++)
+		{
+			// Ignore non-solid objects and objects probed already (objects can move between slots)
+			AirspaceObject object = store.getObject(a);
+			if (!solid[a] || object.probeSweep == sweep)
+				continue;
+
+			// Search for objects which could get within separation of this one
+			float speed = Vector2D.length(velocityX[a], velocityY[a]);
+			float radius = lateralSeparation + (speed + maxSpeed) * horizon;
+			if (Float.isInfinite(radius))
+				continue;
+
+			// Each pair is only tested by the first of its objects to be probed in this sweep
+			object.probeSweep = sweep;
+			neighbourVisitor.slot = a;
+			index.visitRadius(x[a], y[a], radius, neighbourVisitor);
+		}
+
+		store = null;
+	}
+
+	/** Calculates the closest point of approach of two objects and adds a conflict if needed */
+	private void testPair(int a, int b)
+	{
+		if (!store.getSolid()[b])
+			return;
+
+		// Vertical test (the altitudes are not predicted)
+		float[] altitude = store.getAltitude();
+		float verticalDistance = Math.abs(altitude[a] - altitude[b]);
+		if (!(verticalDistance < verticalSeparation))
+			return;
+
+		// Relative position and velocity of b from a
+		float[] x = store.getX(), y = store.getY();
+		float[] velocityX = store.getVelocityX(), velocityY = store.getVelocityY();
+
+		float px = x[b] - x[a];
+		float py = y[b] - y[a];
+		float vx = velocityX[b] - velocityX[a];
+		float vy = velocityY[b] - velocityY[a];
+
+		// Time of closest approach (clamped to the horizon)
+		float speedSquared = vx * vx + vy * vy;
+		float time = 0;
+
+		if (speedSquared > 0)
+		{
+			time = -(px * vx + py * vy) / speedSquared;
+			time = Math.max(0, Math.min(horizon, time));
+		}
+
+		float distance = Vector2D.length(px + vx * time, py + vy * time);
+		if (distance < lateralSeparation)
+		{
+			AirspaceObject object1 = store.getObject(Math.min(a, b));
+			AirspaceObject object2 = store.getObject(Math.max(a, b));
+
+			// Reuse a conflict from the pool if possible
+			int index = sweepConflicts.size();
+			if (index == sweepConflictPool.size())
+				sweepConflictPool.add(new PredictedConflict());
+
+			PredictedConflict conflict = sweepConflictPool.get(index);
+			conflict.set(object1, object2, time, distance, verticalDistance);
+			sweepConflicts.add(conflict);
+		}
+	}
+
+	/** Tests each object found by a spatial index search against the object being probed */
+	private class NeighbourVisitor implements SpatialIndex.ObjectVisitor
+	{
+		public int slot;
+
+		@Override
+		public void visit(AirspaceObject object)
+		{
+			// Skip objects which have already been probed (including the object itself)
+			if (object.probeSweep != sweep)
+				testPair(slot, store.getSlot(object));
+		}
+	}
+
+	/** Comparator comparing by time until the closest approach */
+	private static class TimeComparator implements Comparator<PredictedConflict>
+	{
+		public static final TimeComparator INSTANCE = new TimeComparator();
+
+		@Override
+		public int compare(PredictedConflict o1, PredictedConflict o2)
+		{
+			return Float.compare(o1.getTime(), o2.getTime());
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package seprhou.logic;
+
+/**
+ * Splits variable frame times into a number of fixed size simulation steps
+ *
+ * <p>
+ * Each frame, call {@link #advance(float)} with the frame time and then refresh the
+ * simulation the returned number of times using {@link #getStep()} as the delta. The
+ * simulation then behaves the same whatever the frame rate is.
+ *
+ * <p>
+ * The time left over which is not enough for a whole step is kept for the next frame.
+ * {@link #getAlpha()} gives this as a fraction of a step, which can be used to
+ * interpolate between the previous and current states when drawing.
+ *
+ * <p>
+ * To stop a slow frame causing an ever increasing number of steps, no more than
+ * the maximum number of steps are run each frame. Any extra time is thrown away.
+ */
+public class FixedTimestep
+{
+	private final float step;
+	private final int maxSteps;
+
+	private float accumulator;
+
+	/**
+	 * Creates a new fixed timestep
+	 *
+	 * @param step the size of each step in seconds
+	 * @param maxSteps the maximum number of steps to run each frame
+	 */
+	public FixedTimestep(float step, int maxSteps)
+	{
+		if (!(step > 0))
+			throw new IllegalArgumentException("step must be greater than 0");
+		if (maxSteps <= 0)
+			throw new IllegalArgumentException("maxSteps must be greater than 0");
+
+		this.step = step;
+		this.maxSteps = maxSteps;
+	}
+
+	/** Returns the size of each step in seconds */
+	public float getStep()
+	{
+		return step;
+	}
+
+	/** Returns the maximum number of steps run each frame */
+	public int getMaxSteps()
+	{
+		return maxSteps;
+	}
+
+	/**
+	 * Returns the fraction of a step which has accumulated but not been run yet
+	 *
+	 * <p>This is always between 0 (inclusive) and 1 (exclusive).
+	 */
+	public float getAlpha()
+	{
+		return accumulator / step;
+	}
+
+	/**
+	 * Advances the timestep by the given frame time
+	 *
+	 * @param delta the time (in seconds) since the last frame
+	 * @return the number of steps to run this frame
+	 */
+	public int advance(float delta)
+	{
+		if (delta < 0)
+			throw new IllegalArgumentException("delta cannot be negative");
+
+		accumulator += delta;
+
+		int steps = 0;
+		while (accumulator >= step && steps < maxSteps)
+		{
+			accumulator -= step;
+			steps++;
+		}
+
+		// Throw away any whole steps we could not catch up on
+		if (accumulator >= step)
+			accumulator %= step;
+
+		return steps;
+	}
+
+	/** Throws away any accumulated time */
+	public void reset()
+	{
+		accumulator = 0;
+	}
+}
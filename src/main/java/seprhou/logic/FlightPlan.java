@@ -5,10 +5,15 @@ import java.util.List;
 
 /**
  * Class which stores the flight plan of an aircraft and its initial trajectory
+ *
+ * <p>
+ * Flight plans whose waypoints are all on the map share an interned {@link Route}
+ * instead of storing their own list of waypoints.
  */
 public class FlightPlan
 {
 	private final List<Vector2D> waypoints;
+	private final Route route;
 	private final float initialSpeed, initialAltitude;
 	private final boolean landing;
 	private final boolean startOnRunway;
@@ -16,6 +21,10 @@ public class FlightPlan
 	/**
 	 * Creates a new flight plan
 	 *
+	 * <p>
+	 * If all the waypoints are in the default {@link RoutingTable}, they are stored
+	 * as a route.
+	 *
 	 * @param waypoints list of waypoint positions
 	 * @param initialSpeed initial speed of the flight
 	 * @param initialAltitude initial altitude of the flight
@@ -28,7 +37,31 @@ public class FlightPlan
 		if (waypoints.size() < 2)
 			throw new IllegalArgumentException("waypoints must have at least 2 items");
 
-		this.waypoints = Collections.unmodifiableList(waypoints);
+		this.route = RoutingTable.getDefault().intern(waypoints);
+		this.waypoints = (route != null) ? route : Collections.unmodifiableList(waypoints);
+		this.initialSpeed = initialSpeed;
+		this.initialAltitude = initialAltitude;
+		this.landing = landing;
+		this.startOnRunway = startOnRunway;
+	}
+
+	/**
+	 * Creates a new flight plan from a route
+	 *
+	 * @param route route containing the waypoints
+	 * @param initialSpeed initial speed of the flight
+	 * @param initialAltitude initial altitude of the flight
+	 */
+	public FlightPlan(Route route, float initialSpeed,
+			float initialAltitude, boolean landing, boolean startOnRunway)
+	{
+		if (route == null)
+			throw new IllegalArgumentException("route cannot be null");
+		if (route.size() < 2)
+			throw new IllegalArgumentException("route must have at least 2 items");
+
+		this.route = route;
+		this.waypoints = route;
 		this.initialSpeed = initialSpeed;
 		this.initialAltitude = initialAltitude;
 		this.landing = landing;
@@ -41,6 +74,16 @@ public class FlightPlan
 		return waypoints;
 	}
 
+	/**
+	 * Returns the route containing the waypoints
+	 *
+	 * @return the route or null if the waypoints are not all on the map
+	 */
+	public Route getRoute()
+	{
+		return route;
+	}
+
 	/** Returns the initial speed */
 	public float getInitialSpeed()
 	{
@@ -2,6 +2,7 @@ package seprhou.logic;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static seprhou.logic.LogicConstants.*;
 
@@ -10,11 +11,67 @@ import static seprhou.logic.LogicConstants.*;
  */
 public class FlightPlanGenerator
 {
+	private final Random random;
+	private final RoutingTable routingTable = RoutingTable.getDefault();
+	private final boolean[] usedWaypoints = new boolean[routingTable.getWaypointCount()];
+	private final int[] routeBuffer = new int[MAX_WAYPOINTS + 5];
+	private int routeLength;
 	private int nextTakeOffRunway = 0;
+	private int maxAircraft = MAX_AIRCRAFT;
 
 	// State (time since last aircraft)
 	private float timeSinceLastAircraft = Float.POSITIVE_INFINITY;
 
+	/**
+	 * Creates a new flight plan generator with an unseeded random number generator
+	 */
+	public FlightPlanGenerator()
+	{
+		this(new Random());
+	}
+
+	/**
+	 * Creates a new flight plan generator
+	 *
+	 * @param random the random number generator used to make flight plans
+	 */
+	public FlightPlanGenerator(Random random)
+	{
+		if (random == null)
+			throw new IllegalArgumentException("random cannot be null");
+
+		this.random = random;
+	}
+
+	/** Returns the random number generator used to make flight plans */
+	public Random getRandom()
+	{
+		return random;
+	}
+
+	/**
+	 * Returns the maximum number of active aircraft before no more flight plans are generated
+	 *
+	 * @see LogicConstants#MAX_AIRCRAFT
+	 */
+	public int getMaxAircraft()
+	{
+		return maxAircraft;
+	}
+
+	/**
+	 * Sets the maximum number of active aircraft before no more flight plans are generated
+	 *
+	 * @param maxAircraft new maximum number of aircraft
+	 */
+	public void setMaxAircraft(int maxAircraft)
+	{
+		if (maxAircraft < 0)
+			throw new IllegalArgumentException("maxAircraft cannot be negative");
+
+		this.maxAircraft = maxAircraft;
+	}
+
 	/**
 	 * Generates the list of points which a flight can safely enter currently
 	 *
@@ -32,7 +89,8 @@ public class FlightPlanGenerator
 			// Test all aircraft against this point
 			for (AirspaceObject object : airspace.getActiveObjects())
 			{
-				if (object.isSolid() && object.getPosition().distanceTo(point) < MIN_SAFE_ENTRY_DISTANCE)
+				if (object.isSolid() && Vector2D.distance(object.getPositionX(), object.getPositionY(),
+						point.getX(), point.getY()) < MIN_SAFE_ENTRY_DISTANCE)
 				{
 					ok = false;
 					break;
@@ -46,6 +104,25 @@ public class FlightPlanGenerator
 		return safePoints;
 	}
 
+	/** Adds a point which is not a waypoint (like an entry point) to the route being generated */
+	private void addRoutePoint(Vector2D point)
+	{
+		int index = routingTable.findPoint(point);
+		routeBuffer[routeLength++] = routingTable.getPointMapIndex(index);
+
+		// The point may also be a waypoint which must not be visited twice
+		int waypoint = routingTable.getPointWaypoint(index);
+		if (waypoint >= 0)
+			usedWaypoints[waypoint] = true;
+	}
+
+	/** Adds a waypoint to the route being generated */
+	private void addRouteWaypoint(int waypoint)
+	{
+		routeBuffer[routeLength++] = waypoint;
+		usedWaypoints[routingTable.getCanonicalWaypoint(waypoint)] = true;
+	}
+
 	public FlightPlan makeFlightPlanNow(Airspace airspace) {
 		return this.makeFlightPlanNow(airspace, true, false);
 	}
@@ -71,7 +148,12 @@ public class FlightPlanGenerator
 	 */
 	public FlightPlan makeFlightPlanNow(Airspace airspace, boolean canLand, boolean isOnRunway)
 	{
-		List<Vector2D> myWaypoints = new ArrayList<>();
+		Vector2D entryPoint;
+
+		// Clear the route being generated
+		routeLength = 0;
+		for (int i = 0; i < usedWaypoints.length; i++)
+			usedWaypoints[i] = false;
 
 		// Choose an entry and exit point then some sensible waypoints between them,
 		//  also determines whether a plane is landing or not.
@@ -83,8 +165,9 @@ public class FlightPlanGenerator
 				this.nextTakeOffRunway--;
 			else
 				this.nextTakeOffRunway++;
-			myWaypoints.add(runway.getStart());
-			myWaypoints.add(runway.getEnd());
+			entryPoint = runway.getStart();
+			addRoutePoint(runway.getStart());
+			addRoutePoint(runway.getEnd());
 		} else {
 			// Generate a subset of entryExitPoints which contains the points which we can enter from
 			List<Vector2D> entryPointSubset = generateEntryPointSubset(airspace);
@@ -93,91 +176,84 @@ public class FlightPlanGenerator
 
 			// Choose random entry point and add into the list
 			// if the plane is not taking off from the runway
-			myWaypoints.add(Utils.randomItem(entryPointSubset));
+			entryPoint = Utils.randomItem(random, entryPointSubset);
+			addRoutePoint(entryPoint);
 		}
 
-		Vector2D entryPoint = myWaypoints.get(0);
-
 		// If the plane has not started on runway,
 		// Randomly picks whether the plane should land based on Landing Chance constant
 		// Or leave through exit point.
 		Vector2D landingPoint = null;
 		Vector2D exitPoint;
 		boolean landing;
-		if (Utils.getRandom().nextInt(LANDING_CHANCE) == 1 && canLand && !isOnRunway) {
-			Runway landingStrip = Utils.randomItem(RUNWAYS);
+		if (random.nextInt(LANDING_CHANCE) == 1 && canLand && !isOnRunway) {
+			Runway landingStrip = Utils.randomItem(random, RUNWAYS);
 			landingPoint = landingStrip.getEnd();
 			exitPoint = landingStrip.getStart();
 			landing = true;
 		} else {
-			exitPoint = Utils.randomItem(ENTRY_EXIT_POINTS, entryPoint);
+			exitPoint = Utils.randomItem(random, ENTRY_EXIT_POINTS, entryPoint);
 			landing = false;
 		}
 
-		// Create list of eligible first waypoints and chooses a random one to be added
-		List<Vector2D> firstWaypoints = new ArrayList<>();
-		for (Vector2D waypoint : WAYPOINTS)
-		{
-			if (entryPoint.distanceTo(waypoint) < 400)
-				firstWaypoints.add(waypoint);
-		}
-		Vector2D firstWaypoint = Utils.randomItem(firstWaypoints);
-		myWaypoints.add(firstWaypoint);
-		Vector2D currentWaypoint = firstWaypoint;
+		// Find the start and destination in the routing table
+		int destination = routingTable.findPoint(landing ? landingPoint : exitPoint);
+		int entryIndex = routingTable.findPoint(entryPoint);
+
+		// Choose a random first waypoint from the ones near the entry point
+		int[] firstWaypoints = routingTable.getFirstWaypoints(entryIndex);
+		int currentWaypoint = firstWaypoints[random.nextInt(firstWaypoints.length)];
+		addRouteWaypoint(currentWaypoint);
 
 		// Choose a random flightplan length between Min and Max constants
-		int flightPlanLength = Utils.getRandom().nextInt(MAX_WAYPOINTS - MIN_WAYPOINTS) + MIN_WAYPOINTS;
+		int flightPlanLength = random.nextInt(MAX_WAYPOINTS - MIN_WAYPOINTS) + MIN_WAYPOINTS;
 
 		// Add flightplanlength number of waypoints to the flightplan
-		for (int i = 0; i < flightPlanLength; i++){
-			// List of eligible waypoints
-			List<Vector2D> nextWaypoints = new ArrayList<>();
-			// Check each waypoint to see if eligible and add to list
-			for (Vector2D newWaypoint : WAYPOINTS)
+		for (int i = 0; i < flightPlanLength; i++)
+		{
+			// Eligible waypoints are closer to the exit/landing point than the current one
+			//  and are not already in the flight plan
+			int[] nextWaypoints = routingTable.getNextWaypoints(destination, currentWaypoint);
+			int eligible = 0;
+			for (int waypoint : nextWaypoints)
 			{
-				// Check each waypoint to see whether it is closer to the exit/landing point than the previous
-				// waypoint in the flightplan
-				if (landing){
-					if ((newWaypoint.distanceTo(landingPoint)) < (currentWaypoint.distanceTo(landingPoint)))
-					{
-						if (!myWaypoints.contains(newWaypoint))
-						{
-							nextWaypoints.add(newWaypoint);
-						}
-					}
-				} else {
-					if ((newWaypoint.distanceTo(exitPoint)) < (currentWaypoint.distanceTo(exitPoint)))
+				if (!usedWaypoints[routingTable.getCanonicalWaypoint(waypoint)])
+					eligible++;
+			}
+
+			// Choose random waypoint from list of eligibles and add to flightplan
+			if (eligible != 0)
+			{
+				int chosen = random.nextInt(eligible);
+				for (int waypoint : nextWaypoints)
+				{
+					if (!usedWaypoints[routingTable.getCanonicalWaypoint(waypoint)] && chosen-- == 0)
 					{
-						if (!myWaypoints.contains(newWaypoint))
-						{
-							nextWaypoints.add(newWaypoint);
-						}
+						currentWaypoint = waypoint;
+						break;
 					}
 				}
-			}
-			// Choose random waypoint from list of eligibles and add to flightplan
-			if (nextWaypoints.size() != 0){
-				Vector2D waypointAdded = Utils.randomItem(nextWaypoints);
-				myWaypoints.add(waypointAdded);
-				currentWaypoint = waypointAdded;
+
+				addRouteWaypoint(currentWaypoint);
 			}
 		}
 
 		// Add the exitpoint(s) to flightplan.
 		if (landing){
-			myWaypoints.add(landingPoint);
-			myWaypoints.add(exitPoint);
+			addRoutePoint(landingPoint);
+			addRoutePoint(exitPoint);
 		} else {
-			myWaypoints.add(exitPoint);
+			addRoutePoint(exitPoint);
 		}
 
 		// Choose initial speed and altitude
-		float initialSpeed = Utils.randomItem(INITIAL_SPEEDS);
-		float initialAltitude = Utils.randomItem(INITIAL_ALTITUDES);
+		float initialSpeed = Utils.randomItem(random, INITIAL_SPEEDS);
+		float initialAltitude = Utils.randomItem(random, INITIAL_ALTITUDES);
 
 		// Create flight plan
 		timeSinceLastAircraft = 0;
-		return new FlightPlan(myWaypoints, initialSpeed, initialAltitude, landing, isOnRunway);
+		Route route = routingTable.intern(routeBuffer, routeLength);
+		return new FlightPlan(route, initialSpeed, initialAltitude, landing, isOnRunway);
 	}
 
 	/**
@@ -200,11 +276,11 @@ public class FlightPlanGenerator
 			return null;
 
 		// Check max aircraft
-		if (airspace.getActiveObjects().size() >= MAX_AIRCRAFT)
+		if (airspace.getActiveObjects().size() >= maxAircraft)
 			return null;
 
 		// Add some randomness
-		if (Utils.getRandom().nextFloat() >= delta * AIRCRAFT_PER_SEC)
+		if (random.nextFloat() >= delta * AIRCRAFT_PER_SEC)
 			return null;
 
 		// Try to generate an
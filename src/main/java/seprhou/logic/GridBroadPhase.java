@@ -0,0 +1,97 @@
+package seprhou.logic;
+
+/**
+ * A broad phase which uses a uniform grid to find objects which are close together
+ *
+ * <p>
+ * The cells of the grid are about the size of the lateral separation, so each object only
+ * needs to be tested against objects in its own cell and the cells next to it. This makes
+ * the broad phase roughly O(n) as long as the objects are not all bunched up together.
+ */
+public class GridBroadPhase implements BroadPhase
+{
+	/**
+	 * Cells are made slightly larger than the lateral separation so that float
+	 * rounding can never put two close objects more than one cell apart
+	 */
+	private static final float CELL_PADDING = 1.01f;
+
+	private final SpatialGrid grid = new SpatialGrid();
+	private final PairBuffer pairs = new PairBuffer();
+
+	// State of the current search
+	private float[] xs, ys;
+	private boolean[] solid;
+	private float cellSize;
+
+	@Override
+	public void findPairs(Airspace airspace, ObjectStateStore store, PairCallback callback)
+	{
+		float lateralSeparation = airspace.getLateralSeparation();
+		int objectsCount = store.getCount();
+
+		// No pairs can be within a separation of 0
+		if (lateralSeparation <= 0)
+			return;
+
+		xs = store.getX();
+		ys = store.getY();
+		solid = store.getSolid();
+
+		// Sort objects into grid cells
+		grid.rebuild(airspace.getDimensions(), lateralSeparation * CELL_PADDING, xs, ys, objectsCount);
+		cellSize = grid.getCellSize();
+
+		// Test each cell against itself and the cells "after" it
+		//  This visits each pair of adjacent cells exactly once
+		pairs.clear();
+
+		for (int row = 0; row < grid.getRows(); row++)
+		{
+			for (int column = 0; column < grid.getColumns(); column++)
+			{
+				int start = grid.getCellStart(column, row);
+				int end = grid.getCellEnd(column, row);
+
+				for (int i = start; i < end; i++)
+				{
+					int a = grid.getEntry(i);
+
+					// Ignore non-solid objects
+					if (!solid[a])
+						continue;
+
+					// Objects in the same cell
+					for (int j = i + 1; j < end; j++)
+						addIfClose(a, grid.getEntry(j));
+
+					// Objects in neighbouring cells
+					addCell(a, column + 1, row);
+					addCell(a, column - 1, row + 1);
+					addCell(a, column,     row + 1);
+					addCell(a, column + 1, row + 1);
+				}
+			}
+		}
+
+		pairs.report(callback);
+	}
+
+	/** Tests an object against all the objects in a cell */
+	private void addCell(int a, int column, int row)
+	{
+		if (column < 0 || column >= grid.getColumns() || row >= grid.getRows())
+			return;
+
+		int end = grid.getCellEnd(column, row);
+		for (int i = grid.getCellStart(column, row); i < end; i++)
+			addIfClose(a, grid.getEntry(i));
+	}
+
+	/** Adds a pair if the objects are solid and their bounding squares overlap */
+	private void addIfClose(int a, int b)
+	{
+		if (solid[b] && Math.abs(xs[a] - xs[b]) < cellSize && Math.abs(ys[a] - ys[b]) < cellSize)
+			pairs.add(a, b);
+	}
+}
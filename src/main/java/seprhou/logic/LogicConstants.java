@@ -1,6 +1,7 @@
 package seprhou.logic;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,6 +16,12 @@ public final class LogicConstants
 	/** Amount the altitude jumps to when a key is pressed */
 	public static final float ALTITUDE_JUMP = 10000;
 
+	/** Time between each game logic refresh (seconds) */
+	public static final float LOGIC_TIMESTEP = 1 / 60f;
+
+	/** Maximum number of game logic refreshes run each frame */
+	public static final int MAX_LOGIC_STEPS_PER_FRAME = 5;
+
 	// #################
 	// Global game configuration options
 	// #################
@@ -80,6 +87,12 @@ public final class LogicConstants
 	/** Maximum number of waypoints in each flight plan */
 	public static final int MAX_WAYPOINTS = 4;
 	
+	/** How far into the future to predict conflicts between aircraft (seconds) */
+	public static final float CONFLICT_PROBE_HORIZON = 30;
+
+	/** Time taken to predict the conflicts of every aircraft once (the work is spread over this time) */
+	public static final float CONFLICT_PROBE_INTERVAL = 0.5f;
+
 	/** Chance of having to land (1 in x chance) */
 	public static final int LANDING_CHANCE = 6;
 
@@ -96,6 +109,24 @@ public final class LogicConstants
 	/** Maximum turn rate of the aircraft (radians per second) */
 	public static final float AIRCRAFT_TURN_RATE = 1.25f;
 
+	/** Maximum acceleration of the aircraft (units per second squared) */
+	public static final float AIRCRAFT_ACCELERATION = 10;
+
+	// Derived constants
+	// The +10 and -10 here are leeway needed due to float rounding errors
+
+	/** Minimum speed of the aircraft */
+	public static final float AIRCRAFT_MIN_SPEED = Collections.min(INITIAL_SPEEDS) - 10;
+
+	/** Maximum speed of the aircraft */
+	public static final float AIRCRAFT_MAX_SPEED = Collections.max(INITIAL_SPEEDS) + 10;
+
+	/** Minimum altitude of the aircraft */
+	public static final float AIRCRAFT_MIN_ALTITUDE = 5000f;
+
+	/** Maximum altitude of the aircraft */
+	public static final float AIRCRAFT_MAX_ALTITUDE = Collections.max(INITIAL_ALTITUDES);
+
 	/**
 	 * Specifies the positions at which the planes landed on the airport will appear.
 	 */
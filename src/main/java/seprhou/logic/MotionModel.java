@@ -0,0 +1,28 @@
+package seprhou.logic;
+
+/**
+ * The way an {@link AirspaceObject} stores its velocity while it is refreshed
+ *
+ * @see AirspaceObject#setMotionModel(MotionModel)
+ */
+public enum MotionModel
+{
+	/**
+	 * The velocity is stored as X and Y values
+	 *
+	 * <p>
+	 * Each refresh while the velocity is changing, the velocity and target velocity are converted
+	 * to a speed and angle and back again.
+	 */
+	CARTESIAN,
+
+	/**
+	 * The velocity is stored as a speed and heading
+	 *
+	 * <p>
+	 * The X and Y values are only recalculated when the speed or heading changes. This avoids
+	 * two square roots and two arctangents each refresh, but rounding errors mean the results
+	 * are slightly different to {@link #CARTESIAN}.
+	 */
+	POLAR,
+}
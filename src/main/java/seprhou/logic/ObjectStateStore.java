@@ -0,0 +1,262 @@
+package seprhou.logic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the motion state of a list of airspace objects in arrays of primitives
+ *
+ * <p>
+ * Each object is given a slot, which is its index in the list of objects at the time
+ * of the last {@link #sync(List)}. The arrays can then be read in order without
+ * following a pointer to each object and then to each of its vectors.
+ *
+ * <p>
+ * The store is a copy of the state of the objects - it is not updated automatically
+ * when the objects change. An {@link Airspace} copies its objects into its store once each
+ * refresh, straight after they have moved, and then culls, detects collisions and predicts
+ * conflicts using the store. The arrays returned by the getters are owned by the store,
+ * are reused by later syncs, and may be longer than {@link #getCount()}.
+ */
+public class ObjectStateStore
+{
+	private final boolean ownsSlots;
+
+	private AirspaceObject[] objects = new AirspaceObject[0];
+	private float[] x = new float[0], y = new float[0];
+	private float[] velocityX = new float[0], velocityY = new float[0];
+	private float[] altitude = new float[0];
+	private float[] targetVelocityX = new float[0], targetVelocityY = new float[0];
+	private float[] targetAltitude = new float[0];
+	private float[] size = new float[0];
+	private boolean[] solid = new boolean[0];
+	private int count;
+
+	/** Creates a new empty state store */
+	public ObjectStateStore()
+	{
+		this(true);
+	}
+
+	/**
+	 * Creates a new empty state store
+	 *
+	 * <p>
+	 * Each object remembers its slot in one store so that {@link #getSlot} is fast. A store which
+	 * does not own the slots leaves them alone, so it can hold objects which are also in another
+	 * store, but searching it with {@link #getSlot} is slower.
+	 *
+	 * @param ownsSlots true if objects should remember their slots in this store
+	 */
+	public ObjectStateStore(boolean ownsSlots)
+	{
+		this.ownsSlots = ownsSlots;
+	}
+
+	/**
+	 * Copies the state of a list of objects into the store
+	 *
+	 * @param list list of objects (slots are assigned using the indexes of this list)
+	 */
+	public void sync(List<AirspaceObject> list)
+	{
+		int newCount = list.size();
+
+		if (objects.length < newCount)
+			grow(newCount);
+
+		// Copy state
+		for (int i = 0; i < newCount; i++)
+			copy(i, list.get(i));
+
+		truncate(newCount);
+	}
+
+	/**
+	 * Adds an object to the end of the store
+	 *
+	 * @param object object to add (it is given the slot {@link #getCount()})
+	 */
+	void add(AirspaceObject object)
+	{
+		if (objects.length == count)
+			grow(count + 1);
+
+		copy(count, object);
+		count++;
+	}
+
+	/**
+	 * Moves the state in one slot into an earlier slot
+	 *
+	 * <p>This is used to remove objects from the store in the same way they are removed from a list.
+	 *
+	 * @param from slot to move
+	 * @param to slot to move it to
+	 */
+	void move(int from, int to)
+	{
+		AirspaceObject object = objects[from];
+
+		objects[to] = object;
+		if (ownsSlots)
+			object.storeSlot = to;
+		x[to] = x[from];
+		y[to] = y[from];
+		velocityX[to] = velocityX[from];
+		velocityY[to] = velocityY[from];
+		altitude[to] = altitude[from];
+		targetVelocityX[to] = targetVelocityX[from];
+		targetVelocityY[to] = targetVelocityY[from];
+		targetAltitude[to] = targetAltitude[from];
+		size[to] = size[from];
+		solid[to] = solid[from];
+	}
+
+	/**
+	 * Removes every object from the given slot onwards
+	 *
+	 * @param newCount new number of objects in the store
+	 */
+	void truncate(int newCount)
+	{
+		// Release references to objects which are no longer stored
+		Arrays.fill(objects, newCount, count > newCount ? count : newCount, null);
+		count = newCount;
+	}
+
+	/** Copies the state of an object into a slot */
+	private void copy(int slot, AirspaceObject object)
+	{
+		objects[slot] = object;
+		if (ownsSlots)
+			object.storeSlot = slot;
+		x[slot] = object.getPositionX();
+		y[slot] = object.getPositionY();
+		velocityX[slot] = object.getVelocityX();
+		velocityY[slot] = object.getVelocityY();
+		altitude[slot] = object.getAltitude();
+		targetVelocityX[slot] = object.getTargetVelocityX();
+		targetVelocityY[slot] = object.getTargetVelocityY();
+		targetAltitude[slot] = object.getTargetAltitude();
+		size[slot] = object.getSize();
+		solid[slot] = object.isSolid();
+	}
+
+	/** Grows the arrays so they can hold at least the given number of objects */
+	private void grow(int minCapacity)
+	{
+		int capacity = Math.max(minCapacity, objects.length * 2);
+
+		objects = Arrays.copyOf(objects, capacity);
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		velocityX = Arrays.copyOf(velocityX, capacity);
+		velocityY = Arrays.copyOf(velocityY, capacity);
+		altitude = Arrays.copyOf(altitude, capacity);
+		targetVelocityX = Arrays.copyOf(targetVelocityX, capacity);
+		targetVelocityY = Arrays.copyOf(targetVelocityY, capacity);
+		targetAltitude = Arrays.copyOf(targetAltitude, capacity);
+		size = Arrays.copyOf(size, capacity);
+		solid = Arrays.copyOf(solid, capacity);
+	}
+
+	/**
+	 * Returns the slot an object was given in the last sync
+	 *
+	 * @param object object to find
+	 * @return the slot of the object or -1 if it is not in the store
+	 */
+	public int getSlot(AirspaceObject object)
+	{
+		if (!ownsSlots)
+		{
+			for (int i = 0; i < count; i++)
+			{
+				if (objects[i] == object)
+					return i;
+			}
+
+			return -1;
+		}
+
+		int slot = object.storeSlot;
+
+		if (slot >= 0 && slot < count && objects[slot] == object)
+			return slot;
+
+		return -1;
+	}
+
+	/** Returns the number of objects in the store */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/** Returns the object in the given slot */
+	public AirspaceObject getObject(int slot)
+	{
+		return objects[slot];
+	}
+
+	/** Returns the array of X positions */
+	public float[] getX()
+	{
+		return x;
+	}
+
+	/** Returns the array of Y positions */
+	public float[] getY()
+	{
+		return y;
+	}
+
+	/** Returns the array of X velocities */
+	public float[] getVelocityX()
+	{
+		return velocityX;
+	}
+
+	/** Returns the array of Y velocities */
+	public float[] getVelocityY()
+	{
+		return velocityY;
+	}
+
+	/** Returns the array of altitudes */
+	public float[] getAltitude()
+	{
+		return altitude;
+	}
+
+	/** Returns the array of target X velocities */
+	public float[] getTargetVelocityX()
+	{
+		return targetVelocityX;
+	}
+
+	/** Returns the array of target Y velocities */
+	public float[] getTargetVelocityY()
+	{
+		return targetVelocityY;
+	}
+
+	/** Returns the array of target altitudes */
+	public float[] getTargetAltitude()
+	{
+		return targetAltitude;
+	}
+
+	/** Returns the array of object sizes */
+	public float[] getSize()
+	{
+		return size;
+	}
+
+	/** Returns the array of flags saying whether each object is solid */
+	public boolean[] getSolid()
+	{
+		return solid;
+	}
+}
@@ -0,0 +1,51 @@
+package seprhou.logic;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of index pairs which can be reported in ascending order
+ *
+ * <p>Used by broad phases which find pairs in an arbitrary order.
+ */
+final class PairBuffer
+{
+	private long[] pairs = new long[64];
+	private int count;
+
+	/** Removes all the pairs from the buffer */
+	public void clear()
+	{
+		count = 0;
+	}
+
+	/**
+	 * Adds a pair to the buffer
+	 *
+	 * @param a index of one object
+	 * @param b index of the other object
+	 */
+	public void add(int a, int b)
+	{
+		if (count == pairs.length)
+			pairs = Arrays.copyOf(pairs, count * 2);
+
+		// Pack the pair so that sorting the longs sorts the pairs
+		if (a < b)
+			pairs[count++] = ((long) a << 32) | b;
+		else
+			pairs[count++] = ((long) b << 32) | a;
+	}
+
+	/**
+	 * Sorts the pairs in the buffer and reports them to a callback
+	 *
+	 * @param callback callback to report pairs to
+	 */
+	public void report(BroadPhase.PairCallback callback)
+	{
+		Arrays.sort(pairs, 0, count);
+
+		for (int i = 0; i < count; i++)
+			callback.pair((int) (pairs[i] >>> 32), (int) pairs[i]);
+	}
+}
@@ -0,0 +1,88 @@
+package seprhou.logic;
+
+/**
+ * A prediction that two aircraft will get too close to each other if they carry on flying
+ * at their current velocities
+ *
+ * <p>Conflicts returned by {@link ConflictProbe#getConflicts()} are reused by the probe.
+ *
+ * @see ConflictProbe
+ */
+public class PredictedConflict
+{
+	private AirspaceObject object1, object2;
+	private float time, lateralDistance, verticalDistance;
+
+	/**
+	 * Constructs a predicted conflict between two aircraft
+	 *
+	 * @param object1 the first aircraft
+	 * @param object2 the second aircraft
+	 * @param time time until the aircraft are closest (seconds)
+	 * @param lateralDistance horizontal distance between the aircraft when they are closest
+	 * @param verticalDistance vertical distance between the aircraft
+	 */
+	public PredictedConflict(AirspaceObject object1, AirspaceObject object2,
+			float time, float lateralDistance, float verticalDistance)
+	{
+		set(object1, object2, time, lateralDistance, verticalDistance);
+	}
+
+	/** Constructs an empty conflict (used by the probe's conflict pool) */
+	PredictedConflict()
+	{
+	}
+
+	/**
+	 * Changes the aircraft and distances stored in this conflict
+	 *
+	 * @param object1 the first aircraft
+	 * @param object2 the second aircraft
+	 * @param time time until the aircraft are closest (seconds)
+	 * @param lateralDistance horizontal distance between the aircraft when they are closest
+	 * @param verticalDistance vertical distance between the aircraft
+	 */
+	void set(AirspaceObject object1, AirspaceObject object2,
+			float time, float lateralDistance, float verticalDistance)
+	{
+		this.object1 = object1;
+		this.object2 = object2;
+		this.time = time;
+		this.lateralDistance = lateralDistance;
+		this.verticalDistance = verticalDistance;
+	}
+
+	/** Returns the first aircraft */
+	public AirspaceObject getObject1()
+	{
+		return object1;
+	}
+
+	/** Returns the second aircraft */
+	public AirspaceObject getObject2()
+	{
+		return object2;
+	}
+
+	/**
+	 * Returns the time from the prediction until the aircraft are closest (seconds)
+	 *
+	 * <p>This is 0 if the aircraft are getting further apart (and were already too close)
+	 */
+	public float getTime()
+	{
+		return time;
+	}
+
+	/** Returns the horizontal distance between the aircraft when they are closest */
+	public float getLateralDistance()
+	{
+		return lateralDistance;
+	}
+
+	/** Returns the vertical distance between the aircraft when the prediction was made */
+	public float getVerticalDistance()
+	{
+		return verticalDistance;
+	}
+}
@@ -127,6 +127,21 @@ public class Rectangle
 	 * @return true if they intersect
 	 */
 	public boolean intersects(Vector2D center, float radius)
+	{
+		return intersects(center.getX(), center.getY(), radius);
+	}
+
+	/**
+	 * Returns true if this rectangle intersects (overlaps) with a circle
+	 *
+	 * <p>This is the same as {@link #intersects(Vector2D, float)} but does not allocate any memory.
+	 *
+	 * @param centerX x coordinate of the center of the circle
+	 * @param centerY y coordinate of the center of the circle
+	 * @param radius radius of the circle
+	 * @return true if they intersect
+	 */
+	public boolean intersects(float centerX, float centerY, float radius)
 	{
 		/*
 		 * either the center is in the rectangle or an edge of the rectangle intersects the circle
@@ -139,35 +154,34 @@ public class Rectangle
 		float maxX = p2.getX();
 		float minX = p1.getX();
 
-		Vector2D vertex1 = new Vector2D(minX, minY);
-		Vector2D vertex2 = new Vector2D(minX, maxY);
-		Vector2D vertex3 = new Vector2D(maxX, minY);
-		Vector2D vertex4 = new Vector2D(maxX, maxY);
-
-		float distance1 = vertex1.distanceTo(center);
-		float distance2 = vertex2.distanceTo(center);
-		float distance3 = vertex3.distanceTo(center);
-		float distance4 = vertex4.distanceTo(center);
-
-		float maxYcirc = center.getY() + radius;
-		float maxXcirc = center.getX() + radius;
-		float minYcirc = center.getY() - radius;
-		float minXcirc = center.getX() - radius;
-		Vector2D northpoint = new Vector2D(center.getX(), maxYcirc);
-		Vector2D eastpoint = new Vector2D(maxXcirc, center.getY());
-		Vector2D southpoint = new Vector2D(center.getX(), minYcirc);
-		Vector2D westpoint = new Vector2D(minXcirc, center.getY());
-
-		if (this.contains(center))
+		float distance1 = Vector2D.distance(minX, minY, centerX, centerY);
+		float distance2 = Vector2D.distance(minX, maxY, centerX, centerY);
+		float distance3 = Vector2D.distance(maxX, minY, centerX, centerY);
+		float distance4 = Vector2D.distance(maxX, maxY, centerX, centerY);
+
+		float maxYcirc = centerY + radius;
+		float maxXcirc = centerX + radius;
+		float minYcirc = centerY - radius;
+		float minXcirc = centerX - radius;
+
+		if (this.contains(centerX, centerY))
 			return true;
 		else if ((distance1 < radius)||(distance2 < radius)||(distance3 < radius)||(distance4 < radius))
 			return true;
-		else if (this.contains(northpoint) || this.contains(eastpoint) || this.contains(southpoint) || this.contains(westpoint))
+		else if (this.contains(centerX, maxYcirc) || this.contains(maxXcirc, centerY) ||
+				this.contains(centerX, minYcirc) || this.contains(minXcirc, centerY))
 			return true;
 		else
 			return false;
 	}
 
+	/** Returns true if a point is inside this rectangle (the same as {@link #contains(Vector2D)}) */
+	private boolean contains(float x, float y)
+	{
+		return  (p1.getY() <= y && y < p2.getY()) &&
+				(p1.getX() <= x && x < p2.getX());
+	}
+
 	/**
 	 * Returns true if this rectangle is exactly equal to another
 	 *
@@ -0,0 +1,87 @@
+package seprhou.logic;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of points on a map stored as indexes into a routing table
+ *
+ * <p>
+ * Routes are created using {@link RoutingTable#intern(int[])} which returns the same
+ * route object for identical lists of points, so aircraft flying the same route share it.
+ *
+ * @see RoutingTable#getMapPoint(int)
+ */
+public final class Route extends AbstractList<Vector2D> implements RandomAccess
+{
+	private final RoutingTable table;
+	private final int[] points;
+	private final int hashCode;
+
+	/**
+	 * Creates a new route (use {@link RoutingTable#intern(int[])} instead)
+	 *
+	 * @param table table containing the points
+	 * @param points indexes of the points in the route (not copied)
+	 */
+	Route(RoutingTable table, int[] points)
+	{
+		this.table = table;
+		this.points = points;
+		this.hashCode = super.hashCode();
+	}
+
+	/** Returns the routing table this route's points are stored in */
+	public RoutingTable getTable()
+	{
+		return table;
+	}
+
+	/**
+	 * Returns the index of a point in the routing table
+	 *
+	 * @param index index of the point in this route
+	 * @return index of the point in the routing table
+	 * @see RoutingTable#getMapPoint(int)
+	 */
+	public int getPointIndex(int index)
+	{
+		return points[index];
+	}
+
+	@Override
+	public Vector2D get(int index)
+	{
+		return table.getMapPoint(points[index]);
+	}
+
+	@Override
+	public int size()
+	{
+		return points.length;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+			return true;
+
+		// Fast path for routes in the same table
+		if (other instanceof Route)
+		{
+			Route otherRoute = (Route) other;
+			if (table == otherRoute.table && Arrays.equals(points, otherRoute.points))
+				return true;
+		}
+
+		return super.equals(other);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return hashCode;
+	}
+}
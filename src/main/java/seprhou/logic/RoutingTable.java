@@ -0,0 +1,347 @@
+package seprhou.logic;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Precomputed tables of which waypoints a flight plan can visit next
+ *
+ * <p>
+ * The flight plan generator chooses a route by repeatedly picking a random waypoint which is
+ * closer to the destination than the current waypoint. This table stores, for each destination
+ * and each waypoint, the list of waypoints which are closer to the destination so they do not
+ * have to be recalculated for every flight plan. Waypoints are referred to by their index in the
+ * list of waypoints, and lists of waypoints are always kept in the same order as that list.
+ *
+ * <p>
+ * The table also numbers every point on the map so flight plans can be stored as a
+ * {@link Route} of point indexes. Map points are numbered with the waypoints first,
+ * followed by the other points.
+ *
+ * <p>
+ * The table is built once for each map and cannot be modified.
+ *
+ * @see FlightPlanGenerator
+ */
+public final class RoutingTable
+{
+	/** Maximum distance between an entry point and the first waypoint */
+	public static final float MAX_FIRST_WAYPOINT_DISTANCE = 400;
+
+	private static RoutingTable defaultTable;
+
+	private final List<Vector2D> waypoints;
+	private final List<Vector2D> points;
+
+	// For each waypoint, the index of the first waypoint equal to it
+	private final int[] canonical;
+
+	// For each point, the index of the first waypoint equal to it (or -1)
+	private final int[] pointWaypoint;
+
+	// For each point, the waypoints close enough to be the first waypoint after it
+	private final int[][] firstWaypoints;
+
+	// For each point and waypoint, the waypoints closer to the point than the waypoint
+	private final int[][][] nextWaypoints;
+
+	// Interned routes (the values are the same as the keys)
+	private final Map<Route, WeakReference<Route>> routes = new WeakHashMap<>();
+
+	/**
+	 * Builds a routing table
+	 *
+	 * @param waypoints list of waypoints which can be visited by flight plans
+	 * @param points list of points flight plans can start or finish at
+	 */
+	public RoutingTable(List<Vector2D> waypoints, List<Vector2D> points)
+	{
+		this.waypoints = new ArrayList<>(waypoints);
+		this.points = new ArrayList<>(points);
+
+		int waypointCount = waypoints.size();
+		int pointCount = points.size();
+
+		canonical = new int[waypointCount];
+		for (int i = 0; i < waypointCount; i++)
+			canonical[i] = waypoints.indexOf(waypoints.get(i));
+
+		pointWaypoint = new int[pointCount];
+		firstWaypoints = new int[pointCount][];
+		nextWaypoints = new int[pointCount][waypointCount][];
+
+		for (int p = 0; p < pointCount; p++)
+		{
+			Vector2D point = points.get(p);
+			pointWaypoint[p] = waypoints.indexOf(point);
+
+			// Waypoints near the point
+			List<Integer> first = new ArrayList<>();
+			for (int i = 0; i < waypointCount; i++)
+			{
+				if (point.distanceTo(waypoints.get(i)) < MAX_FIRST_WAYPOINT_DISTANCE)
+					first.add(i);
+			}
+
+			firstWaypoints[p] = toArray(first);
+
+			// Waypoints closer to the point than each waypoint
+			for (int current = 0; current < waypointCount; current++)
+			{
+				float currentDistance = waypoints.get(current).distanceTo(point);
+				List<Integer> next = new ArrayList<>();
+
+				for (int i = 0; i < waypointCount; i++)
+				{
+					if (waypoints.get(i).distanceTo(point) < currentDistance)
+						next.add(i);
+				}
+
+				nextWaypoints[p][current] = toArray(next);
+			}
+		}
+	}
+
+	/**
+	 * Returns the routing table for the map in {@link LogicConstants}
+	 *
+	 * <p>
+	 * The points of this table are the entry and exit points, followed by the
+	 * start and end of each runway.
+	 */
+	public static synchronized RoutingTable getDefault()
+	{
+		if (defaultTable == null)
+		{
+			List<Vector2D> points = new ArrayList<>(LogicConstants.ENTRY_EXIT_POINTS);
+
+			for (Runway runway : LogicConstants.RUNWAYS)
+			{
+				points.add(runway.getStart());
+				points.add(runway.getEnd());
+			}
+
+			defaultTable = new RoutingTable(LogicConstants.WAYPOINTS, points);
+		}
+
+		return defaultTable;
+	}
+
+	/** Converts a list of integers to an array */
+	private static int[] toArray(List<Integer> list)
+	{
+		int[] result = new int[list.size()];
+
+		for (int i = 0; i < result.length; i++)
+			result[i] = list.get(i);
+
+		return result;
+	}
+
+	/** Returns the number of map points (waypoints and other points) */
+	public int getMapPointCount()
+	{
+		return waypoints.size() + points.size();
+	}
+
+	/**
+	 * Returns a map point
+	 *
+	 * @param index index of the map point
+	 * @return the map point
+	 */
+	public Vector2D getMapPoint(int index)
+	{
+		if (index < waypoints.size())
+			return waypoints.get(index);
+
+		return points.get(index - waypoints.size());
+	}
+
+	/**
+	 * Returns the map point index of a point
+	 *
+	 * @param point index of the point (as used by {@link #findPoint(Vector2D)})
+	 * @return the map point index
+	 */
+	public int getPointMapIndex(int point)
+	{
+		return waypoints.size() + point;
+	}
+
+	/**
+	 * Finds the index of a map point
+	 *
+	 * @param point point to find
+	 * @return the map point index or -1 if the point is not on the map
+	 */
+	public int findMapPoint(Vector2D point)
+	{
+		int index = waypoints.indexOf(point);
+		if (index >= 0)
+			return index;
+
+		index = points.indexOf(point);
+		if (index >= 0)
+			return getPointMapIndex(index);
+
+		return -1;
+	}
+
+	/**
+	 * Returns a route containing the given map points
+	 *
+	 * <p>
+	 * If an identical route already exists, it is returned instead of a new one.
+	 *
+	 * @param route array of map point indexes (not modified or stored)
+	 * @return the route
+	 * @throws IllegalArgumentException if any of the indexes are not valid map points
+	 */
+	public Route intern(int[] route)
+	{
+		return intern(route, route.length);
+	}
+
+	/**
+	 * Returns a route containing the first length map points in an array
+	 *
+	 * @param route array of map point indexes (not modified or stored)
+	 * @param length number of points in the route
+	 * @return the route
+	 * @throws IllegalArgumentException if any of the indexes are not valid map points
+	 * @see #intern(int[])
+	 */
+	public Route intern(int[] route, int length)
+	{
+		int pointCount = getMapPointCount();
+		for (int i = 0; i < length; i++)
+		{
+			if (route[i] < 0 || route[i] >= pointCount)
+				throw new IllegalArgumentException("invalid map point index " + route[i]);
+		}
+
+		Route newRoute = new Route(this, Arrays.copyOf(route, length));
+
+		synchronized (routes)
+		{
+			WeakReference<Route> existingRef = routes.get(newRoute);
+			if (existingRef != null)
+			{
+				Route existing = existingRef.get();
+				if (existing != null)
+					return existing;
+			}
+
+			routes.put(newRoute, new WeakReference<>(newRoute));
+			return newRoute;
+		}
+	}
+
+	/**
+	 * Returns a route containing the given points
+	 *
+	 * @param route list of points
+	 * @return the route or null if some of the points are not on the map
+	 */
+	public Route intern(List<Vector2D> route)
+	{
+		int[] indexes = new int[route.size()];
+
+		for (int i = 0; i < indexes.length; i++)
+		{
+			indexes[i] = findMapPoint(route.get(i));
+			if (indexes[i] < 0)
+				return null;
+		}
+
+		return intern(indexes);
+	}
+
+	/** Returns the number of waypoints */
+	public int getWaypointCount()
+	{
+		return waypoints.size();
+	}
+
+	/** Returns the waypoint with the given index */
+	public Vector2D getWaypoint(int waypoint)
+	{
+		return waypoints.get(waypoint);
+	}
+
+	/**
+	 * Returns the index of the first waypoint which is equal to the given waypoint
+	 *
+	 * <p>This is used to treat identical waypoints as the same waypoint.
+	 */
+	public int getCanonicalWaypoint(int waypoint)
+	{
+		return canonical[waypoint];
+	}
+
+	/**
+	 * Finds the index of a point
+	 *
+	 * @param point point to find
+	 * @return the index of the point
+	 * @throws IllegalArgumentException if the point is not in the table
+	 */
+	public int findPoint(Vector2D point)
+	{
+		// Check for the same object first (this is almost always the case)
+		for (int i = 0; i < points.size(); i++)
+		{
+			if (points.get(i) == point)
+				return i;
+		}
+
+		int index = points.indexOf(point);
+		if (index < 0)
+			throw new IllegalArgumentException("point " + point + " is not in the routing table");
+
+		return index;
+	}
+
+	/**
+	 * Returns the index of the first waypoint equal to a point
+	 *
+	 * @param point index of the point
+	 * @return the waypoint index or -1 if the point is not a waypoint
+	 */
+	public int getPointWaypoint(int point)
+	{
+		return pointWaypoint[point];
+	}
+
+	/**
+	 * Returns the waypoints which can be the first waypoint visited after a point
+	 *
+	 * <p>The returned array must not be modified.
+	 *
+	 * @param point index of the entry point
+	 * @return array of waypoint indexes
+	 */
+	public int[] getFirstWaypoints(int point)
+	{
+		return firstWaypoints[point];
+	}
+
+	/**
+	 * Returns the waypoints which are closer to a destination than the current waypoint
+	 *
+	 * <p>The returned array must not be modified.
+	 *
+	 * @param destination index of the destination point
+	 * @param current index of the current waypoint
+	 * @return array of waypoint indexes
+	 */
+	public int[] getNextWaypoints(int destination, int current)
+	{
+		return nextWaypoints[destination][current];
+	}
+}
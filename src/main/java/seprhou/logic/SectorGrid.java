@@ -0,0 +1,500 @@
+package seprhou.logic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A large region of sky split into a grid of airspace sectors
+ *
+ * <p>
+ * Each sector is a normal {@link Airspace} covering one cell of the grid. Each refresh, the
+ * sectors are refreshed at the same time using different threads. Objects which leave a sector
+ * are then handed to the sector they have moved into instead of being culled. Only objects which
+ * leave the whole region (or finish) are culled.
+ *
+ * <p>
+ * Each sector only generates collision warnings between its own objects. Afterwards, objects in
+ * a band (the halo) around the edge of each sector are tested against the objects near the edges
+ * of other sectors. Objects handed to a new sector are tested against everything nearby. The band
+ * is wide enough to include any object near an object handed over in the same refresh.
+ *
+ * <p>
+ * Sectors do not generate aircraft themselves - objects must be added using {@link #addObject}.
+ * Landing limits are counted separately by each sector, and landing objects are moved between
+ * the counts when they are handed to another sector.
+ */
+public class SectorGrid
+{
+	private final Rectangle region;
+	private final int columns, rows;
+	private final float sectorWidth, sectorHeight;
+	private final List<Airspace> sectors = new ArrayList<>();
+	private boolean parallel = true;
+
+	// Used to pass the region and separation distances to the halo broad phase (never refreshed)
+	private final Airspace haloAirspace;
+
+	// Halo collision detection
+	private final BroadPhase haloBroadPhase = new GridBroadPhase();
+	private final HaloNarrowPhase haloNarrowPhase = new HaloNarrowPhase();
+	private final ObjectStateStore haloStore = new ObjectStateStore(false);
+	private final ArrayList<AirspaceObject> haloObjects = new ArrayList<>();
+	private int[] haloSectors = new int[0];
+	private final ArrayList<CollisionWarning> haloWarnings = new ArrayList<>();
+	private final Collection<CollisionWarning> haloWarningsView = Collections.unmodifiableCollection(haloWarnings);
+	private final ArrayList<CollisionWarning> haloWarningPool = new ArrayList<>();
+	private boolean haloCollision;
+
+	private final ArrayList<AirspaceObject> culledObjects = new ArrayList<>();
+	private final Collection<AirspaceObject> culledObjectsView = Collections.unmodifiableCollection(culledObjects);
+
+	/**
+	 * Creates a new grid of sectors
+	 *
+	 * @param region the area covered by all the sectors
+	 * @param columns number of columns of sectors
+	 * @param rows number of rows of sectors
+	 * @param seed seed used to create the random number generator of each sector
+	 */
+	public SectorGrid(Rectangle region, int columns, int rows, long seed)
+	{
+		if (region == null)
+			throw new IllegalArgumentException("region cannot be null");
+		if (columns < 1)
+			throw new IllegalArgumentException("columns must be at least 1");
+		if (rows < 1)
+			throw new IllegalArgumentException("rows must be at least 1");
+
+		this.region = region;
+		this.columns = columns;
+		this.rows = rows;
+		this.sectorWidth = region.getWidth() / columns;
+		this.sectorHeight = region.getHeight() / rows;
+
+		// Create the sectors (the last row and column end exactly on the edge of the region)
+		Random random = new Random(seed);
+		Vector2D origin = region.getPoint1();
+		Vector2D end = region.getPoint2();
+
+		for (int row = 0; row < rows; row++)
+		{
+			for (int column = 0; column < columns; column++)
+			{
+				Vector2D point1 = new Vector2D(
+						origin.getX() + column * sectorWidth,
+						origin.getY() + row * sectorHeight);
+				Vector2D point2 = new Vector2D(
+						(column == columns - 1) ? end.getX() : origin.getX() + (column + 1) * sectorWidth,
+						(row == rows - 1) ? end.getY() : origin.getY() + (row + 1) * sectorHeight);
+
+				Airspace sector = new Airspace(new Rectangle(point1, point2), null, random.nextLong());
+				sector.setFlightPlanGenerator(null);
+				sectors.add(sector);
+			}
+		}
+
+		haloAirspace = new Airspace(region, null, 0);
+		haloAirspace.setFlightPlanGenerator(null);
+	}
+
+	/** Returns the area covered by all the sectors */
+	public Rectangle getRegion()
+	{
+		return region;
+	}
+
+	/** Returns the number of columns of sectors */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/** Returns the number of rows of sectors */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * Returns the list of sectors
+	 *
+	 * <p>The sectors are ordered by row, then by column.
+	 */
+	public List<Airspace> getSectors()
+	{
+		return Collections.unmodifiableList(sectors);
+	}
+
+	/**
+	 * Returns the sector in the given column and row
+	 *
+	 * @param column column of the sector
+	 * @param row row of the sector
+	 * @return the sector
+	 */
+	public Airspace getSector(int column, int row)
+	{
+		if (column < 0 || column >= columns || row < 0 || row >= rows)
+			throw new IllegalArgumentException("sector (" + column + ", " + row + ") is not in the grid");
+
+		return sectors.get(row * columns + column);
+	}
+
+	/**
+	 * Returns the sector containing the given point
+	 *
+	 * <p>Points outside the region are given the nearest sector.
+	 *
+	 * @param point point to find
+	 * @return the sector
+	 */
+	public Airspace findSector(Vector2D point)
+	{
+		return sectors.get(getSectorIndex(point.getX(), point.getY()));
+	}
+
+	/** Returns the index of the sector containing the given point */
+	private int getSectorIndex(float x, float y)
+	{
+		int column = (int) Math.floor((x - region.getPoint1().getX()) / sectorWidth);
+		int row = (int) Math.floor((y - region.getPoint1().getY()) / sectorHeight);
+
+		column = Math.min(Math.max(column, 0), columns - 1);
+		row = Math.min(Math.max(row, 0), rows - 1);
+		return row * columns + column;
+	}
+
+	/**
+	 * Adds an object to the sector containing it
+	 *
+	 * @param object object to add
+	 */
+	public void addObject(AirspaceObject object)
+	{
+		addObject(object, findSector(object.getPosition()));
+	}
+
+	/** Adds an object to the given sector */
+	private void addObject(AirspaceObject object, Airspace sector)
+	{
+		object.setAirspace(sector);
+		sector.getActiveObjects().add(object);
+	}
+
+	/** Returns the total number of active objects in all the sectors */
+	public int getObjectCount()
+	{
+		int count = 0;
+		for (Airspace sector : sectors)
+			count += sector.getActiveObjects().size();
+
+		return count;
+	}
+
+	/** Returns true if the sectors are refreshed on different threads */
+	public boolean isParallel()
+	{
+		return parallel;
+	}
+
+	/**
+	 * Sets whether the sectors are refreshed on different threads
+	 *
+	 * <p>The results are exactly the same either way.
+	 *
+	 * @param parallel true to refresh sectors in parallel (the default)
+	 */
+	public void setParallel(boolean parallel)
+	{
+		this.parallel = parallel;
+	}
+
+	/** Returns the lateral separation distance used by all the sectors */
+	public float getLateralSeparation()
+	{
+		return haloAirspace.getLateralSeparation();
+	}
+
+	/**
+	 * Sets the lateral separation distance used by all the sectors
+	 *
+	 * @param lateralSeparation the new lateral separation
+	 * @see Airspace#setLateralSeparation(float)
+	 */
+	public void setLateralSeparation(float lateralSeparation)
+	{
+		haloAirspace.setLateralSeparation(lateralSeparation);
+		for (Airspace sector : sectors)
+			sector.setLateralSeparation(lateralSeparation);
+	}
+
+	/** Returns the vertical separation distance used by all the sectors */
+	public float getVerticalSeparation()
+	{
+		return haloAirspace.getVerticalSeparation();
+	}
+
+	/**
+	 * Sets the vertical separation distance used by all the sectors
+	 *
+	 * @param verticalSeparation the new vertical separation
+	 * @see Airspace#setVerticalSeparation(float)
+	 */
+	public void setVerticalSeparation(float verticalSeparation)
+	{
+		haloAirspace.setVerticalSeparation(verticalSeparation);
+		for (Airspace sector : sectors)
+			sector.setVerticalSeparation(verticalSeparation);
+	}
+
+	/**
+	 * Returns the collision warnings between objects in different sectors from the last refresh
+	 *
+	 * <p>
+	 * Warnings between objects in the same sector are returned by that sector's
+	 * {@link Airspace#getCollisionWarnings()}. The returned list is unmodifiable and is
+	 * reused each refresh. The warnings inside it are also reused.
+	 */
+	public Collection<CollisionWarning> getBoundaryWarnings()
+	{
+		return haloWarningsView;
+	}
+
+	/**
+	 * Returns the objects which left the region or finished during the last refresh
+	 *
+	 * <p>
+	 * Objects which only moved into another sector are not included. The returned list
+	 * is unmodifiable and is reused each refresh.
+	 */
+	public Collection<AirspaceObject> getCulledObjects()
+	{
+		return culledObjectsView;
+	}
+
+	/** Returns true if any objects have crashed (in any sector or across a sector boundary) */
+	public boolean isGameOver()
+	{
+		if (haloCollision)
+			return true;
+
+		for (Airspace sector : sectors)
+		{
+			if (sector.isGameOver())
+				return true;
+		}
+
+		return false;
+	}
+
+	/** Returns the total score of all the sectors */
+	public int getScore()
+	{
+		int score = 0;
+		for (Airspace sector : sectors)
+			score += sector.getScore();
+
+		return score;
+	}
+
+	/**
+	 * Refreshes all the sectors
+	 *
+	 * @param delta the time (in seconds) since the last refresh
+	 * @see Airspace#refresh(float)
+	 */
+	public void refresh(float delta)
+	{
+		// Refresh every sector
+		if (parallel && sectors.size() > 1)
+		{
+			Airspace.getRefreshPool().invoke(new SectorTask(sectors, 0, sectors.size(), delta));
+		}
+		else
+		{
+			for (Airspace sector : sectors)
+				sector.refresh(delta);
+		}
+
+		// The objects near the edges of each sector need testing against other sectors
+		haloObjects.clear();
+		gatherHaloObjects(delta);
+
+		// Hand objects which left their sectors to their new sectors (always in sector order)
+		culledObjects.clear();
+
+		for (Airspace sector : sectors)
+		{
+			for (AirspaceObject object : sector.getCulledObjects())
+			{
+				if (!object.isFinished() && region.intersects(object.getPositionX(), object.getPositionY(), object.getSize()))
+				{
+					Airspace newSector = sectors.get(getSectorIndex(object.getPositionX(), object.getPositionY()));
+					addObject(object, newSector);
+
+					// Move the object between the sectors' landing counts
+					if (object.isLanding())
+					{
+						sector.setLandingPlanes(sector.getLandingPlanes() - 1);
+						newSector.setLandingPlanes(newSector.getLandingPlanes() + 1);
+					}
+
+					// These objects were not tested by any sector
+					addHaloObject(object, sectors.size() + haloObjects.size());
+				}
+				else
+				{
+					culledObjects.add(object);
+				}
+			}
+		}
+
+		// Test pairs of halo objects in different sectors
+		haloWarnings.clear();
+		haloCollision = false;
+
+		haloStore.sync(haloObjects);
+		haloBroadPhase.findPairs(haloAirspace, haloStore, haloNarrowPhase);
+	}
+
+	/**
+	 * Adds the objects near the edges of every sector to the halo
+	 *
+	 * @param delta the time (in seconds) of the last refresh
+	 */
+	private void gatherHaloObjects(float delta)
+	{
+		float maxSize = 0;
+		float maxSpeed = 0;
+		for (Airspace sector : sectors)
+		{
+			for (AirspaceObject object : sector.getActiveObjects())
+			{
+				maxSize = Math.max(maxSize, object.getSize());
+				maxSpeed = Math.max(maxSpeed, Vector2D.length(object.getVelocityX(), object.getVelocityY()));
+			}
+
+			for (AirspaceObject object : sector.getCulledObjects())
+			{
+				maxSize = Math.max(maxSize, object.getSize());
+				maxSpeed = Math.max(maxSpeed, Vector2D.length(object.getVelocityX(), object.getVelocityY()));
+			}
+		}
+
+		// Objects can be up to their size outside their sector before they are handed over,
+		//  so they can be closer to objects in other sectors than the edge of the sector.
+		//  Objects handed over this refresh have also moved up to one step into their new sector.
+		float band = getLateralSeparation() + maxSize + maxSpeed * delta;
+
+		for (int i = 0; i < sectors.size(); i++)
+		{
+			Airspace sector = sectors.get(i);
+			Rectangle dimensions = sector.getDimensions();
+			float minX = dimensions.getPoint1().getX() + band;
+			float minY = dimensions.getPoint1().getY() + band;
+			float maxX = dimensions.getPoint2().getX() - band;
+			float maxY = dimensions.getPoint2().getY() - band;
+
+			for (AirspaceObject object : sector.getActiveObjects())
+			{
+				float x = object.getPositionX();
+				float y = object.getPositionY();
+
+				if (!(x >= minX && x <= maxX && y >= minY && y <= maxY))
+					addHaloObject(object, i);
+			}
+		}
+	}
+
+	/** Adds an object to the halo with the given sector number */
+	private void addHaloObject(AirspaceObject object, int sector)
+	{
+		int index = haloObjects.size();
+		if (index == haloSectors.length)
+		{
+			int[] newSectors = new int[Math.max(16, index * 2)];
+			System.arraycopy(haloSectors, 0, newSectors, 0, index);
+			haloSectors = newSectors;
+		}
+
+		haloObjects.add(object);
+		haloSectors[index] = sector;
+	}
+
+	/** Tests pairs of halo objects and generates warnings for pairs in different sectors */
+	private class HaloNarrowPhase implements BroadPhase.PairCallback
+	{
+		@Override
+		public void pair(int a, int b)
+		{
+			// Pairs in the same sector have already been tested by the sector
+			if (haloSectors[a] == haloSectors[b])
+				return;
+
+			float[] x = haloStore.getX();
+			float[] y = haloStore.getY();
+			float[] altitude = haloStore.getAltitude();
+
+			float lateralDistance = Vector2D.distance(x[a], y[a], x[b], y[b]);
+			float verticalDistance = Math.abs(altitude[a] - altitude[b]);
+
+			if (lateralDistance < getLateralSeparation() && verticalDistance < getVerticalSeparation())
+			{
+				AirspaceObject object1 = haloStore.getObject(a);
+				AirspaceObject object2 = haloStore.getObject(b);
+
+				object1.setViolated(true);
+				object2.setViolated(true);
+
+				// Reuse a warning from the pool if possible
+				int index = haloWarnings.size();
+				if (index == haloWarningPool.size())
+					haloWarningPool.add(new CollisionWarning());
+
+				CollisionWarning warning = haloWarningPool.get(index);
+				warning.set(object1, object2, lateralDistance, verticalDistance);
+				haloWarnings.add(warning);
+
+				if (warning.hasCollided())
+					haloCollision = true;
+			}
+		}
+	}
+
+	/** Task which refreshes a range of sectors, splitting it until each task has one sector */
+	private static class SectorTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<Airspace> sectors;
+		private final int start, end;
+		private final float delta;
+
+		public SectorTask(List<Airspace> sectors, int start, int end, float delta)
+		{
+			this.sectors = sectors;
+			this.start = start;
+			this.end = end;
+			this.delta = delta;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (end - start == 1)
+			{
+				sectors.get(start).refresh(delta);
+			}
+			else
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new SectorTask(sectors, start, middle, delta),
+						new SectorTask(sectors, middle, end, delta));
+			}
+		}
+	}
+}
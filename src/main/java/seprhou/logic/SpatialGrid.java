@@ -0,0 +1,180 @@
+package seprhou.logic;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid which sorts a set of points into square cells
+ *
+ * <p>
+ * The grid covers a rectangle of the airspace. Points outside the rectangle are put into the
+ * nearest cell on the edge of the grid, so every point is always in exactly one cell.
+ * Points which are closer than the cell size are always in the same or adjacent cells.
+ *
+ * <p>
+ * The grid is rebuilt from scratch using a counting sort. Its arrays are reused
+ * between rebuilds so rebuilding it does not allocate memory once it has grown.
+ */
+public class SpatialGrid
+{
+	/** Minimum number of cells to allow in a grid */
+	private static final int MIN_CELLS = 64;
+
+	/** Maximum number of cells per point (stops a few very spread out points using lots of memory) */
+	private static final int MAX_CELLS_PER_POINT = 4;
+
+	private float originX, originY, cellSize;
+	private int columns, rows;
+
+	// Points in each cell are entries[cellStart[cell] ... cellStart[cell + 1] - 1]
+	private int[] cellStart = new int[1];
+	private int[] cellFill = new int[0];
+	private int[] entries = new int[0];
+	private int[] pointCells = new int[0];
+
+	/**
+	 * Rebuilds the grid from a set of points
+	 *
+	 * <p>
+	 * The cell size used will be at least {@code minCellSize}, but may be larger
+	 * if using the minimum size would require too many cells.
+	 *
+	 * @param bounds the area covered by the grid
+	 * @param minCellSize the minimum width and height of each cell (must be greater than 0)
+	 * @param xs the X positions of the points
+	 * @param ys the Y positions of the points
+	 * @param count the number of points
+	 */
+	public void rebuild(Rectangle bounds, float minCellSize, float[] xs, float[] ys, int count)
+	{
+		if (minCellSize <= 0)
+			throw new IllegalArgumentException("minCellSize must be greater than 0");
+
+		// Choose the grid dimensions, growing the cells if there would be too many
+		float width = Math.max(bounds.getWidth(), minCellSize);
+		float height = Math.max(bounds.getHeight(), minCellSize);
+		long maxCells = Math.max(MIN_CELLS, (long) count * MAX_CELLS_PER_POINT);
+
+		cellSize = minCellSize;
+		if ((double) (width / cellSize) * (height / cellSize) > maxCells)
+			cellSize = (float) Math.sqrt((double) width * height / maxCells);
+
+		originX = bounds.getPoint1().getX();
+		originY = bounds.getPoint1().getY();
+		columns = Math.max(1, (int) Math.ceil(width / cellSize));
+		rows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+		int cells = columns * rows;
+
+		// Grow the arrays
+		if (cellStart.length < cells + 1)
+		{
+			cellStart = new int[cells + 1];
+			cellFill = new int[cells];
+		}
+
+		if (entries.length < count)
+		{
+			entries = new int[count];
+			pointCells = new int[count];
+		}
+
+		// Count the points in each cell
+		Arrays.fill(cellStart, 0, cells + 1, 0);
+
+		for (int i = 0; i < count; i++)
+		{
+			int cell = getRow(ys[i]) * columns + getColumn(xs[i]);
+			pointCells[i] = cell;
+			cellStart[cell + 1]++;
+		}
+
+		// Convert counts into start positions
+		for (int cell = 0; cell < cells; cell++)
+		{
+			cellStart[cell + 1] += cellStart[cell];
+			cellFill[cell] = cellStart[cell];
+		}
+
+		// Place the points into their cells (in ascending order)
+		for (int i = 0; i < count; i++)
+			entries[cellFill[pointCells[i]]++] = i;
+	}
+
+	/** Returns the size of each cell */
+	public float getCellSize()
+	{
+		return cellSize;
+	}
+
+	/** Returns the number of columns in the grid */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/** Returns the number of rows in the grid */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * Returns the column containing the given X position
+	 *
+	 * <p>Positions outside the grid are clamped to the nearest column.
+	 */
+	public int getColumn(float x)
+	{
+		int column = (int) Math.floor((x - originX) / cellSize);
+		return Math.min(Math.max(column, 0), columns - 1);
+	}
+
+	/**
+	 * Returns the row containing the given Y position
+	 *
+	 * <p>Positions outside the grid are clamped to the nearest row.
+	 */
+	public int getRow(float y)
+	{
+		int row = (int) Math.floor((y - originY) / cellSize);
+		return Math.min(Math.max(row, 0), rows - 1);
+	}
+
+	/**
+	 * Returns the position of the first point in a cell
+	 *
+	 * <p>The points in a cell can be read using {@link #getEntry(int)}
+	 *
+	 * @param column column of the cell
+	 * @param row row of the cell
+	 * @return position of the first point
+	 */
+	public int getCellStart(int column, int row)
+	{
+		return cellStart[row * columns + column];
+	}
+
+	/**
+	 * Returns the position after the last point in a cell
+	 *
+	 * @param column column of the cell
+	 * @param row row of the cell
+	 * @return position after the last point
+	 * @see #getCellStart(int, int)
+	 */
+	public int getCellEnd(int column, int row)
+	{
+		return cellStart[row * columns + column + 1];
+	}
+
+	/**
+	 * Returns the point stored at the given position
+	 *
+	 * @param position position in the grid (between a cell's start and end)
+	 * @return the index of the point (in the arrays passed to {@link #rebuild})
+	 */
+	public int getEntry(int position)
+	{
+		return entries[position];
+	}
+}
@@ -0,0 +1,226 @@
+package seprhou.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the positions of the objects in an {@link ObjectStateStore} which can be searched by area
+ *
+ * <p>
+ * The index reads the positions straight from the store's arrays, so it does not keep its own
+ * copy of them. It is not updated automatically when the store changes and must be rebuilt
+ * after the store is synced again. Rebuilding the index does not allocate memory once its
+ * arrays have grown.
+ *
+ * <p>
+ * When several objects are found, higher objects (by altitude in the store) are preferred, and
+ * objects with the same altitude are ordered by their slots (the highest slot first).
+ *
+ * @see Airspace#getSpatialIndex()
+ */
+public class SpatialIndex
+{
+	/** Minimum size of each cell in the grid */
+	private static final float CELL_SIZE = 100;
+
+	private final SpatialGrid grid = new SpatialGrid();
+
+	private ObjectStateStore store;
+	private float maxSize;
+	private int count;
+
+	// Slots found by findRadius (only grows)
+	private int[] found = new int[16];
+
+	/**
+	 * Rebuilds the index from the objects in a state store
+	 *
+	 * @param bounds area containing most of the objects
+	 * @param store state store containing the objects to index
+	 */
+	public void rebuild(Rectangle bounds, ObjectStateStore store)
+	{
+		float[] size = store.getSize();
+
+		this.store = store;
+		count = store.getCount();
+
+		maxSize = 0;
+		for (int i = 0; i < count; i++)
+			maxSize = Math.max(maxSize, size[i]);
+
+		grid.rebuild(bounds, CELL_SIZE, store.getX(), store.getY(), count);
+	}
+
+	/** Returns the number of objects in the index */
+	public int getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Finds the object occupying a point
+	 *
+	 * <p>
+	 * An object occupies a point if the point is within the object's size of its centre.
+	 * If multiple objects occupy the point, the highest one is returned.
+	 *
+	 * @param centre point to search at
+	 * @return the object found or null if there are none
+	 */
+	public AirspaceObject findAt(Vector2D centre)
+	{
+		float centreX = centre.getX();
+		float centreY = centre.getY();
+		float[] x = store.getX(), y = store.getY(), size = store.getSize();
+		int found = -1;
+
+		int minColumn = grid.getColumn(centreX - maxSize), maxColumn = grid.getColumn(centreX + maxSize);
+		int minRow = grid.getRow(centreY - maxSize), maxRow = grid.getRow(centreY + maxSize);
+
+		for (int row = minRow; row <= maxRow; row++)
+		{
+			for (int column = minColumn; column <= maxColumn; column++)
+			{
+				int end = grid.getCellEnd(column, row);
+				for (int pos = grid.getCellStart(column, row); pos < end; pos++)
+				{
+					int i = grid.getEntry(pos);
+					if ((found < 0 || isAbove(i, found)) && Vector2D.distance(x[i], y[i], centreX, centreY) < size[i])
+						found = i;
+				}
+			}
+		}
+
+		return (found >= 0) ? store.getObject(found) : null;
+	}
+
+	/**
+	 * Visits each object whose centre is within a circle
+	 *
+	 * <p>
+	 * The objects are visited in no particular order. This method does not allocate any memory.
+	 *
+	 * @param centre the centre of the circle
+	 * @param radius the radius of the circle
+	 * @param visitor visitor called for each object found
+	 */
+	public void visitRadius(Vector2D centre, float radius, ObjectVisitor visitor)
+	{
+		visitRadius(centre.getX(), centre.getY(), radius, visitor);
+	}
+
+	/**
+	 * Visits each object whose centre is within a circle
+	 *
+	 * @param centreX the X position of the centre of the circle
+	 * @param centreY the Y position of the centre of the circle
+	 * @param radius the radius of the circle
+	 * @param visitor visitor called for each object found
+	 * @see #visitRadius(Vector2D, float, ObjectVisitor)
+	 */
+	public void visitRadius(float centreX, float centreY, float radius, ObjectVisitor visitor)
+	{
+		float[] x = store.getX(), y = store.getY();
+
+		int minColumn = grid.getColumn(centreX - radius), maxColumn = grid.getColumn(centreX + radius);
+		int minRow = grid.getRow(centreY - radius), maxRow = grid.getRow(centreY + radius);
+
+		for (int row = minRow; row <= maxRow; row++)
+		{
+			for (int column = minColumn; column <= maxColumn; column++)
+			{
+				int end = grid.getCellEnd(column, row);
+				for (int pos = grid.getCellStart(column, row); pos < end; pos++)
+				{
+					int i = grid.getEntry(pos);
+					if (Vector2D.distance(x[i], y[i], centreX, centreY) < radius)
+						visitor.visit(store.getObject(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the objects whose centres are within a circle
+	 *
+	 * @param centre the centre of the circle
+	 * @param radius the radius of the circle
+	 * @return the objects found, highest first
+	 */
+	public List<AirspaceObject> findRadius(Vector2D centre, float radius)
+	{
+		float centreX = centre.getX();
+		float centreY = centre.getY();
+		float[] x = store.getX(), y = store.getY();
+		int[] found = this.found;
+		int foundCount = 0;
+
+		int minColumn = grid.getColumn(centreX - radius), maxColumn = grid.getColumn(centreX + radius);
+		int minRow = grid.getRow(centreY - radius), maxRow = grid.getRow(centreY + radius);
+
+		for (int row = minRow; row <= maxRow; row++)
+		{
+			for (int column = minColumn; column <= maxColumn; column++)
+			{
+				int end = grid.getCellEnd(column, row);
+				for (int pos = grid.getCellStart(column, row); pos < end; pos++)
+				{
+					int i = grid.getEntry(pos);
+					if (Vector2D.distance(x[i], y[i], centreX, centreY) < radius)
+					{
+						if (foundCount == found.length)
+						{
+							found = Arrays.copyOf(found, foundCount * 2);
+							this.found = found;
+						}
+
+						found[foundCount++] = i;
+					}
+				}
+			}
+		}
+
+		// Sort the highest objects first (there are only a few so an insertion sort is fine)
+		for (int i = 1; i < foundCount; i++)
+		{
+			int current = found[i];
+			int j = i;
+			while (j > 0 && isAbove(current, found[j - 1]))
+			{
+				found[j] = found[j - 1];
+				j--;
+			}
+
+			found[j] = current;
+		}
+
+		List<AirspaceObject> results = new ArrayList<>(foundCount);
+		for (int i = 0; i < foundCount; i++)
+			results.add(store.getObject(found[i]));
+
+		return results;
+	}
+
+	/** Returns true if the object in slot a is ordered before the object in slot b */
+	private boolean isAbove(int a, int b)
+	{
+		float[] altitude = store.getAltitude();
+		int compare = Float.compare(altitude[a], altitude[b]);
+		return compare > 0 || (compare == 0 && a > b);
+	}
+
+	/**
+	 * Callback which receives the objects found by a search
+	 */
+	public interface ObjectVisitor
+	{
+		/**
+		 * Called for each object found
+		 *
+		 * @param object the object
+		 */
+		public void visit(AirspaceObject object);
+	}
+}
@@ -0,0 +1,188 @@
+package seprhou.logic;
+
+import java.util.Arrays;
+
+/**
+ * A broad phase which sorts objects along the X axis and sweeps through them
+ *
+ * <p>
+ * Only objects whose X values are within the lateral separation of each other are tested.
+ * The sorted order is kept between refreshes, and since objects only move a little each
+ * refresh it is nearly sorted already, so sorting it again is very fast. Pairs of objects
+ * which are too far apart vertically to generate a collision warning are also skipped.
+ */
+public class SweepAndPruneBroadPhase implements BroadPhase
+{
+	/**
+	 * The sweep width is made slightly larger than the lateral separation so that float
+	 * rounding can never skip two close objects
+	 */
+	private static final float SWEEP_PADDING = 1.01f;
+
+	/**
+	 * Maximum average number of places each object can be moved by the insertion sort
+	 * before giving up and using a full sort
+	 */
+	private static final int MAX_SORT_SHIFTS_PER_OBJECT = 8;
+
+	private final PairBuffer pairs = new PairBuffer();
+
+	/** Objects sorted by X value during the last search */
+	private AirspaceObject[] order = new AirspaceObject[0];
+	private int orderCount;
+
+	// Slots sorted by X value (and which slots have been added to it)
+	private int[] sorted = new int[0];
+	private boolean[] added = new boolean[0];
+
+	// Used by the full sort
+	private long[] sortKeys = new long[0];
+
+	@Override
+	public void findPairs(Airspace airspace, ObjectStateStore store, PairCallback callback)
+	{
+		float lateralSeparation = airspace.getLateralSeparation();
+		float verticalSeparation = airspace.getVerticalSeparation();
+		int objectsCount = store.getCount();
+
+		float[] xs = store.getX();
+		float[] ys = store.getY();
+		float[] altitude = store.getAltitude();
+		boolean[] solid = store.getSolid();
+
+		sortSlots(store, xs);
+
+		// No pairs can be within a separation of 0
+		if (lateralSeparation <= 0)
+			return;
+
+		// Sweep through the objects testing each one against the following objects
+		//  whose X values are close enough
+		float width = lateralSeparation * SWEEP_PADDING;
+		pairs.clear();
+
+		for (int i = 0; i < objectsCount; i++)
+		{
+			int a = sorted[i];
+
+			// Ignore non-solid objects
+			if (!solid[a])
+				continue;
+
+			for (int j = i + 1; j < objectsCount; j++)
+			{
+				int b = sorted[j];
+
+				if (xs[b] - xs[a] >= width)
+					break;
+
+				// Secondary tests (the vertical test is the same as the airspace uses)
+				if (solid[b] && Math.abs(ys[a] - ys[b]) < width &&
+					Math.abs(altitude[a] - altitude[b]) < verticalSeparation)
+				{
+					pairs.add(a, b);
+				}
+			}
+		}
+
+		pairs.report(callback);
+	}
+
+	/** Updates the list of slots sorted by X value, starting from the order of the last search */
+	private void sortSlots(ObjectStateStore store, float[] xs)
+	{
+		int objectsCount = store.getCount();
+
+		if (sorted.length < objectsCount)
+		{
+			int capacity = Math.max(objectsCount, sorted.length * 2);
+
+			sorted = new int[capacity];
+			added = new boolean[capacity];
+		}
+
+		Arrays.fill(added, 0, objectsCount, false);
+
+		// Add the objects which are still in the store in their old order
+		int count = 0;
+		for (int i = 0; i < orderCount; i++)
+		{
+			int slot = store.getSlot(order[i]);
+
+			if (slot >= 0 && !added[slot])
+			{
+				sorted[count++] = slot;
+				added[slot] = true;
+			}
+		}
+
+		// Add any new objects to the end
+		for (int slot = 0; slot < objectsCount; slot++)
+		{
+			if (!added[slot])
+				sorted[count++] = slot;
+		}
+
+		// Insertion sort (fast since the list is usually nearly sorted)
+		int shiftsLeft = objectsCount * MAX_SORT_SHIFTS_PER_OBJECT;
+
+		for (int i = 1; i < objectsCount; i++)
+		{
+			int slot = sorted[i];
+			float x = xs[slot];
+
+			int j = i;
+			while (j > 0 && xs[sorted[j - 1]] > x)
+			{
+				if (--shiftsLeft < 0)
+				{
+					// Not nearly sorted (for example the first search)
+					sorted[j] = slot;
+					fullSort(xs, objectsCount);
+					j = -1;
+					break;
+				}
+
+				sorted[j] = sorted[j - 1];
+				j--;
+			}
+
+			if (j < 0)
+				break;
+
+			sorted[j] = slot;
+		}
+
+		// Save order for the next search
+		if (order.length < objectsCount)
+			order = new AirspaceObject[sorted.length];
+
+		for (int i = 0; i < objectsCount; i++)
+			order[i] = store.getObject(sorted[i]);
+
+		Arrays.fill(order, objectsCount, Math.max(orderCount, objectsCount), null);
+		orderCount = objectsCount;
+	}
+
+	/** Sorts the list of slots by X value without using the previous order */
+	private void fullSort(float[] xs, int objectsCount)
+	{
+		if (sortKeys.length < objectsCount)
+			sortKeys = new long[sorted.length];
+
+		// Pack each X value (converted to an int with the same ordering) and its slot into a long
+		for (int i = 0; i < objectsCount; i++)
+		{
+			int slot = sorted[i];
+			int bits = Float.floatToIntBits(xs[slot]);
+			bits ^= (bits >> 31) & 0x7fffffff;
+
+			sortKeys[i] = ((long) bits << 32) | slot;
+		}
+
+		Arrays.sort(sortKeys, 0, objectsCount);
+
+		for (int i = 0; i < objectsCount; i++)
+			sorted[i] = (int) sortKeys[i];
+	}
+}
@@ -0,0 +1,155 @@
+package seprhou.logic;
+
+/**
+ * The trigonometric functions used by the game logic
+ *
+ * <p>
+ * {@link #STRICT} uses the functions in {@link Math}. {@link #FAST} uses approximations
+ * which are faster but slightly less accurate. The maximum errors of the fast functions are:
+ * <ul>
+ *     <li>{@link #sin(float)} and {@link #cos(float)}: {@value #FAST_MAX_SIN_ERROR}
+ *     (for angles between -1000 and 1000 radians)</li>
+ *     <li>{@link #atan2(float, float)}: {@value #FAST_MAX_ATAN2_ERROR} radians</li>
+ * </ul>
+ *
+ * @see Airspace#setTrigonometry(Trigonometry)
+ */
+public enum Trigonometry
+{
+	/** Uses the functions in {@link Math} (this is the default) */
+	STRICT
+	{
+		@Override
+		public double sin(float angle)
+		{
+			return Math.sin(angle);
+		}
+
+		@Override
+		public double cos(float angle)
+		{
+			return Math.cos(angle);
+		}
+
+		@Override
+		public float atan2(float y, float x)
+		{
+			return (float) Math.atan2(y, x);
+		}
+	},
+
+	/**
+	 * Uses a lookup table for sin and cos, and a polynomial for atan2
+	 *
+	 * <p>The lookup table is linearly interpolated between its entries.
+	 */
+	FAST
+	{
+		@Override
+		public double sin(float angle)
+		{
+			return tableSin(angle * SIN_TABLE_SCALE);
+		}
+
+		@Override
+		public double cos(float angle)
+		{
+			return tableSin(angle * SIN_TABLE_SCALE + SIN_TABLE_SIZE / 4);
+		}
+
+		@Override
+		public float atan2(float y, float x)
+		{
+			float absX = Math.abs(x);
+			float absY = Math.abs(y);
+
+			if (absX == 0 && absY == 0)
+				return 0;
+
+			// Calculate the angle in the first octant, then reflect it into the right place
+			boolean steep = absY > absX;
+			float ratio = steep ? absX / absY : absY / absX;
+			float ratio2 = ratio * ratio;
+
+			float angle = ratio * (ATAN_C1 + ratio2 * (ATAN_C3 + ratio2 * (ATAN_C5 + ratio2 * (ATAN_C7 + ratio2 * ATAN_C9))));
+
+			if (steep)
+				angle = HALF_PI - angle;
+			if (x < 0)
+				angle = PI - angle;
+			if (y < 0)
+				angle = -angle;
+
+			return angle;
+		}
+	};
+
+	/** Maximum error of the fast sin and cos functions */
+	public static final double FAST_MAX_SIN_ERROR = 1e-6;
+
+	/** Maximum error of the fast atan2 function (radians) */
+	public static final double FAST_MAX_ATAN2_ERROR = 2e-5;
+
+	private static final float PI = (float) Math.PI;
+	private static final float HALF_PI = (float) (Math.PI / 2);
+
+	// Sine table (one extra entry so the last entry can be interpolated)
+	private static final int SIN_TABLE_SIZE = 4096;
+	private static final double SIN_TABLE_SCALE = SIN_TABLE_SIZE / (2 * Math.PI);
+	private static final float[] SIN_TABLE = new float[SIN_TABLE_SIZE + 1];
+
+	// Coefficients of the arctangent polynomial (Abramowitz and Stegun 4.4.49)
+	private static final float ATAN_C1 = 0.9998660f;
+	private static final float ATAN_C3 = -0.3302995f;
+	private static final float ATAN_C5 = 0.1801410f;
+	private static final float ATAN_C7 = -0.0851330f;
+	private static final float ATAN_C9 = 0.0208351f;
+
+	static
+	{
+		for (int i = 0; i <= SIN_TABLE_SIZE; i++)
+			SIN_TABLE[i] = (float) Math.sin(i * 2 * Math.PI / SIN_TABLE_SIZE);
+	}
+
+	/**
+	 * Looks up a sine in the table
+	 *
+	 * @param position angle measured in table entries
+	 * @return the sine of the angle
+	 */
+	private static double tableSin(double position)
+	{
+		double floor = Math.floor(position);
+		double fraction = position - floor;
+		int index = (int) floor & (SIN_TABLE_SIZE - 1);
+
+		double start = SIN_TABLE[index];
+		return start + (SIN_TABLE[index + 1] - start) * fraction;
+	}
+
+	/**
+	 * Returns the sine of an angle
+	 *
+	 * @param angle angle in radians
+	 * @return the sine
+	 */
+	public abstract double sin(float angle);
+
+	/**
+	 * Returns the cosine of an angle
+	 *
+	 * @param angle angle in radians
+	 * @return the cosine
+	 */
+	public abstract double cos(float angle);
+
+	/**
+	 * Returns the angle of the vector (x, y)
+	 *
+	 * @param y Y value of the vector
+	 * @param x X value of the vector
+	 * @return the angle in radians between -pi and pi
+	 * @see Math#atan2(double, double)
+	 */
+	public abstract float atan2(float y, float x);
+}
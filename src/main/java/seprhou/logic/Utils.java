@@ -16,7 +16,8 @@ public final class Utils
 	 * Returns a global random number generator
 	 *
 	 * <p>
-	 * Note this is not thread safe and may not return the same generator all the time
+	 * Note this is not thread safe and may not return the same generator all the time.
+	 * The game logic uses the generator owned by each airspace instead (see {@link Airspace#getRandom()}).
 	 */
 	public static Random getRandom()
 	{
@@ -24,7 +25,22 @@ public final class Utils
 	}
 
 	/**
-	 * Generates a random subset of the given list
+	 * Creates a new random number generator seeded from another generator
+	 *
+	 * <p>
+	 * The new generator is independent of the original one, but if the original one was
+	 * seeded, the new one will always generate the same numbers too.
+	 *
+	 * @param parent generator to take the seed from
+	 * @return the new generator
+	 */
+	public static Random splitRandom(Random parent)
+	{
+		return new Random(parent.nextLong());
+	}
+
+	/**
+	 * Generates a random subset of the given list using the global random number generator
 	 *
 	 * @param list list of items
 	 * @param n number of items to choose
@@ -32,6 +48,20 @@ public final class Utils
 	 * @return the chosen item
 	 */
 	public static <T> List<T> randomSubset(List<T> list, int n)
+	{
+		return randomSubset(random, list, n);
+	}
+
+	/**
+	 * Generates a random subset of the given list
+	 *
+	 * @param random random number generator to use
+	 * @param list list of items
+	 * @param n number of items to choose
+	 * @param <T> type of the items in the list
+	 * @return the chosen item
+	 */
+	public static <T> List<T> randomSubset(Random random, List<T> list, int n)
 	{
 		// Can't get more items than we actually have
 		if (n > list.size())
@@ -46,19 +76,33 @@ public final class Utils
 	}
 
 	/**
-	 * Chooses an item from a list
+	 * Chooses an item from a list using the global random number generator
 	 *
 	 * @param list list to choose from
 	 * @param <T> type of the items in the list
 	 * @return the chosen item
 	 */
 	public static <T> T randomItem(List<T> list)
+	{
+		return randomItem(random, list);
+	}
+
+	/**
+	 * Chooses an item from a list
+	 *
+	 * @param random random number generator to use
+	 * @param list list to choose from
+	 * @param <T> type of the items in the list
+	 * @return the chosen item
+	 */
+	public static <T> T randomItem(Random random, List<T> list)
 	{
 		return list.get(random.nextInt(list.size()));
 	}
 
 	/**
-	 * Chooses an item from a list but does not include the invalidItem
+	 * Chooses an item from a list but does not include the invalidItem using the
+	 * global random number generator
 	 *
 	 * @param list list to choose from
 	 * @param invalidItem the item which will not be picked
@@ -66,6 +110,20 @@ public final class Utils
 	 * @return the chosen item
 	 */
 	public static <T> T randomItem(List<T> list, T invalidItem)
+	{
+		return randomItem(random, list, invalidItem);
+	}
+
+	/**
+	 * Chooses an item from a list but does not include the invalidItem
+	 *
+	 * @param random random number generator to use
+	 * @param list list to choose from
+	 * @param invalidItem the item which will not be picked
+	 * @param <T> type of the items in the list
+	 * @return the chosen item
+	 */
+	public static <T> T randomItem(Random random, List<T> list, T invalidItem)
 	{
 		// Check for impossible situation
 		if (list.size() == 1 && list.get(0) == invalidItem)
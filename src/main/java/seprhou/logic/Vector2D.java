@@ -39,8 +39,21 @@ public class Vector2D
 	 */
 	public static Vector2D fromPolar(float length, float angle)
 	{
-		float newX = (float) (length * Math.cos(angle));
-		float newY = (float) (length * Math.sin(angle));
+		return fromPolar(length, angle, Trigonometry.STRICT);
+	}
+
+	/**
+	 * Creates a new vector from the given polar coordinates
+	 *
+	 * @param length length of the vector (negative values reverse the direction)
+	 * @param angle angle of the vector (radians)
+	 * @param trigonometry trigonometric functions to use
+	 * @return the new vector
+	 */
+	public static Vector2D fromPolar(float length, float angle, Trigonometry trigonometry)
+	{
+		float newX = (float) (length * trigonometry.cos(angle));
+		float newY = (float) (length * trigonometry.sin(angle));
 
 		return new Vector2D(newX, newY);
 	}
@@ -60,7 +73,21 @@ public class Vector2D
 	/** Returns the length (euclidean norm) of this vector */
 	public float getLength()
 	{
-		return (float) Math.sqrt(this.getX() * this.getX() + this.getY() * this.getY());
+		return length(this.getX(), this.getY());
+	}
+
+	/**
+	 * Returns the length of a vector given as separate X and Y values
+	 *
+	 * <p>This gives exactly the same result as {@link #getLength()}.
+	 *
+	 * @param x X value of the vector
+	 * @param y Y value of the vector
+	 * @return the length of the vector
+	 */
+	public static float length(float x, float y)
+	{
+		return (float) Math.sqrt(x * x + y * y);
 	}
 
 	/**
@@ -91,7 +118,33 @@ public class Vector2D
 	 */
 	public float getAngle()
 	{
-		return (float) Math.atan2(this.getY(), this.getX());
+		return angle(this.getX(), this.getY());
+	}
+
+	/**
+	 * Returns the angle between this vector to the X axis
+	 *
+	 * @param trigonometry trigonometric functions to use
+	 * @return the angle of this vector is radians between -pi and pi
+	 * @see #getAngle()
+	 */
+	public float getAngle(Trigonometry trigonometry)
+	{
+		return trigonometry.atan2(this.getY(), this.getX());
+	}
+
+	/**
+	 * Returns the angle of a vector given as separate X and Y values
+	 *
+	 * <p>This gives exactly the same result as {@link #getAngle()}.
+	 *
+	 * @param x X value of the vector
+	 * @param y Y value of the vector
+	 * @return the angle of the vector is radians between -pi and pi
+	 */
+	public static float angle(float x, float y)
+	{
+		return Trigonometry.STRICT.atan2(y, x);
 	}
 	
 	/**
@@ -104,7 +157,19 @@ public class Vector2D
 	 */
 	public float getBearing()
 	{
-		float angle = this.getAngle();
+		return getBearing(Trigonometry.STRICT);
+	}
+
+	/**
+	 * Returns the bearing of the vector
+	 *
+	 * @param trigonometry trigonometric functions to use
+	 * @return the bearing of this vector
+	 * @see #getBearing()
+	 */
+	public float getBearing(Trigonometry trigonometry)
+	{
+		float angle = this.getAngle(trigonometry);
 		angle *= 180;
 		angle /= Math.PI;
 		angle = -angle;
@@ -124,8 +189,24 @@ public class Vector2D
 	 */
 	public float distanceTo(Vector2D other)
 	{
-		float diffx = Math.max((this.getX() - other.x), (other.getX() - this.x));
-		float diffy = Math.max((this.getY() - other.y), (other.getY() - this.y));
+		return distance(this.x, this.y, other.x, other.y);
+	}
+
+	/**
+	 * Returns the distance between two points given as separate X and Y values
+	 *
+	 * <p>This gives exactly the same result as {@link #distanceTo(Vector2D)}.
+	 *
+	 * @param x1 X value of the first point
+	 * @param y1 Y value of the first point
+	 * @param x2 X value of the second point
+	 * @param y2 Y value of the second point
+	 * @return the distance between them (always >= 0)
+	 */
+	public static float distance(float x1, float y1, float x2, float y2)
+	{
+		float diffx = Math.max((x1 - x2), (x2 - x1));
+		float diffy = Math.max((y1 - y2), (y2 - y1));
 		float sumsqr = ((diffx * diffx) + (diffy * diffy));
 		return  (float) Math.sqrt(sumsqr);
 	}
@@ -173,8 +254,21 @@ public class Vector2D
 	 */
 	public Vector2D rotate(float angle)
 	{
-		float cosang = (float) Math.cos(angle);
-		float sinang = (float) Math.sin(angle);
+		return rotate(angle, Trigonometry.STRICT);
+	}
+
+	/**
+	 * Rotates this vector around the origin by the given angle
+	 *
+	 * @param angle angle to rotate by in radians
+	 * @param trigonometry trigonometric functions to use
+	 * @return a new vector containing the result
+	 * @see #rotate(float)
+	 */
+	public Vector2D rotate(float angle, Trigonometry trigonometry)
+	{
+		float cosang = (float) trigonometry.cos(angle);
+		float sinang = (float) trigonometry.sin(angle);
 		return new Vector2D((this.getX() * cosang) - (this.getY() * sinang),(this.getX() * sinang) + (this.getY() * cosang));
 	}
 
@@ -0,0 +1,168 @@
+package seprhou.network;
+
+import seprhou.logic.Aircraft;
+import seprhou.logic.AircraftColour;
+import seprhou.logic.Vector2D;
+
+/**
+ * Quantized state of an aircraft which is sent over the network
+ *
+ * <p>
+ * All values are stored as fixed point integers (multiples of {@link #QUANTUM}) so
+ * the client can rebuild exactly the same state the server sent. This means the
+ * differences between two states can be sent instead of the whole state.
+ *
+ * <p>Instances are immutable.
+ */
+final class AircraftState
+{
+	/** Size of one step of the fixed point values (in game units) */
+	public static final float QUANTUM = 1f / 16;
+
+	static final int POSITION_X = 0;
+	static final int POSITION_Y = 1;
+	static final int VELOCITY_X = 2;
+	static final int VELOCITY_Y = 3;
+	static final int TARGET_VELOCITY_X = 4;
+	static final int TARGET_VELOCITY_Y = 5;
+	static final int ALTITUDE = 6;
+	static final int TARGET_ALTITUDE = 7;
+	static final int COLOUR = 8;
+
+	/** Number of fields in each state */
+	static final int FIELD_COUNT = 9;
+
+	/** State with every field set to 0 (used as the base of full updates) */
+	public static final AircraftState ZERO = new AircraftState(new int[FIELD_COUNT]);
+
+	private static final AircraftColour[] COLOURS = AircraftColour.values();
+
+	private final int[] values;
+
+	private AircraftState(int[] values)
+	{
+		this.values = values;
+	}
+
+	/**
+	 * Captures the current state of an aircraft
+	 *
+	 * @param aircraft aircraft to capture
+	 * @return the quantized state
+	 */
+	public static AircraftState capture(Aircraft aircraft)
+	{
+		int[] values = new int[FIELD_COUNT];
+		Vector2D position = aircraft.getPosition();
+		Vector2D velocity = aircraft.getVelocity();
+		Vector2D targetVelocity = aircraft.getTargetVelocity();
+
+		values[POSITION_X] = quantize(position.getX());
+		values[POSITION_Y] = quantize(position.getY());
+		values[VELOCITY_X] = quantize(velocity.getX());
+		values[VELOCITY_Y] = quantize(velocity.getY());
+		values[TARGET_VELOCITY_X] = quantize(targetVelocity.getX());
+		values[TARGET_VELOCITY_Y] = quantize(targetVelocity.getY());
+		values[ALTITUDE] = quantize(aircraft.getAltitude());
+		values[TARGET_ALTITUDE] = quantize(aircraft.getTargetAltitude());
+		values[COLOUR] = aircraft.getColour().ordinal();
+		return new AircraftState(values);
+	}
+
+	/** Returns the value of a field (in fixed point) */
+	public int get(int field)
+	{
+		return values[field];
+	}
+
+	/** Returns the value of a field (in game units) */
+	public float getValue(int field)
+	{
+		return dequantize(values[field]);
+	}
+
+	/** Returns the colour of the aircraft (or null if the colour is invalid) */
+	public AircraftColour getColour()
+	{
+		int colour = values[COLOUR];
+		return (colour >= 0 && colour < COLOURS.length) ? COLOURS[colour] : null;
+	}
+
+	/**
+	 * Returns a mask of the fields which are different in another state
+	 *
+	 * <p>Bit {@code n} of the mask is set if field {@code n} has changed.
+	 *
+	 * @param base state to compare with
+	 * @return the changed field mask
+	 */
+	public int getChangedMask(AircraftState base)
+	{
+		int mask = 0;
+		for (int i = 0; i < FIELD_COUNT; i++)
+		{
+			if (values[i] != base.values[i])
+				mask |= 1 << i;
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Returns the differences between this state and a base state
+	 *
+	 * @param base state to compare with
+	 * @param mask mask of the fields to include (from {@link #getChangedMask})
+	 * @return the differences of each field in the mask (in field order)
+	 */
+	public int[] getDeltas(AircraftState base, int mask)
+	{
+		int[] deltas = new int[Integer.bitCount(mask)];
+		int next = 0;
+
+		for (int i = 0; i < FIELD_COUNT; i++)
+		{
+			if ((mask & (1 << i)) != 0)
+				deltas[next++] = values[i] - base.values[i];
+		}
+
+		return deltas;
+	}
+
+	/**
+	 * Creates a new state by adding some differences to a base state
+	 *
+	 * @param base state the differences were made against
+	 * @param mask mask of the fields which have changed
+	 * @param deltas differences of each field in the mask
+	 * @return the new state
+	 */
+	public static AircraftState applyDeltas(AircraftState base, int mask, int[] deltas)
+	{
+		if (Integer.bitCount(mask) != deltas.length || (mask >>> FIELD_COUNT) != 0)
+			throw new IllegalArgumentException("mask does not match deltas");
+
+		int[] values = base.values.clone();
+		int next = 0;
+
+		for (int i = 0; i < FIELD_COUNT; i++)
+		{
+			if ((mask & (1 << i)) != 0)
+				values[i] += deltas[next++];
+		}
+
+		return new AircraftState(values);
+	}
+
+	/** Converts a value to fixed point */
+	private static int quantize(float value)
+	{
+		return Math.round(value / QUANTUM);
+	}
+
+	/** Converts a value from fixed point */
+	private static float dequantize(int value)
+	{
+		return value * QUANTUM;
+	}
+}
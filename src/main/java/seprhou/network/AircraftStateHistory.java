@@ -0,0 +1,115 @@
+package seprhou.network;
+
+/**
+ * The recent states of one aircraft, indexed by the sequence number they were sent in
+ *
+ * <p>
+ * The server keeps the states it has sent which the client might use as the base of
+ * the next update. The client keeps the states it has received which the server might
+ * refer to. Sequence numbers must be added in increasing order.
+ */
+class AircraftStateHistory
+{
+	/** Maximum number of states kept (the oldest states are dropped after this) */
+	public static final int MAX_STATES = 64;
+
+	private final int[] sequences = new int[MAX_STATES];
+	private final AircraftState[] states = new AircraftState[MAX_STATES];
+	private int start, count;
+
+	/**
+	 * Adds a new state
+	 *
+	 * @param sequence sequence number of the state (must be larger than any other state)
+	 * @param state the state
+	 */
+	public void add(int sequence, AircraftState state)
+	{
+		if (sequence <= getLatestSequence())
+			throw new IllegalArgumentException("sequence numbers must be increasing");
+
+		if (count == MAX_STATES)
+		{
+			// Drop the oldest state
+			states[start] = null;
+			start = index(1);
+			count--;
+		}
+
+		int i = index(count);
+		sequences[i] = sequence;
+		states[i] = state;
+		count++;
+	}
+
+	/**
+	 * Returns the state with the given sequence number
+	 *
+	 * @param sequence sequence number to find
+	 * @return the state or null if it is not in the history
+	 */
+	public AircraftState get(int sequence)
+	{
+		for (int i = count - 1; i >= 0; i--)
+		{
+			int j = index(i);
+			if (sequences[j] == sequence)
+				return states[j];
+			if (sequences[j] < sequence)
+				break;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the sequence number of the latest state which is in a window of sequence numbers
+	 *
+	 * @param window window of sequence numbers to search for
+	 * @return the sequence number found or 0 if no states are in the window
+	 */
+	public int findLatest(SequenceWindow window)
+	{
+		for (int i = count - 1; i >= 0; i--)
+		{
+			int j = index(i);
+			if (window.contains(sequences[j]))
+				return sequences[j];
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Removes all the states before the given sequence number
+	 *
+	 * @param sequence the oldest sequence number to keep
+	 */
+	public void discardBefore(int sequence)
+	{
+		while (count > 0 && sequences[start] < sequence)
+		{
+			states[start] = null;
+			start = index(1);
+			count--;
+		}
+	}
+
+	/** Returns the sequence number of the latest state (or 0 if the history is empty) */
+	public int getLatestSequence()
+	{
+		return (count == 0) ? 0 : sequences[index(count - 1)];
+	}
+
+	/** Returns the number of states in the history */
+	public int size()
+	{
+		return count;
+	}
+
+	/** Converts a position in the history into an array index */
+	private int index(int position)
+	{
+		return (start + position) % MAX_STATES;
+	}
+}
@@ -0,0 +1,39 @@
+package seprhou.network;
+
+/**
+ * Tell the server which aircraft updates have been received
+ *
+ * <p>The server uses the acknowledged states as the base of later updates.
+ */
+class CMsgAck implements ClientMessage
+{
+	private int sequence;
+	private long mask;
+
+	/**
+	 * Creates a new acknowledge message
+	 *
+	 * @param sequence the latest update sequence number received
+	 * @param mask mask of the other sequence numbers received (see {@link SequenceWindow#getMask()})
+	 */
+	public CMsgAck(int sequence, long mask)
+	{
+		this.sequence = sequence;
+		this.mask = mask;
+	}
+
+	/** Private constructor for Kryo */
+	@SuppressWarnings("unused")
+	private CMsgAck()
+	{
+	}
+
+	@Override
+	public void receivedFromClient(MultiServer server)
+	{
+		if (server.isConnected())
+		{
+			server.acknowledge(sequence, mask);
+		}
+	}
+}
@@ -7,7 +7,9 @@ import com.esotericsoftware.minlog.Log;
 import seprhou.logic.*;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 
 /**
@@ -15,7 +17,17 @@ import java.util.Queue;
  */
 public class MultiClient extends NetworkCommon<Client>
 {
+	/** Default time (in seconds) that aircraft are drawn behind the server */
+	public static final float DEFAULT_INTERPOLATION_DELAY = 0.1f;
+
+	/** If the drawing time is more than this far (in seconds) from where it should be, it jumps there */
+	private static final float MAX_CLOCK_ERROR = 0.25f;
+
+	/** Fraction of the drawing time error which is corrected each frame */
+	private static final float CLOCK_CORRECTION = 0.1f;
+
 	private final Queue<ServerMessage> messageQueue = new LinkedList<>();
+	final Map<Integer, SnapshotBuffer> snapshotBuffers = new HashMap<>();
 
 	private final Rectangle dimensions;
 	final AirspaceObjectFactory factory;
@@ -23,6 +35,15 @@ public class MultiClient extends NetworkCommon<Client>
 	private ConnectionThread connectionThread;
 	private AircraftColour myColour;
 	boolean serverGameOver;		// Server's perspective on if the game is over or not
+	int latestCreatedId;
+
+	private final SequenceWindow receivedUpdates = new SequenceWindow();
+	private int acknowledgedSequence;
+	private long acknowledgedMask;
+
+	private float interpolationDelay = DEFAULT_INTERPOLATION_DELAY;
+	private float latestServerTime, drawTime;
+	private boolean drawTimeStarted;
 
 	/**
 	 * Creates a new client and opens the connection
@@ -61,7 +82,16 @@ public class MultiClient extends NetworkCommon<Client>
 		airspace.setVerticalSeparation(vertical);
 		serverGameOver = false;
 		myColour = colour;
+		latestCreatedId = 0;
+		receivedUpdates.clear();
+		acknowledgedSequence = 0;
+		acknowledgedMask = 0;
+		latestServerTime = 0;
+		drawTime = 0;
+		drawTimeStarted = false;
 		objectIdMap.clear();
+		stateHistories.clear();
+		snapshotBuffers.clear();
 
 		// Mark as connected
 		state = GameEndpointState.CONNECTED;
@@ -131,11 +161,122 @@ public class MultiClient extends NetworkCommon<Client>
 
 		// Update airspace
 		airspace.refresh(delta);
+		updateNetworkStats(delta, "[Client]");
+
+		// Move aircraft to where they were a short time ago on the server
+		if (updateDrawTime(delta))
+		{
+			for (Map.Entry<Integer, SnapshotBuffer> entry : snapshotBuffers.entrySet())
+			{
+				AirspaceObject object = objectIdMap.getObject(entry.getKey());
+
+				if (object instanceof Aircraft)
+					entry.getValue().apply((Aircraft) object, drawTime);
+			}
+		}
+
+		// Acknowledge any new updates
+		if (receivedUpdates.getLatest() != acknowledgedSequence || receivedUpdates.getMask() != acknowledgedMask)
+		{
+			acknowledgedSequence = receivedUpdates.getLatest();
+			acknowledgedMask = receivedUpdates.getMask();
+			networkStats.recordSend();
+			sendTCP(kryoEndpoint, new CMsgAck(acknowledgedSequence, acknowledgedMask));
+		}
 
 		// Update client
 		updateEndpoint();
 	}
 
+	/**
+	 * Advances the server time which aircraft are drawn at
+	 *
+	 * <p>
+	 * The time normally advances at the same rate as the client, but is slowly pulled towards
+	 * the latest server time received minus the interpolation delay.
+	 *
+	 * @param delta the time (in seconds) since the last frame
+	 * @return false if no updates have been received yet
+	 */
+	private boolean updateDrawTime(float delta)
+	{
+		if (receivedUpdates.getLatest() == 0)
+			return false;
+
+		float target = latestServerTime - interpolationDelay;
+		float error = target - (drawTime + delta);
+
+		if (!drawTimeStarted || Math.abs(error) > MAX_CLOCK_ERROR)
+		{
+			drawTime = target;
+			drawTimeStarted = true;
+		}
+		else
+		{
+			drawTime += delta + error * CLOCK_CORRECTION;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Called when an aircraft updates message is received from the server
+	 *
+	 * @param sequence sequence number of the message
+	 * @param serverTime server time (in seconds) when the message was sent
+	 * @return true if the message should be used, false if it is older than a message already received
+	 */
+	boolean receivedUpdates(int sequence, float serverTime)
+	{
+		if (sequence <= receivedUpdates.getLatest())
+			return false;
+
+		receivedUpdates.add(sequence);
+		latestServerTime = Math.max(latestServerTime, serverTime);
+		return true;
+	}
+
+	/**
+	 * Returns the snapshot buffer of an aircraft, creating a new buffer if needed
+	 *
+	 * @param aircraftId id of the aircraft
+	 * @return the aircraft's snapshot buffer
+	 */
+	SnapshotBuffer getSnapshotBuffer(int aircraftId)
+	{
+		SnapshotBuffer buffer = snapshotBuffers.get(aircraftId);
+		if (buffer == null)
+		{
+			buffer = new SnapshotBuffer();
+			snapshotBuffers.put(aircraftId, buffer);
+		}
+
+		return buffer;
+	}
+
+	/** Returns the time (in seconds) that aircraft are drawn behind the server */
+	public float getInterpolationDelay()
+	{
+		return interpolationDelay;
+	}
+
+	/**
+	 * Sets the time (in seconds) that aircraft are drawn behind the server
+	 *
+	 * <p>
+	 * This should be a bit more than the time between server updates, so there is usually a
+	 * newer update to move towards. Larger delays cope better with uneven network delays.
+	 *
+	 * @param interpolationDelay the new delay (0 draws the latest update immediately)
+	 */
+	public void setInterpolationDelay(float interpolationDelay)
+	{
+		if (interpolationDelay < 0)
+			throw new IllegalArgumentException("interpolationDelay cannot be negative");
+
+		this.interpolationDelay = interpolationDelay;
+	}
+
 	@Override
 	public void takeOff()
 	{
@@ -144,7 +285,7 @@ public class MultiClient extends NetworkCommon<Client>
 			return;
 
 		// Send takeoff request
-		kryoEndpoint.sendTCP(new CMsgTakeoff());
+		sendTCP(kryoEndpoint, new CMsgTakeoff());
 	}
 
 	@Override
@@ -155,7 +296,7 @@ public class MultiClient extends NetworkCommon<Client>
 			return;
 
 		// Send velocity request
-		kryoEndpoint.sendTCP(new CMsgHandover(objectIdMap.getId(object)));
+		sendTCP(kryoEndpoint, new CMsgHandover(objectIdMap.getId(object)));
 	}
 
 	@Override
@@ -166,7 +307,7 @@ public class MultiClient extends NetworkCommon<Client>
 			return;
 
 		// Send velocity request
-		kryoEndpoint.sendTCP(new CMsgSetVelocity(objectIdMap.getId(object), velocity));
+		sendTCP(kryoEndpoint, new CMsgSetVelocity(objectIdMap.getId(object), velocity));
 	}
 
 	@Override
@@ -177,7 +318,7 @@ public class MultiClient extends NetworkCommon<Client>
 			return;
 
 		// Send altitude request
-		kryoEndpoint.sendTCP(new CMsgSetAltitude(objectIdMap.getId(object), altitude));
+		sendTCP(kryoEndpoint, new CMsgSetAltitude(objectIdMap.getId(object), altitude));
 	}
 
 	/** Listener for the server (single threaded) */
@@ -220,7 +361,7 @@ public class MultiClient extends NetworkCommon<Client>
 		{
 			try
 			{
-				kryoEndpoint.connect(NetworkCommon.CONNECT_TIMEOUT, hostname, NetworkCommon.PORT);
+				kryoEndpoint.connect(NetworkCommon.CONNECT_TIMEOUT, hostname, NetworkCommon.PORT, NetworkCommon.UDP_PORT);
 			}
 			catch (IOException e)
 			{
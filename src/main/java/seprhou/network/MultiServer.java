@@ -14,16 +14,30 @@ import java.util.*;
  */
 public class MultiServer extends NetworkCommon<Server>
 {
+	/** Default number of times per second changes are sent to the client */
+	public static final float DEFAULT_SEND_RATE = 20;
+
+	/** Maximum number of aircraft updates sent in each UDP packet */
+	private static final int MAX_UPDATES_PER_PACKET = 24;
+
 	private final Queue<ClientMessage> messageQueue = new LinkedList<>();
 	private final Set<AirspaceObject> newAircraft = new HashSet<>();
+	private final ArrayList<Aircraft> updateCandidates = new ArrayList<>();
+	private final ArrayList<SMsgAircraftCreate> pendingCreates = new ArrayList<>();
+	private final ArrayList<SMsgAircraftDestroy> pendingDestroys = new ArrayList<>();
 
 	private final Rectangle dimensions;
 	private final FactoryProxy serverFactory;
 	private final float lateral, vertical;
 	private final AircraftColour myColour;
+	private final Random random = new Random();
 
 	private Connection otherEndpoint;
 	private int previousScore, previousLanded;
+	private int sequence, updateRotation;
+	private double time;
+	private FixedTimestep sendTimestep = new FixedTimestep(1 / DEFAULT_SEND_RATE, 1);
+	private final SequenceWindow acknowledged = new SequenceWindow();
 
 	/**
 	 * Creates and starts the server
@@ -39,7 +53,7 @@ public class MultiServer extends NetworkCommon<Server>
 		this.vertical = vertical;
 
 		// Choose random colour for myself
-		this.myColour = randomColour();
+		this.myColour = randomColour(random);
 
 		// Setup server connection
 		kryoEndpoint.addListener(new MyListener());
@@ -47,14 +61,14 @@ public class MultiServer extends NetworkCommon<Server>
 		try
 		{
 			// Update server
-			kryoEndpoint.bind(PORT);
+			kryoEndpoint.bind(PORT, UDP_PORT);
 		}
 		catch (IOException e)
 		{
 			closeWithFail(e);
 		}
 
-		Log.info("[Server] Listening on port " + PORT);
+		Log.info("[Server] Listening on port " + PORT + " (UDP port " + UDP_PORT + ")");
 	}
 
 	/**
@@ -67,15 +81,23 @@ public class MultiServer extends NetworkCommon<Server>
 			throw new IllegalStateException("cannot start game when not connected");
 
 		// Reset airspace
-		airspace = new Airspace(dimensions, serverFactory);
+		airspace = new Airspace(dimensions, serverFactory, random.nextLong());
 		airspace.setLateralSeparation(lateral);
 		airspace.setVerticalSeparation(vertical);
 		previousScore = 0;
 		previousLanded = 0;
+		sequence = 0;
+		updateRotation = 0;
+		time = 0;
+		sendTimestep.reset();
+		pendingCreates.clear();
+		pendingDestroys.clear();
+		acknowledged.clear();
 		objectIdMap.clear();
+		stateHistories.clear();
 
 		// Send start message
-		otherEndpoint.sendTCP(new SMsgGameStart(lateral, vertical, getOtherColour()));
+		sendTCP(otherEndpoint, new SMsgGameStart(lateral, vertical, getOtherColour()));
 	}
 
 	/** Returns the other player's colour */
@@ -124,56 +146,22 @@ public class MultiServer extends NetworkCommon<Server>
 
 		// Update airspace
 		airspace.refresh(delta);
+		time += delta;
+		updateNetworkStats(delta, "[Server]");
 
-		// Update score
-		if (airspace.getScore() != previousScore)
-		{
-			previousScore = airspace.getScore();
-			otherEndpoint.sendTCP(new SMsgScoreUpdate(previousScore));
-		}
-
-		// Update landed objects
-		if (airspace.getLandedObjects() != previousLanded)
-		{
-			previousLanded = airspace.getLandedObjects();
-			otherEndpoint.sendTCP(new SMsgLandedUpdate(previousLanded));
-		}
-
-		// Handle game over
-		if (airspace.isGameOver())
-		{
-			otherEndpoint.sendTCP(new SMsgGameEnd());
-
-			// Update endpoint before returning so any packets are sent
-			updateEndpoint();
-			return;
-		}
-
-		// Send create and update messages
+		// Add create messages (new aircraft are given ids immediately)
 		for (AirspaceObject object : airspace.getActiveObjects())
 		{
-			// Ignore non aircraft
-			if (object instanceof Aircraft)
+			if (object instanceof Aircraft && newAircraft.contains(object))
 			{
 				Aircraft aircraft = (Aircraft) object;
-				ServerMessage msg;
-
-				if (newAircraft.contains(aircraft))
-				{
-					// Create id for aircraft and send create message
-					msg = new SMsgAircraftCreate(objectIdMap.createWithNewId(aircraft), aircraft);
-				}
-				else
-				{
-					// Create update message
-					msg = new SMsgAircraftUpdate(objectIdMap.getId(aircraft), aircraft);
-				}
-
-				otherEndpoint.sendTCP(msg);
+				pendingCreates.add(new SMsgAircraftCreate(objectIdMap.createWithNewId(aircraft), aircraft));
 			}
 		}
 
-		// Send destroy messages
+		newAircraft.clear();
+
+		// Add destroy messages
 		for (AirspaceObject object : airspace.getCulledObjects())
 		{
 			// Ignore non aircraft
@@ -182,19 +170,137 @@ public class MultiServer extends NetworkCommon<Server>
 				Aircraft aircraft = (Aircraft) object;
 				int id = objectIdMap.getId(aircraft);
 
-				// Send message and destroy in map
+				// Add message and destroy in map
 				objectIdMap.destroy(id);
-				otherEndpoint.sendTCP(new SMsgAircraftDestroy(id));
+				stateHistories.remove(id);
+				pendingDestroys.add(new SMsgAircraftDestroy(id));
 			}
 		}
 
-		// Reset new aircraft list
-		newAircraft.clear();
+		// Only send at the send rate (unless the game is over)
+		//  Creates and destroys are saved until the next send
+		if (sendTimestep.advance(delta) > 0 || airspace.isGameOver())
+			sendTick();
 
 		// Update server
 		updateEndpoint();
 	}
 
+	/** Sends all the changes since the last send to the client */
+	private void sendTick()
+	{
+		networkStats.recordSend();
+
+		// Creates, destroys and score changes are sent reliably in one snapshot
+		SMsgWorldSnapshot snapshot = new SMsgWorldSnapshot(airspace.getScore(), airspace.getLandedObjects());
+		boolean snapshotChanged = (snapshot.getScore() != previousScore || snapshot.getLanded() != previousLanded);
+		previousScore = snapshot.getScore();
+		previousLanded = snapshot.getLanded();
+
+		snapshot.getCreates().addAll(pendingCreates);
+		snapshot.getDestroys().addAll(pendingDestroys);
+		pendingCreates.clear();
+		pendingDestroys.clear();
+
+		// Handle game over
+		if (airspace.isGameOver())
+		{
+			sendTCP(otherEndpoint, snapshot);
+			sendTCP(otherEndpoint, new SMsgGameEnd());
+			return;
+		}
+
+		if (snapshotChanged || !snapshot.getCreates().isEmpty() || !snapshot.getDestroys().isEmpty())
+			sendTCP(otherEndpoint, snapshot);
+
+		// Add update messages (unreliably)
+		//  If there are too many to fit in one packet, start from the next aircraft next time
+		updateCandidates.clear();
+		for (AirspaceObject object : airspace.getActiveObjects())
+		{
+			if (object instanceof Aircraft)
+				updateCandidates.add((Aircraft) object);
+		}
+
+		sequence++;
+		SMsgAircraftUpdates updates = new SMsgAircraftUpdates(sequence, (int) Math.round(time * 1000));
+		int count = updateCandidates.size();
+		int i;
+
+		for (i = 0; i < count && updates.getUpdates().size() < MAX_UPDATES_PER_PACKET; i++)
+		{
+			Aircraft aircraft = updateCandidates.get((updateRotation + i) % count);
+			addUpdate(updates, objectIdMap.getId(aircraft), aircraft);
+		}
+
+		updateRotation = (count == 0) ? 0 : (updateRotation + i) % count;
+
+		if (!updates.getUpdates().isEmpty())
+			sendUDP(otherEndpoint, updates);
+	}
+
+	/** Returns the number of times per second changes are sent to the client */
+	public float getSendRate()
+	{
+		return 1 / sendTimestep.getStep();
+	}
+
+	/**
+	 * Sets the number of times per second changes are sent to the client
+	 *
+	 * <p>
+	 * This is independent of the rate the airspace is refreshed at. Changes made between
+	 * sends are sent together in the next send. If this is larger than the refresh rate,
+	 * changes are sent after every refresh.
+	 *
+	 * @param sendRate the new send rate (in Hz)
+	 */
+	public void setSendRate(float sendRate)
+	{
+		if (!(sendRate > 0))
+			throw new IllegalArgumentException("sendRate must be greater than 0");
+
+		sendTimestep = new FixedTimestep(1 / sendRate, 1);
+	}
+
+	/**
+	 * Adds an update containing the changes to an aircraft since the last state the client acknowledged
+	 *
+	 * @param updates message to add the update to
+	 * @param id id of the aircraft
+	 * @param aircraft the aircraft
+	 */
+	private void addUpdate(SMsgAircraftUpdates updates, int id, Aircraft aircraft)
+	{
+		AircraftStateHistory history = getStateHistory(id);
+		AircraftState state = AircraftState.capture(aircraft);
+
+		// Find the base state (the client will never need anything older)
+		int baseSequence = history.findLatest(acknowledged);
+		AircraftState base = (baseSequence == 0) ? AircraftState.ZERO : history.get(baseSequence);
+		history.discardBefore(baseSequence);
+
+		// Nothing to send if the client already has this state
+		if (baseSequence != 0 && state.getChangedMask(base) == 0)
+			return;
+
+		updates.getUpdates().add(new SMsgAircraftUpdate(id, sequence, baseSequence, state, base));
+		history.add(sequence, state);
+	}
+
+	/**
+	 * Called when the client acknowledges some aircraft updates
+	 *
+	 * @param ackSequence latest sequence number received by the client
+	 * @param ackMask mask of other sequence numbers received by the client
+	 */
+	void acknowledge(int ackSequence, long ackMask)
+	{
+		// Ignore acknowledgements from the future
+		if (ackSequence <= sequence)
+			acknowledged.addAll(ackSequence, ackMask);
+	}
+
 	@Override
 	public void takeOff()
 	{
@@ -236,9 +342,9 @@ public class MultiServer extends NetworkCommon<Server>
 	}
 
 	/** Returns a random multiplayer colour */
-	private static AircraftColour randomColour()
+	private static AircraftColour randomColour(Random random)
 	{
-		if (Utils.getRandom().nextBoolean())
+		if (random.nextBoolean())
 			return AircraftColour.BLUE;
 		else
 			return AircraftColour.RED;
@@ -258,7 +364,7 @@ public class MultiServer extends NetworkCommon<Server>
 		public AirspaceObject makeObject(Airspace airspace, FlightPlan flightPlan, String flightNumber, AircraftColour dummy)
 		{
 			// Create the object (note we use a new colour here)
-			AirspaceObject object = userFactory.makeObject(airspace, flightPlan, flightNumber, randomColour());
+			AirspaceObject object = userFactory.makeObject(airspace, flightPlan, flightNumber, randomColour(airspace.getRandom()));
 
 			if (object != null)
 				newAircraft.add(object);
@@ -283,7 +389,7 @@ public class MultiServer extends NetworkCommon<Server>
 			state = GameEndpointState.CONNECTED;
 
 			// Start game messages
-			otherEndpoint.sendTCP(new SMsgVersion());
+			sendTCP(otherEndpoint, new SMsgVersion());
 			startGame();
 		}
 
@@ -4,13 +4,16 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.EndPoint;
 import com.esotericsoftware.minlog.Log;
 import seprhou.logic.*;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class which handles common network initialization tasks
@@ -28,16 +31,21 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 	 *     <li>Changing the order of message registration</li>
 	 * </ul>
 	 */
-	protected static final int PROTOCOL_VERSION = 1;
+	protected static final int PROTOCOL_VERSION = 6;
 
 	/** TCP port number to listen / connect on */
 	protected static final int PORT = 59873;
 
+	/** UDP port number to listen / connect on (used for aircraft updates) */
+	protected static final int UDP_PORT = PORT + 1;
+
 	/** TCP connect timeout in milliseconds */
 	protected static final int CONNECT_TIMEOUT = 5000;
 
 	protected final TEndPoint kryoEndpoint;
 	protected final AircraftIdMapper objectIdMap = new AircraftIdMapper();
+	protected final Map<Integer, AircraftStateHistory> stateHistories = new HashMap<>();
+	protected final NetworkStats networkStats = new NetworkStats();
 
 	protected GameEndpointState state = GameEndpointState.CONNECTING;
 	protected IOException failException;
@@ -105,6 +113,64 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 		return airspace;
 	}
 
+	/** Returns the statistics about the data sent by this endpoint */
+	public NetworkStats getNetworkStats()
+	{
+		return networkStats;
+	}
+
+	/**
+	 * Sends a message over TCP and records it in the network statistics
+	 *
+	 * @param connection connection to send on
+	 * @param message message to send
+	 */
+	protected void sendTCP(Connection connection, Object message)
+	{
+		networkStats.recordPacket(connection.sendTCP(message));
+	}
+
+	/**
+	 * Sends a message over UDP and records it in the network statistics
+	 *
+	 * @param connection connection to send on
+	 * @param message message to send
+	 */
+	protected void sendUDP(Connection connection, Object message)
+	{
+		networkStats.recordPacket(connection.sendUDP(message));
+	}
+
+	/**
+	 * Advances the network statistics and outputs them to the console at the end of each period (in debug mode)
+	 *
+	 * @param delta the time (in seconds) since the last call
+	 * @param prefix prefix of the log message
+	 */
+	protected void updateNetworkStats(float delta, String prefix)
+	{
+		if (networkStats.update(delta) && LogicConstants.DEBUG)
+			Log.info(prefix + " Sent " + networkStats);
+	}
+
+	/**
+	 * Returns the state history of an aircraft, creating a new history if needed
+	 *
+	 * @param aircraftId id of the aircraft
+	 * @return the aircraft's state history
+	 */
+	AircraftStateHistory getStateHistory(int aircraftId)
+	{
+		AircraftStateHistory history = stateHistories.get(aircraftId);
+		if (history == null)
+		{
+			history = new AircraftStateHistory();
+			stateHistories.put(aircraftId, history);
+		}
+
+		return history;
+	}
+
 	/** Runs update(0) on the endpoint */
 	protected boolean updateEndpoint()
 	{
@@ -133,19 +199,18 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 		kryo.setAutoReset(true);
 
 		// Register all message classes
+		kryo.register(CMsgAck.class);
 		kryo.register(CMsgHandover.class);
 		kryo.register(CMsgSetAltitude.class);
 		kryo.register(CMsgSetVelocity.class);
 		kryo.register(CMsgTakeoff.class);
 
 		kryo.register(SMsgAircraftCreate.class);
-		kryo.register(SMsgAircraftDestroy.class);
-		kryo.register(SMsgAircraftUpdate.class);
+		kryo.register(SMsgAircraftUpdates.class, new AircraftUpdatesSerializer());
 		kryo.register(SMsgGameEnd.class);
 		kryo.register(SMsgGameStart.class);
-		kryo.register(SMsgLandedUpdate.class);
-		kryo.register(SMsgScoreUpdate.class);
 		kryo.register(SMsgVersion.class);
+		kryo.register(SMsgWorldSnapshot.class, new WorldSnapshotSerializer());
 
 		// Register extra classes (used by messages)
 		kryo.register(FlightPlan.class, new FlightPlanSerializer());
@@ -154,7 +219,13 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 		kryo.register(AircraftColour.class);
 	}
 
-	/** Manual serializer for FlightPlan */
+	/**
+	 * Manual serializer for FlightPlan
+	 *
+	 * <p>
+	 * Routes in the default routing table are sent as a list of map point indexes.
+	 * Other flight plans are sent as a list of positions.
+	 */
 	private static class FlightPlanSerializer extends Serializer<FlightPlan>
 	{
 		{
@@ -164,8 +235,20 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 		@Override
 		public void write(Kryo kryo, Output output, FlightPlan object)
 		{
-			List<Vector2D> waypoints = object.getWaypoints();
-			kryo.writeObject(output, waypoints.toArray(new Vector2D[waypoints.size()]));
+			Route route = object.getRoute();
+			if (route != null && route.getTable() == RoutingTable.getDefault())
+			{
+				output.writeBoolean(true);
+				output.writeVarInt(route.size(), true);
+				for (int i = 0; i < route.size(); i++)
+					output.writeVarInt(route.getPointIndex(i), true);
+			}
+			else
+			{
+				List<Vector2D> waypoints = object.getWaypoints();
+				output.writeBoolean(false);
+				kryo.writeObject(output, waypoints.toArray(new Vector2D[waypoints.size()]));
+			}
 
 			output.writeFloat(object.getInitialSpeed());
 			output.writeFloat(object.getInitialAltitude());
@@ -176,14 +259,136 @@ public abstract class NetworkCommon<TEndPoint extends EndPoint> implements GameE
 		@Override
 		public FlightPlan read(Kryo kryo, Input input, Class<FlightPlan> type)
 		{
-			List<Vector2D> waypoints = Arrays.asList(kryo.readObject(input, Vector2D[].class));
+			Route route = null;
+			List<Vector2D> waypoints = null;
+
+			if (input.readBoolean())
+			{
+				int[] points = new int[input.readVarInt(true)];
+				for (int i = 0; i < points.length; i++)
+					points[i] = input.readVarInt(true);
+
+				route = RoutingTable.getDefault().intern(points);
+			}
+			else
+			{
+				waypoints = Arrays.asList(kryo.readObject(input, Vector2D[].class));
+			}
 
 			float initialSpeed = input.readFloat();
 			float initialAltitude = input.readFloat();
 			boolean landing = input.readBoolean();
 			boolean runway = input.readBoolean();
 
+			if (route != null)
+				return new FlightPlan(route, initialSpeed, initialAltitude, landing, runway);
+
 			return new FlightPlan(waypoints, initialSpeed, initialAltitude, landing, runway);
 		}
 	}
+
+	/**
+	 * Manual serializer for SMsgWorldSnapshot
+	 */
+	private static class WorldSnapshotSerializer extends Serializer<SMsgWorldSnapshot>
+	{
+		{
+			setImmutable(true);
+		}
+
+		@Override
+		public void write(Kryo kryo, Output output, SMsgWorldSnapshot object)
+		{
+			output.writeVarInt(object.getScore(), false);
+			output.writeVarInt(object.getLanded(), true);
+
+			// New aircraft
+			output.writeVarInt(object.getCreates().size(), true);
+			for (SMsgAircraftCreate create : object.getCreates())
+				kryo.writeObject(output, create);
+
+			// Destroyed aircraft
+			output.writeVarInt(object.getDestroys().size(), true);
+			for (SMsgAircraftDestroy destroy : object.getDestroys())
+				output.writeVarInt(destroy.getId(), true);
+		}
+
+		@Override
+		public SMsgWorldSnapshot read(Kryo kryo, Input input, Class<SMsgWorldSnapshot> type)
+		{
+			int score = input.readVarInt(false);
+			int landed = input.readVarInt(true);
+			SMsgWorldSnapshot snapshot = new SMsgWorldSnapshot(score, landed);
+
+			// New aircraft
+			int count = input.readVarInt(true);
+			for (int i = 0; i < count; i++)
+				snapshot.getCreates().add(kryo.readObject(input, SMsgAircraftCreate.class));
+
+			// Destroyed aircraft
+			count = input.readVarInt(true);
+			for (int i = 0; i < count; i++)
+				snapshot.getDestroys().add(new SMsgAircraftDestroy(input.readVarInt(true)));
+
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Manual serializer for SMsgAircraftUpdates
+	 *
+	 * <p>
+	 * Aircraft updates use the message's sequence number and only the fields in their changed
+	 * field mask are written. Each difference is written as a signed variable length integer, so
+	 * small changes usually only take one byte.
+	 */
+	private static class AircraftUpdatesSerializer extends Serializer<SMsgAircraftUpdates>
+	{
+		{
+			setImmutable(true);
+		}
+
+		@Override
+		public void write(Kryo kryo, Output output, SMsgAircraftUpdates object)
+		{
+			int sequence = object.getSequence();
+			output.writeVarInt(sequence, true);
+			output.writeVarInt(object.getTime(), true);
+			output.writeVarInt(object.getUpdates().size(), true);
+
+			for (SMsgAircraftUpdate update : object.getUpdates())
+			{
+				output.writeVarInt(update.getAircraftId(), true);
+				output.writeVarInt(sequence - update.getBaseSequence(), true);
+				output.writeVarInt(update.getMask(), true);
+
+				for (int delta : update.getDeltas())
+					output.writeVarInt(delta, false);
+			}
+		}
+
+		@Override
+		public SMsgAircraftUpdates read(Kryo kryo, Input input, Class<SMsgAircraftUpdates> type)
+		{
+			int sequence = input.readVarInt(true);
+			int time = input.readVarInt(true);
+			SMsgAircraftUpdates updates = new SMsgAircraftUpdates(sequence, time);
+
+			int count = input.readVarInt(true);
+			for (int i = 0; i < count; i++)
+			{
+				int aircraftId = input.readVarInt(true);
+				int baseSequence = sequence - input.readVarInt(true);
+				int mask = input.readVarInt(true);
+
+				int[] deltas = new int[Integer.bitCount(mask)];
+				for (int j = 0; j < deltas.length; j++)
+					deltas[j] = input.readVarInt(false);
+
+				updates.getUpdates().add(new SMsgAircraftUpdate(aircraftId, sequence, baseSequence, mask, deltas));
+			}
+
+			return updates;
+		}
+	}
 }
@@ -0,0 +1,103 @@
+package seprhou.network;
+
+/**
+ * Measures how often and how much data an endpoint sends
+ *
+ * <p>
+ * Rates are measured over periods of {@link #PERIOD} seconds and only change at the end of
+ * each period. Before the first period has finished, all the rates are 0.
+ */
+public class NetworkStats
+{
+	/** Length of each measuring period (seconds) */
+	public static final float PERIOD = 1;
+
+	private float periodTime;
+	private int periodSends, periodPackets;
+	private long periodBytes;
+
+	private float sendRate, packetRate, bytesPerSecond;
+	private long totalPackets, totalBytes;
+
+	/**
+	 * Records that some network packets were sent
+	 *
+	 * <p>A send is one server tick or client frame which sent data (possibly in several packets).
+	 */
+	public void recordSend()
+	{
+		periodSends++;
+	}
+
+	/**
+	 * Records that one packet has been sent
+	 *
+	 * @param bytes size of the packet in bytes
+	 */
+	public void recordPacket(int bytes)
+	{
+		periodPackets++;
+		periodBytes += bytes;
+		totalPackets++;
+		totalBytes += bytes;
+	}
+
+	/**
+	 * Advances the measuring period
+	 *
+	 * @param delta the time (in seconds) since the last call
+	 * @return true if a period has just finished (so the rates have changed)
+	 */
+	public boolean update(float delta)
+	{
+		periodTime += delta;
+		if (periodTime < PERIOD)
+			return false;
+
+		sendRate = periodSends / periodTime;
+		packetRate = periodPackets / periodTime;
+		bytesPerSecond = periodBytes / periodTime;
+
+		periodTime = 0;
+		periodSends = 0;
+		periodPackets = 0;
+		periodBytes = 0;
+		return true;
+	}
+
+	/** Returns the number of sends per second in the last period */
+	public float getSendRate()
+	{
+		return sendRate;
+	}
+
+	/** Returns the number of packets sent per second in the last period */
+	public float getPacketRate()
+	{
+		return packetRate;
+	}
+
+	/** Returns the number of bytes sent per second in the last period */
+	public float getBytesPerSecond()
+	{
+		return bytesPerSecond;
+	}
+
+	/** Returns the total number of packets sent */
+	public long getTotalPackets()
+	{
+		return totalPackets;
+	}
+
+	/** Returns the total number of bytes sent */
+	public long getTotalBytes()
+	{
+		return totalBytes;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%.1f sends/s, %.1f packets/s, %.0f bytes/s", sendRate, packetRate, bytesPerSecond);
+	}
+}
@@ -6,7 +6,7 @@ import seprhou.logic.*;
 /**
  * New aircraft message
  *
- * <p>Sent by server when a new aircraft enters the game
+ * <p>Sent by server (as part of a {@link SMsgWorldSnapshot}) when a new aircraft enters the game
  */
 class SMsgAircraftCreate implements ServerMessage
 {
@@ -56,6 +56,8 @@ class SMsgAircraftCreate implements ServerMessage
 	{
 		if (client.isConnected())
 		{
+			client.latestCreatedId = Math.max(client.latestCreatedId, id);
+
 			// Create new aircraft
 			Airspace airspace = client.getAirspace();
 			AirspaceObject object = client.factory.makeObject(client.getAirspace(), flightPlan, name, colour);
@@ -6,7 +6,7 @@ import seprhou.logic.AirspaceObject;
 /**
  * Aircraft destroyed message
  *
- * <p>Sent by server when an aircraft leaves the game (out of bounds, landed)
+ * <p>Sent by server (as part of a {@link SMsgWorldSnapshot}) when an aircraft leaves the game (out of bounds, landed)
  */
 class SMsgAircraftDestroy implements ServerMessage
 {
@@ -22,10 +22,10 @@ class SMsgAircraftDestroy implements ServerMessage
 		this.id = id;
 	}
 
-	/** Private constructor for Kryo */
-	@SuppressWarnings("unused")
-	private SMsgAircraftDestroy()
+	/** Returns the id of the destroyed aircraft */
+	int getId()
 	{
+		return id;
 	}
 
 	@Override
@@ -41,6 +41,9 @@ class SMsgAircraftDestroy implements ServerMessage
 
 				airspace.getActiveObjects().remove(object);
 				airspace.getCulledObjects().add(object);
+				client.objectIdMap.destroy(id);
+				client.stateHistories.remove(id);
+				client.snapshotBuffers.remove(id);
 			}
 		}
 	}
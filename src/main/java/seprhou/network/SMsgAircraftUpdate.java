@@ -1,62 +1,120 @@
 package seprhou.network;
 
-import com.esotericsoftware.kryo.NotNull;
-import seprhou.logic.Aircraft;
-import seprhou.logic.AircraftColour;
 import seprhou.logic.AirspaceObject;
-import seprhou.logic.Vector2D;
 
 /**
  * Aircraft update
  *
- * <p>Sent by server to update the position of an aircraft
+ * <p>Sent by server (as part of {@link SMsgAircraftUpdates}) to update the position of an aircraft
+ *
+ * <p>
+ * Updates only contain the fields which have changed since a base state the client has
+ * acknowledged (see {@link CMsgAck}). The differences are sent in fixed point using
+ * {@link NetworkCommon}'s serializer. A base sequence of 0 means the update is against
+ * {@link AircraftState#ZERO} (so it contains the entire state).
  */
-class SMsgAircraftUpdate implements ServerMessage
+class SMsgAircraftUpdate
 {
 	private int aircraftId;
+	private int sequence, baseSequence;
+	private int mask;
+	private int[] deltas;
 
-	@NotNull private Vector2D position;
-	@NotNull private Vector2D velocity;
-	@NotNull private Vector2D targetVelocity;
-	private float altitude, targetAltitude;
-	@NotNull private AircraftColour colour;
+	/**
+	 * Creates a new aircraft update message
+	 *
+	 * @param aircraftId id of the aircraft
+	 * @param sequence sequence number of the new state
+	 * @param baseSequence sequence number of the base state (or 0 to use {@link AircraftState#ZERO})
+	 * @param state the new state
+	 * @param base the base state
+	 */
+	public SMsgAircraftUpdate(int aircraftId, int sequence, int baseSequence, AircraftState state, AircraftState base)
+	{
+		this.aircraftId = aircraftId;
+		this.sequence = sequence;
+		this.baseSequence = baseSequence;
+		this.mask = state.getChangedMask(base);
+		this.deltas = state.getDeltas(base, mask);
+	}
 
-	public SMsgAircraftUpdate(int aircraftId, Aircraft aircraft)
+	/**
+	 * Creates a new aircraft update message from its raw values (used when deserializing)
+	 */
+	SMsgAircraftUpdate(int aircraftId, int sequence, int baseSequence, int mask, int[] deltas)
 	{
 		this.aircraftId = aircraftId;
-		this.position = aircraft.getPosition();
-		this.velocity = aircraft.getVelocity();
-		this.targetVelocity = aircraft.getTargetVelocity();
-		this.altitude = aircraft.getAltitude();
-		this.targetAltitude = aircraft.getTargetAltitude();
-		this.colour = aircraft.getColour();
+		this.sequence = sequence;
+		this.baseSequence = baseSequence;
+		this.mask = mask;
+		this.deltas = deltas;
 	}
 
-	/** Private constructor for Kryo */
-	@SuppressWarnings("unused")
-	private SMsgAircraftUpdate()
+	/** Returns the id of the aircraft to update */
+	int getAircraftId()
 	{
+		return aircraftId;
 	}
 
-	@Override
-	public void receivedFromServer(MultiClient client)
+	/** Returns the sequence number of the new state */
+	int getSequence()
+	{
+		return sequence;
+	}
+
+	/** Returns the sequence number of the state this update was made against */
+	int getBaseSequence()
+	{
+		return baseSequence;
+	}
+
+	/** Returns the mask of the fields which have changed */
+	int getMask()
+	{
+		return mask;
+	}
+
+	/** Returns the differences of each changed field */
+	int[] getDeltas()
+	{
+		return deltas;
+	}
+
+	/**
+	 * Called on the client when the update has been received
+	 *
+	 * @param client the client which received the update
+	 * @param serverTime server time (in seconds) when the update was sent
+	 */
+	public void receivedFromServer(MultiClient client, float serverTime)
 	{
 		if (client.isConnected())
 		{
 			AirspaceObject object = client.objectIdMap.getObject(aircraftId);
 
-			if (object != null && object instanceof Aircraft)
-			{
-				Aircraft aircraft = (Aircraft) object;
-
-				// Update all values
-				aircraft.setPosition(position);
-				aircraft.setVelocity(velocity);
-				aircraft.setAltitude(altitude);
-				aircraft.setTargetVelocityNoClamping(targetVelocity);
-				aircraft.setTargetAltitudeNoClamping(targetAltitude);
-				aircraft.setColour(colour);
-			}
+			// Ignore updates for destroyed aircraft
+			//  Updates for aircraft which have not been created yet are still stored since the
+			//  server will use them as the base of later updates
+			if (object == null && aircraftId <= client.latestCreatedId)
+				return;
+
+			AircraftStateHistory history = client.getStateHistory(aircraftId);
+
+			// Ignore old updates and updates against states we don't have
+			if (sequence <= history.getLatestSequence())
+				return;
+
+			AircraftState base = (baseSequence == 0) ? AircraftState.ZERO : history.get(baseSequence);
+			if (base == null)
+				return;
+
+			// The server will never use anything older than this base again
+			AircraftState state = AircraftState.applyDeltas(base, mask, deltas);
+			history.discardBefore(baseSequence);
+			history.add(sequence, state);
+
+			// Buffer the state until it is time to draw it
+			client.getSnapshotBuffer(aircraftId).add(serverTime, state);
 		}
 	}
 }
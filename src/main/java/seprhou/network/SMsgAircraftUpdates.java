@@ -0,0 +1,61 @@
+package seprhou.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aircraft updates
+ *
+ * <p>Sent by server over UDP once per tick with the updates to the positions of the aircraft
+ *
+ * <p>
+ * These messages can be lost or arrive out of order. The client ignores any message older
+ * than the latest one it has received, and acknowledges the messages it used (see
+ * {@link CMsgAck}) so the server only makes updates against states the client has.
+ */
+class SMsgAircraftUpdates implements ServerMessage
+{
+	private int sequence;
+	private int time;
+	private final List<SMsgAircraftUpdate> updates = new ArrayList<>();
+
+	/**
+	 * Creates a new empty aircraft updates message
+	 *
+	 * @param sequence sequence number of the tick
+	 * @param time server time of the tick (in milliseconds)
+	 */
+	public SMsgAircraftUpdates(int sequence, int time)
+	{
+		this.sequence = sequence;
+		this.time = time;
+	}
+
+	/** Returns the sequence number of the tick */
+	public int getSequence()
+	{
+		return sequence;
+	}
+
+	/** Returns the server time of the tick (in milliseconds) */
+	public int getTime()
+	{
+		return time;
+	}
+
+	/** Returns the list of aircraft updates (can be modified) */
+	public List<SMsgAircraftUpdate> getUpdates()
+	{
+		return updates;
+	}
+
+	@Override
+	public void receivedFromServer(MultiClient client)
+	{
+		if (client.isConnected() && client.receivedUpdates(sequence, time / 1000f))
+		{
+			for (SMsgAircraftUpdate update : updates)
+				update.receivedFromServer(client, time / 1000f);
+		}
+	}
+}
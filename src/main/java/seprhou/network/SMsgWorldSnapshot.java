@@ -0,0 +1,73 @@
+package seprhou.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * World snapshot
+ *
+ * <p>Sent by server at the end of any tick where aircraft are created or destroyed, or the score changes
+ *
+ * <p>
+ * The whole snapshot is applied at once so the client never sees half a tick. The parts are
+ * applied in order: new aircraft, destroyed aircraft, then the score and landed aircraft count.
+ * Aircraft positions are sent separately in {@link SMsgAircraftUpdates}.
+ */
+class SMsgWorldSnapshot implements ServerMessage
+{
+	private int score, landed;
+	private final List<SMsgAircraftCreate> creates = new ArrayList<>();
+	private final List<SMsgAircraftDestroy> destroys = new ArrayList<>();
+
+	/**
+	 * Creates a new empty world snapshot
+	 *
+	 * @param score game score
+	 * @param landed number of landed aircraft
+	 */
+	public SMsgWorldSnapshot(int score, int landed)
+	{
+		this.score = score;
+		this.landed = landed;
+	}
+
+	/** Returns the game score */
+	public int getScore()
+	{
+		return score;
+	}
+
+	/** Returns the number of landed aircraft */
+	public int getLanded()
+	{
+		return landed;
+	}
+
+	/** Returns the list of new aircraft (can be modified) */
+	public List<SMsgAircraftCreate> getCreates()
+	{
+		return creates;
+	}
+
+	/** Returns the list of destroyed aircraft (can be modified) */
+	public List<SMsgAircraftDestroy> getDestroys()
+	{
+		return destroys;
+	}
+
+	@Override
+	public void receivedFromServer(MultiClient client)
+	{
+		if (client.isConnected())
+		{
+			for (SMsgAircraftCreate create : creates)
+				create.receivedFromServer(client);
+
+			for (SMsgAircraftDestroy destroy : destroys)
+				destroy.receivedFromServer(client);
+
+			client.getAirspace().setScore(score);
+			client.getAirspace().setLandedObjects(landed);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package seprhou.network;
+
+/**
+ * Set of the most recent sequence numbers which have been received
+ *
+ * <p>
+ * Stores the latest sequence number and a bitmask of which of the 63 sequence numbers
+ * before it have also been received. Older sequence numbers are forgotten.
+ * Sequence number 0 is never contained in the window.
+ */
+class SequenceWindow
+{
+	/** Number of sequence numbers stored in the window (including the latest) */
+	public static final int SIZE = 64;
+
+	private int latest;
+	private long mask;
+
+	/** Returns the latest sequence number in the window (or 0 if it is empty) */
+	public int getLatest()
+	{
+		return latest;
+	}
+
+	/**
+	 * Returns the mask of received sequence numbers
+	 *
+	 * <p>Bit {@code n} is set if sequence number {@code getLatest() - n} has been received.
+	 */
+	public long getMask()
+	{
+		return mask;
+	}
+
+	/**
+	 * Adds a sequence number to the window
+	 *
+	 * @param sequence sequence number to add
+	 * @return true if the sequence number was added, false if it was too old or already in the window
+	 */
+	public boolean add(int sequence)
+	{
+		if (sequence <= 0)
+			return false;
+
+		if (sequence > latest)
+		{
+			int shift = sequence - latest;
+			mask = (shift >= SIZE) ? 1 : (mask << shift) | 1;
+			latest = sequence;
+			return true;
+		}
+
+		int distance = latest - sequence;
+		if (distance >= SIZE || (mask & (1L << distance)) != 0)
+			return false;
+
+		mask |= 1L << distance;
+		return true;
+	}
+
+	/**
+	 * Adds all the sequence numbers from another window
+	 *
+	 * @param otherLatest latest sequence number of the other window
+	 * @param otherMask mask of the other window
+	 */
+	public void addAll(int otherLatest, long otherMask)
+	{
+		for (int i = SIZE - 1; i >= 0; i--)
+		{
+			if ((otherMask & (1L << i)) != 0)
+				add(otherLatest - i);
+		}
+	}
+
+	/**
+	 * Returns true if the given sequence number is in the window
+	 *
+	 * @param sequence sequence number to test
+	 * @return true if the sequence number has been received
+	 */
+	public boolean contains(int sequence)
+	{
+		int distance = latest - sequence;
+		return sequence > 0 && distance >= 0 && distance < SIZE && (mask & (1L << distance)) != 0;
+	}
+
+	/** Removes all sequence numbers from the window */
+	public void clear()
+	{
+		latest = 0;
+		mask = 0;
+	}
+}
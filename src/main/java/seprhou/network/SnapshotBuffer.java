@@ -0,0 +1,146 @@
+package seprhou.network;
+
+import seprhou.logic.Aircraft;
+import seprhou.logic.AircraftColour;
+
+import static seprhou.network.AircraftState.*;
+
+/**
+ * Buffer of the states of one aircraft received by the client, indexed by server time
+ *
+ * <p>
+ * The client draws aircraft slightly in the past so there are usually two states either
+ * side of the time being drawn. The aircraft is placed between them so it moves smoothly even
+ * if updates arrive at uneven times. If no new states have arrived, the aircraft continues
+ * moving with its last known velocity for a short time.
+ */
+class SnapshotBuffer
+{
+	/** Maximum number of states kept (the oldest states are dropped after this) */
+	public static final int MAX_STATES = 32;
+
+	/** Maximum time (in seconds) to continue moving an aircraft after its last state */
+	public static final float MAX_EXTRAPOLATION = 0.5f;
+
+	private final float[] times = new float[MAX_STATES];
+	private final AircraftState[] states = new AircraftState[MAX_STATES];
+	private int start, count;
+
+	/**
+	 * Adds a new state
+	 *
+	 * <p>States older than the latest state are ignored.
+	 *
+	 * @param time server time of the state
+	 * @param state the state
+	 */
+	public void add(float time, AircraftState state)
+	{
+		if (count > 0 && time <= times[index(count - 1)])
+			return;
+
+		if (count == MAX_STATES)
+			removeFirst();
+
+		int i = index(count);
+		times[i] = time;
+		states[i] = state;
+		count++;
+	}
+
+	/** Returns the number of states in the buffer */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * Moves an aircraft to where it was at the given server time
+	 *
+	 * <p>
+	 * The aircraft's previous position is not changed, so it is drawn moving from where it was
+	 * before the last refresh. States which are no longer needed to draw times after this one
+	 * are removed. This method does not allocate any memory.
+	 *
+	 * @param aircraft aircraft to move
+	 * @param time server time to draw
+	 * @return false if the buffer is empty (the aircraft is not changed)
+	 */
+	public boolean apply(Aircraft aircraft, float time)
+	{
+		if (count == 0)
+			return false;
+
+		// Remove states which are older than the two either side of the time
+		while (count >= 2 && times[index(1)] <= time)
+			removeFirst();
+
+		AircraftState first = states[start];
+		float firstTime = times[start];
+
+		if (count == 1 || time <= firstTime)
+		{
+			// Before the first state or after the last state
+			float extrapolate = Math.min(Math.max(time - firstTime, 0), MAX_EXTRAPOLATION);
+			apply(aircraft, first, first, 0, extrapolate);
+		}
+		else
+		{
+			// Between two states
+			int i = index(1);
+			float fraction = (time - firstTime) / (times[i] - firstTime);
+			apply(aircraft, first, states[i], fraction, 0);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Moves an aircraft to a position between two states
+	 *
+	 * @param aircraft aircraft to move
+	 * @param from the earlier state
+	 * @param to the later state
+	 * @param fraction fraction of the way between the states
+	 * @param extrapolate time to move the aircraft forward by using its velocity
+	 */
+	private static void apply(Aircraft aircraft, AircraftState from, AircraftState to, float fraction, float extrapolate)
+	{
+		float velocityX = lerp(from, to, VELOCITY_X, fraction);
+		float velocityY = lerp(from, to, VELOCITY_Y, fraction);
+
+		// setMotion keeps the previous position so the aircraft is still drawn smoothly
+		aircraft.setMotion(
+				lerp(from, to, POSITION_X, fraction) + velocityX * extrapolate,
+				lerp(from, to, POSITION_Y, fraction) + velocityY * extrapolate,
+				velocityX, velocityY);
+		aircraft.setAltitude(lerp(from, to, ALTITUDE, fraction));
+		aircraft.setTargetVelocityNoClamping(from.getValue(TARGET_VELOCITY_X), from.getValue(TARGET_VELOCITY_Y));
+		aircraft.setTargetAltitudeNoClamping(from.getValue(TARGET_ALTITUDE));
+
+		AircraftColour colour = from.getColour();
+		if (colour != null)
+			aircraft.setColour(colour);
+	}
+
+	/** Interpolates a field between two states */
+	private static float lerp(AircraftState from, AircraftState to, int field, float fraction)
+	{
+		float value = from.getValue(field);
+		return value + (to.getValue(field) - value) * fraction;
+	}
+
+	/** Removes the oldest state */
+	private void removeFirst()
+	{
+		states[start] = null;
+		start = index(1);
+		count--;
+	}
+
+	/** Converts a position in the buffer into an array index */
+	private int index(int position)
+	{
+		return (start + position) % MAX_STATES;
+	}
+}
@@ -15,10 +15,21 @@
  * chosen to use the single threaded method of using KryoNet, which makes it wasier in a game with a game loop which
  * runs all the time.
  *
- * <p>The design is based on the server being "god" of the airspace and sends the client updates every frame when
+ * <p>The design is based on the server being "god" of the airspace and sends the client updates whenever
  * anything happens.  All messages are prefixed with "CMsg" for messages SENT by the client, or
  * "SMsg" for messages SENT by the server.
  *
+ * <p>The server sends changes to the client at a fixed rate (see {@link seprhou.network.MultiServer#setSendRate(float)})
+ * which is independent of how often the airspace is refreshed.
+ * New and destroyed aircraft and score changes since the last send are sent together over TCP in one
+ * {@link seprhou.network.SMsgWorldSnapshot}. Aircraft positions are sent over UDP in
+ * {@link seprhou.network.SMsgAircraftUpdates}, which may be lost or arrive late (old ones are ignored). Each update
+ * only contains the (fixed point) differences from a state the client has acknowledged. See
+ * {@link seprhou.network.AircraftState} and {@link seprhou.network.CMsgAck}.
+ *
+ * <p>The client draws aircraft slightly behind the server, moving them smoothly between the updates it has received
+ * (see {@link seprhou.network.SnapshotBuffer}).
+ *
  * @see <a href="https://github.com/EsotericSoftware/kryo">Kryo</a>
  * @see <a href="https://github.com/EsotericSoftware/kryonet">KryoNet</a>
  *
@@ -7,10 +7,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.junit.runners.Parameterized;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
 
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
 import static seprhou.logic.IsCloseToFloat.closeTo;
 
@@ -30,7 +33,7 @@ public class AircraftTest
 		{
 			this.correctBearing = correctBearing;
 			this.aircraft = new AircraftMock();
-			this.aircraft.velocity = Vector2D.fromPolar(1, (float) angle);
+			this.aircraft.setVelocity(Vector2D.fromPolar(1, (float) angle));
 		}
 
 		@Parameterized.Parameters
@@ -85,13 +88,13 @@ public class AircraftTest
 		public void testNormalFlight()
 		{
 			// Miss a waypoint
-			aircraft.position = new Vector2D(50, 50);
+			aircraft.setPosition(new Vector2D(50, 50));
 			aircraft.refresh(1);
 			assertThat(aircraft.getWaypointsHit(), is(0));
 			assertThat(aircraft.getLastWaypoint(), is(0));
 
 			// Try to hit a waypoint
-			aircraft.position = new Vector2D(80, 80);
+			aircraft.setPosition(new Vector2D(80, 80));
 			aircraft.refresh(1);
 			assertThat(aircraft.getWaypointsHit(), is(1));
 			assertThat(aircraft.getLastWaypoint(), is(1));
@@ -102,13 +105,107 @@ public class AircraftTest
 			assertThat(aircraft.getLastWaypoint(), is(1));
 
 			// Hit the exit point
-			aircraft.position = new Vector2D(200, 200);
+			aircraft.setPosition(new Vector2D(200, 200));
 			aircraft.refresh(1);
 			assertThat(aircraft.getWaypointsHit(), is(2));
 			assertThat(aircraft.getLastWaypoint(), is(2));
 		}
 	}
 
+	@RunWith(JUnit4.class)
+	public static class WaypointSchedulingTests
+	{
+		@Test
+		public void testSameAsCheckingEveryTick()
+		{
+			Random random = new Random(1234);
+			int totalHits = 0;
+
+			for (int i = 0; i < 200; i++)
+			{
+				List<Vector2D> waypoints = new ArrayList<>();
+				for (int j = 0; j < 6; j++)
+					waypoints.add(new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000));
+
+				Aircraft aircraft = new AircraftMock(new FlightPlan(waypoints, 50, 100, false, false));
+				int expectedWaypoint = 0;
+
+				for (int tick = 0; tick < 2000; tick++)
+				{
+					// Sometimes steer towards the next waypoint and sometimes somewhere random
+					//  (including speeds above the maximum speed)
+					float choice = random.nextFloat();
+					if (choice < 0.1f && expectedWaypoint + 1 < waypoints.size())
+					{
+						Vector2D direction = waypoints.get(expectedWaypoint + 1).sub(aircraft.getPosition());
+						aircraft.setTargetVelocityNoClamping(direction.changeLength(random.nextFloat() * 150));
+					}
+					else if (choice < 0.12f)
+					{
+						aircraft.setTargetVelocityNoClamping(Vector2D.fromPolar(random.nextFloat() * 150, random.nextFloat() * 7));
+					}
+
+					aircraft.refresh(random.nextFloat() * 0.1f);
+
+					// Check for the next waypoint the slow way
+					if (expectedWaypoint + 1 < waypoints.size() &&
+						aircraft.getPosition().distanceTo(waypoints.get(expectedWaypoint + 1)) <= aircraft.getSize())
+					{
+						expectedWaypoint++;
+					}
+
+					assertThat(aircraft.getLastWaypoint(), is(expectedWaypoint));
+				}
+
+				totalHits += expectedWaypoint;
+			}
+
+			// Make sure the test actually hit some waypoints
+			assertThat(totalHits, is(greaterThan(100)));
+		}
+
+		@Test
+		public void testDistantWaypointNotChecked()
+		{
+			// Cruise towards a waypoint 1000 units away at full speed
+			CountingAircraftMock aircraft = new CountingAircraftMock(new FlightPlan(Arrays.asList(
+					new Vector2D(0, 0),
+					new Vector2D(1000, 0),
+					new Vector2D(2000, 0)), 100, 100, false, false));
+
+			for (int tick = 0; tick < 60; tick++)
+				aircraft.refresh(0.1f);
+
+			// Without scheduling the waypoint would be checked every tick
+			assertThat(aircraft.sizeCalls, is(lessThan(10)));
+			assertThat(aircraft.getLastWaypoint(), is(0));
+
+			// The waypoint is still hit on time
+			for (int tick = 0; tick < 40; tick++)
+				aircraft.refresh(0.1f);
+
+			assertThat(aircraft.getLastWaypoint(), is(1));
+		}
+	}
+
+	/** Aircraft which counts the number of times its size is used (once for each waypoint check) */
+	private static class CountingAircraftMock extends AircraftMock
+	{
+		public int sizeCalls;
+
+		public CountingAircraftMock(FlightPlan flightPlan)
+		{
+			super(flightPlan);
+		}
+
+		@Override
+		public float getSize()
+		{
+			sizeCalls++;
+			return super.getSize();
+		}
+	}
+
 	/** Fake {@link Aircraft} class used for testing */
 	private static class AircraftMock extends Aircraft
 	{
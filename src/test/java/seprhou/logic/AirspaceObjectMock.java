@@ -0,0 +1,62 @@
+package seprhou.logic;
+
+/**
+ * Fake {@link AirspaceObject} class used for testing
+ *
+ * <p>
+ * The velocity and altitude of the object start at their targets, so it flies in a straight line
+ * until the targets are changed. The object's limits are large enough for it to be steered.
+ */
+class AirspaceObjectMock extends AirspaceObject
+{
+	/** Size of objects which are so large that they are never culled */
+	public static final float HUGE_SIZE = 10000;
+
+	public final int id;
+	private final float size;
+	private final boolean solid;
+
+	/**
+	 * Creates a solid object at the origin which is not moving
+	 *
+	 * @param id id used by tests to identify the object
+	 */
+	public AirspaceObjectMock(int id)
+	{
+		this.id = id;
+		this.size = 64;
+		this.solid = true;
+	}
+
+	/**
+	 * Creates an object
+	 *
+	 * @param position initial position
+	 * @param velocity initial (and target) velocity
+	 * @param altitude initial (and target) altitude
+	 * @param size size of the object
+	 * @param solid true if the object is solid
+	 */
+	public AirspaceObjectMock(Vector2D position, Vector2D velocity, float altitude, float size, boolean solid)
+	{
+		this.id = 0;
+		this.setPosition(position);
+		this.setVelocity(velocity);
+		this.setTargetVelocityNoClamping(velocity);
+		this.altitude = altitude;
+		this.targetAltitude = altitude;
+		this.size = size;
+		this.solid = solid;
+	}
+
+	@Override public void draw(Object state) { }
+	@Override public boolean isSolid() { return solid; }
+	@Override public float getSize() { return size; }
+	@Override public float getAscentRate() { return 100; }
+	@Override public float getMinSpeed() { return 0; }
+	@Override public float getMaxSpeed() { return 200; }
+	@Override public float getMinAltitude() { return 0; }
+	@Override public float getMaxAltitude() { return 5000; }
+	@Override public float getMaxAcceleration() { return 100; }
+	@Override public float getMaxTurnRate() { return 1; }
+}
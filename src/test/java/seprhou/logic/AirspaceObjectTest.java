@@ -1,14 +1,18 @@
 package seprhou.logic;
 
 import org.hamcrest.Matcher;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.junit.runners.Parameterized;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Random;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
@@ -34,6 +38,27 @@ public class AirspaceObjectTest
 			assertThat(object.getTargetVelocity(), is(equalTo(Vector2D.ZERO)));
 			assertThat(object.getTargetAltitude(), is(equalTo(0f)));
 		}
+
+		@Test
+		public void testInterpolatedPosition()
+		{
+			AirspaceObject object = new AirspaceObjectMock();
+			object.setPosition(new Vector2D(10, 20));
+			object.setVelocity(new Vector2D(50, 0));
+			object.setTargetVelocity(new Vector2D(50, 0));
+
+			// Before any refreshes, the position does not move
+			assertThat(object.getInterpolatedPosition(0.5f), is(equalTo(new Vector2D(10, 20))));
+
+			object.refresh(1);
+			assertThat(object.getInterpolatedPosition(0), is(equalTo(new Vector2D(10, 20))));
+			assertThat(object.getInterpolatedPosition(0.5f), is(equalTo(new Vector2D(35, 20))));
+			assertThat(object.getInterpolatedPosition(1), is(equalTo(object.getPosition())));
+
+			// Setting the position directly does not interpolate
+			object.setPosition(new Vector2D(100, 100));
+			assertThat(object.getInterpolatedPosition(0.5f), is(equalTo(new Vector2D(100, 100))));
+		}
 	}
 
 	@RunWith(Parameterized.class)
@@ -43,7 +68,7 @@ public class AirspaceObjectTest
 
 		public RefreshTests(Vector2D velocity, float altitude, Vector2D targetVelocity, float targetAltitude)
 		{
-			object.velocity = velocity;
+			object.setVelocity(velocity);
 			object.altitude = altitude;
 			object.setTargetVelocity(targetVelocity);
 			object.setTargetAltitude(targetAltitude);
@@ -129,6 +154,182 @@ public class AirspaceObjectTest
 		}
 	}
 
+	@RunWith(JUnit4.class)
+	public static class AllocationFreeTests
+	{
+		/** Number of refreshes to do in the allocation test */
+		private static final int REFRESHES = 10000;
+
+		@Test
+		public void testSameAsVectorRefresh()
+		{
+			// Compare against the refresh algorithm written using Vector2D methods
+			Random random = new Random(1234);
+
+			for (int i = 0; i < 1000; i++)
+			{
+				Vector2D velocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+				Vector2D targetVelocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+				Vector2D position = new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000);
+				float delta = random.nextFloat() * 0.5f;
+
+				AirspaceObject object = new AirspaceObjectMock();
+				object.setPosition(position);
+				object.setVelocity(velocity);
+				object.setTargetVelocityNoClamping(targetVelocity);
+
+				for (int tick = 0; tick < 20; tick++)
+				{
+					object.refresh(delta);
+
+					velocity = vectorRefreshVelocity(object, velocity, targetVelocity, delta);
+					position = position.add(velocity.multiply(delta));
+
+					assertThat(object.getVelocity(), is(equalTo(velocity)));
+					assertThat(object.getPosition(), is(equalTo(position)));
+				}
+			}
+		}
+
+		@Test
+		public void testRefreshDoesNotAllocate()
+		{
+			ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+			Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) threadBean;
+			Assume.assumeTrue(sunBean.isThreadAllocatedMemorySupported());
+			sunBean.setThreadAllocatedMemoryEnabled(true);
+
+			AirspaceObject object = new AirspaceObjectMock();
+			object.setVelocity(new Vector2D(10, 10));
+
+			long threadId = Thread.currentThread().getId();
+
+			// Work out how much the measurement itself allocates
+			long calibrateStart = sunBean.getThreadAllocatedBytes(threadId);
+			long calibrateEnd = sunBean.getThreadAllocatedBytes(threadId);
+			long overhead = calibrateEnd - calibrateStart;
+
+			// Keep turning so the velocity is updated every refresh
+			long start = sunBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < REFRESHES; i++)
+			{
+				if (i % 100 == 0)
+					object.setTargetVelocityNoClamping(Vector2D.fromPolar(50, i));
+
+				object.refresh(0.01f);
+			}
+			long end = sunBean.getThreadAllocatedBytes(threadId);
+
+			// Only the target velocities should have been allocated (allow a little slack)
+			long targetBytes = (REFRESHES / 100) * 64;
+			assertThat(end - start - overhead, is(lessThanOrEqualTo(targetBytes + 1024)));
+		}
+
+		/** The old velocity calculation which uses Vector2D methods */
+		private static Vector2D vectorRefreshVelocity(AirspaceObject object, Vector2D velocity, Vector2D targetVelocity, float dt)
+		{
+			if (velocity.equals(targetVelocity))
+				return velocity;
+
+			float acceleration = object.getMaxAcceleration() * dt;
+			float turnRate = object.getMaxTurnRate() * dt;
+
+			float speed = AirspaceObject.floatMoveTowards(velocity.getLength(), targetVelocity.getLength(), acceleration);
+
+			float angle = velocity.getAngle();
+			float targetAngle = targetVelocity.getAngle();
+
+			if (Math.abs(angle - targetAngle) > Math.PI)
+				turnRate = -turnRate;
+
+			angle = AirspaceObject.floatMoveTowards(angle, targetAngle, turnRate);
+			return Vector2D.fromPolar(speed, angle);
+		}
+	}
+
+	@RunWith(JUnit4.class)
+	public static class MotionModelTests
+	{
+		/** Maximum difference allowed between the models' velocities */
+		private static final float VELOCITY_TOLERANCE = 0.001f;
+
+		/** Maximum difference allowed between the models' positions */
+		private static final float POSITION_TOLERANCE = 0.01f;
+
+		@Test
+		public void testPolarSameAsCartesian()
+		{
+			Random random = new Random(1234);
+
+			for (int i = 0; i < 1000; i++)
+			{
+				Vector2D velocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+				Vector2D targetVelocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+				Vector2D position = new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000);
+				float delta = random.nextFloat() * 0.5f;
+
+				AirspaceObject cartesian = new AirspaceObjectMock();
+				AirspaceObject polar = new AirspaceObjectMock();
+				polar.setMotionModel(MotionModel.POLAR);
+
+				for (AirspaceObject object : Arrays.asList(cartesian, polar))
+				{
+					object.setPosition(position);
+					object.setVelocity(velocity);
+					object.setTargetVelocityNoClamping(targetVelocity);
+				}
+
+				for (int tick = 0; tick < 20; tick++)
+				{
+					cartesian.refresh(delta);
+					polar.refresh(delta);
+
+					assertThat(polar.getVelocityX(), is(closeTo(cartesian.getVelocityX(), VELOCITY_TOLERANCE)));
+					assertThat(polar.getVelocityY(), is(closeTo(cartesian.getVelocityY(), VELOCITY_TOLERANCE)));
+					assertThat(polar.getPositionX(), is(closeTo(cartesian.getPositionX(), POSITION_TOLERANCE)));
+					assertThat(polar.getPositionY(), is(closeTo(cartesian.getPositionY(), POSITION_TOLERANCE)));
+				}
+			}
+		}
+
+		@Test
+		public void testPolarStopsAtTarget()
+		{
+			AirspaceObject object = new AirspaceObjectMock();
+			object.setVelocity(new Vector2D(10, 0));
+			object.setMotionModel(MotionModel.POLAR);
+			object.setTargetVelocityNoClamping(new Vector2D(0, 20));
+
+			for (int i = 0; i < 100; i++)
+				object.refresh(0.1f);
+
+			// The velocity is not recalculated once the target is reached
+			Vector2D velocity = object.getVelocity();
+			object.refresh(0.1f);
+
+			assertThat(object.getVelocity(), is(sameInstance(velocity)));
+			assertThat(velocity.getLength(), is(closeTo(20, VELOCITY_TOLERANCE)));
+			assertThat(velocity.getX(), is(closeTo(0, VELOCITY_TOLERANCE)));
+		}
+
+		@Test
+		public void testPolarTurnsAcrossDiscontinuity()
+		{
+			// Turning from just below PI to just above -PI should take the short way around
+			AirspaceObject object = new AirspaceObjectMock();
+			object.setMotionModel(MotionModel.POLAR);
+			object.setVelocity(Vector2D.fromPolar(10, 3f));
+			object.setTargetVelocityNoClamping(Vector2D.fromPolar(10, -3f));
+
+			for (int i = 0; i < 10; i++)
+				object.refresh(0.1f);
+
+			assertThat(object.getVelocity().getAngle(), is(closeTo(-3, VELOCITY_TOLERANCE)));
+		}
+	}
+
 	/** Fake {@link AirspaceObject} class used for testing */
 	private static class AirspaceObjectMock extends AirspaceObject
 	{
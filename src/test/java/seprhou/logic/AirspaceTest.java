@@ -40,6 +40,60 @@ public class AirspaceTest
 		assertThat(airspace.getActiveObjects(), hasSize(1));
 	}
 
+	@Test
+	public void testCullManyObjects()
+	{
+		Airspace airspace = generateAirspace(0);
+		List<AirspaceObject> expectedActive = new ArrayList<>();
+		List<AirspaceObject> expectedCulled = new ArrayList<>();
+
+		// Every third object is outside, every third object has finished (half of them landing)
+		for (int i = 0; i < 300; i++)
+		{
+			AirspaceObjectMock object = new AirspaceObjectMock();
+			object.setPosition(new Vector2D(i % 3 == 0 ? 5000 : 500, 500));
+			object.finished = (i % 3 == 1);
+			object.flightPlan = makeFakeFlightPlan(i % 2 == 0);
+			object.score = i;
+
+			airspace.getActiveObjects().add(object);
+			if (i % 3 == 2)
+				expectedActive.add(object);
+			else
+				expectedCulled.add(0, object);
+		}
+
+		airspace.syncStateStore();
+		airspace.cullObjects();
+
+		// Remaining objects keep their order, culled objects are in reverse order
+		assertThat(new ArrayList<>(airspace.getActiveObjects()), is(expectedActive));
+		assertThat(new ArrayList<>(airspace.getCulledObjects()), is(expectedCulled));
+
+		// The state store is compacted in the same way
+		ObjectStateStore store = airspace.getStateStore();
+		assertThat(store.getCount(), is(expectedActive.size()));
+		for (int i = 0; i < expectedActive.size(); i++)
+		{
+			assertThat(store.getObject(i), is(sameInstance(expectedActive.get(i))));
+			assertThat(store.getSlot(expectedActive.get(i)), is(i));
+		}
+
+		// Finished objects: 1, 4, 7, ... 298 (landing if even)
+		int expectedScore = 0;
+		int expectedLanded = 0;
+		for (int i = 1; i < 300; i += 3)
+		{
+			expectedScore += i;
+			if (i % 2 == 0)
+				expectedLanded++;
+		}
+
+		assertThat(airspace.getScore(), is(expectedScore));
+		assertThat(airspace.getLandedObjects(), is(expectedLanded));
+		assertThat(airspace.getLandingPlanes(), is(-expectedLanded));
+	}
+
 	@Test
 	public void testActiveObjectsOrder()
 	{
@@ -92,6 +146,29 @@ public class AirspaceTest
 		}
 	}
 
+	@Test
+	public void testCollisionWarningsReused()
+	{
+		Airspace airspace = generateAirspace(100, 400, 800, 0, 400);
+		airspace.refresh(1);
+
+		Collection<CollisionWarning> warnings = airspace.getCollisionWarnings();
+		List<CollisionWarning> firstWarnings = new ArrayList<>(warnings);
+
+		// Distances are stored in the warnings
+		for (CollisionWarning warning : warnings)
+		{
+			assertThat(warning.getLateralDistance(), is(0f));
+			assertThat(warning.getVerticalDistance(), is(Math.abs(
+					warning.getObject1().getAltitude() - warning.getObject2().getAltitude())));
+		}
+
+		// The same view and warning objects are used in the next refresh
+		airspace.refresh(1);
+		assertThat(airspace.getCollisionWarnings(), is(sameInstance(warnings)));
+		assertThat(new ArrayList<>(warnings), is(firstWarnings));
+	}
+
 	@Test
 	public void testGameOver()
 	{
@@ -140,6 +217,25 @@ public class AirspaceTest
 		assertThat(found.getAltitude(), is(3f));
 	}
 
+	@Test
+	public void testFindAircraftAfterListChanges()
+	{
+		Airspace airspace = generateAirspace(1);
+		airspace.refresh(1);
+
+		// Replace the object without refreshing (like the network client does)
+		AirspaceObject oldObject = airspace.findAircraft(Vector2D.ZERO);
+		assertThat(oldObject, is(notNullValue()));
+
+		AirspaceObjectMock newObject = new AirspaceObjectMock();
+		newObject.setPosition(new Vector2D(500, 500));
+		airspace.getActiveObjects().add(newObject);
+		airspace.getActiveObjects().remove(oldObject);
+
+		assertThat(airspace.findAircraft(Vector2D.ZERO), is(nullValue()));
+		assertThat(airspace.findAircraft(new Vector2D(500, 500)), is(sameInstance((AirspaceObject) newObject)));
+	}
+
 	@Test
 	public void testCycleAircraft() {
 		Airspace airspace = AirspaceTest.generateAirspace(2);
@@ -183,6 +279,88 @@ public class AirspaceTest
 		assertThat(airspace.getLandingPlanes(), is(0));
 	}
 
+	@Test
+	public void testParallelRefresh()
+	{
+		List<Integer> sequentialCommits = new ArrayList<>();
+		List<Integer> parallelCommits = new ArrayList<>();
+
+		Airspace sequential = generateRandomAirspace(2000, sequentialCommits);
+		Airspace parallel = generateRandomAirspace(2000, parallelCommits);
+		parallel.setParallelThreshold(1);
+
+		// Both airspaces must stay exactly the same
+		for (int i = 0; i < 10; i++)
+		{
+			sequential.refresh(0.5f);
+			parallel.refresh(0.5f);
+
+			assertThat(objectsToPositions(parallel.getActiveObjects()),
+					is(equalTo(objectsToPositions(sequential.getActiveObjects()))));
+			assertThat(parallel.getCollisionWarnings().size(), is(sequential.getCollisionWarnings().size()));
+		}
+
+		// Commits must happen in the same order
+		assertThat(sequentialCommits, hasSize(greaterThan(0)));
+		assertThat(parallelCommits, is(equalTo(sequentialCommits)));
+	}
+
+	@Test
+	public void testSortByAltitude()
+	{
+		Random random = new Random(42);
+
+		for (int test = 0; test < 100; test++)
+		{
+			// Make a nearly sorted list for the first half of the tests and a random list for the rest
+			//  Only a few different altitudes are used so the sort must be stable
+			List<AirspaceObject> objects = new ArrayList<>();
+			for (int i = 0; i < 200; i++)
+			{
+				AirspaceObject object = new AirspaceObjectMock();
+
+				if (test < 50)
+					object.altitude = i / 10 + random.nextInt(3);
+				else
+					object.altitude = random.nextInt(20);
+
+				objects.add(object);
+			}
+
+			List<AirspaceObject> expected = new ArrayList<>(objects);
+			Collections.sort(expected, new Comparator<AirspaceObject>()
+			{
+				@Override
+				public int compare(AirspaceObject o1, AirspaceObject o2)
+				{
+					return Float.compare(o1.getAltitude(), o2.getAltitude());
+				}
+			});
+
+			Airspace.sortByAltitude(objects);
+			assertThat(objects, is(equalTo(expected)));
+		}
+	}
+
+	@Test
+	public void testSeededReplay()
+	{
+		List<String> created1 = new ArrayList<>();
+		List<String> created2 = new ArrayList<>();
+		Airspace airspace1 = new Airspace(DIMENSIONS, new RecordingFactory(created1), 1234);
+		Airspace airspace2 = new Airspace(DIMENSIONS, new RecordingFactory(created2), 1234);
+
+		// The same aircraft must be created at the same times
+		for (int i = 0; i < 600; i++)
+		{
+			airspace1.refresh(0.1f);
+			airspace2.refresh(0.1f);
+			assertThat(created2, is(equalTo(created1)));
+		}
+
+		assertThat(created1, hasSize(greaterThan(0)));
+	}
+
 	/** Converts a list of objects to a list of positions */
 	private static List<Vector2D> objectsToPositions(Iterable<AirspaceObject> objects)
 	{
@@ -238,7 +416,7 @@ public class AirspaceTest
 		int i = 0;
 		for (AirspaceObject object : airspace.getActiveObjects())
 		{
-			object.position = objects[i];
+			object.setPosition(objects[i]);
 			i++;
 		}
 
@@ -262,11 +440,31 @@ public class AirspaceTest
 		return airspace;
 	}
 
+	/** Generates an airspace with objects moving in random directions which record when they are committed */
+	private static Airspace generateRandomAirspace(int objectCount, List<Integer> commits)
+	{
+		Airspace airspace = generateAirspace(0);
+		Random random = new Random(42);
+
+		for (int i = 0; i < objectCount; i++)
+		{
+			AirspaceObject object = new CommitRecordingMock(i, commits);
+			object.setPosition(new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000));
+			object.setVelocity(new Vector2D(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50));
+			object.setTargetVelocity(new Vector2D(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50));
+			object.setTargetAltitude(random.nextFloat() * 5000);
+			airspace.getActiveObjects().add(object);
+		}
+
+		return airspace;
+	}
+
 	/** Fake {@link AirspaceObject} class used for testing */
 	private static class AirspaceObjectMock extends AirspaceObject
 	{
 		public boolean finished;
 		public FlightPlan flightPlan;
+		public int score;
 
 		@Override public void draw(Object state) { }
 		@Override public float getSize() { return 64; }
@@ -280,6 +478,26 @@ public class AirspaceTest
 
 		@Override public boolean isFinished() { return finished; }
 		@Override public FlightPlan getFlightPlan() { return flightPlan; }
+		@Override public int getScore() { return score; }
+	}
+
+	/** Fake {@link AirspaceObject} which records the order of calls to commitRefresh */
+	private static class CommitRecordingMock extends AirspaceObjectMock
+	{
+		private final int id;
+		private final List<Integer> commits;
+
+		public CommitRecordingMock(int id, List<Integer> commits)
+		{
+			this.id = id;
+			this.commits = commits;
+		}
+
+		@Override
+		public void commitRefresh()
+		{
+			commits.add(id);
+		}
 	}
 
 	/**
@@ -302,6 +520,24 @@ public class AirspaceTest
 		}
 	}
 
+	/** Factory which records the flight number and waypoints of each object created */
+	private static class RecordingFactory implements AirspaceObjectFactory
+	{
+		private final List<String> created;
+
+		public RecordingFactory(List<String> created)
+		{
+			this.created = created;
+		}
+
+		@Override
+		public AirspaceObject makeObject(Airspace airspace, FlightPlan flightPlan, String flightNumber, AircraftColour colour)
+		{
+			created.add(flightNumber + " " + flightPlan.getWaypoints());
+			return null;
+		}
+	}
+
 	/** Implementation of {@link AirspaceObjectFactory} used for testing */
 	private static class AirspaceObjectFactoryImpl implements AirspaceObjectFactory
 	{
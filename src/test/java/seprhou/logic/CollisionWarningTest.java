@@ -84,7 +84,7 @@ public class CollisionWarningTest
 
 		public AirspaceObjectMock(Vector2D position, float altitude, float size)
 		{
-			this.position = position;
+			this.setPosition(position);
 			this.altitude = altitude;
 			this.size = size;
 		}
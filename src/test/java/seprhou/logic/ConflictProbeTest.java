@@ -0,0 +1,264 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static seprhou.logic.IsCloseToFloat.closeTo;
+
+/**
+ * Tests for {@link ConflictProbe}
+ */
+@RunWith(JUnit4.class)
+public class ConflictProbeTest
+{
+	private static final Rectangle DIMENSIONS = new Rectangle(1000, 1000);
+	private static final float SEPARATION = 100;
+
+	@Test
+	public void testHeadOn()
+	{
+		// Objects 400 apart closing at 20 per second meet after 20 seconds
+		Airspace airspace = generateAirspace(
+				new AirspaceObjectMock(new Vector2D(100, 500), new Vector2D(10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(500, 500), new Vector2D(-10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true));
+
+		List<PredictedConflict> conflicts = probe(airspace);
+
+		assertThat(conflicts, hasSize(1));
+		assertThat(conflicts.get(0).getTime(), is(closeTo(20)));
+		assertThat(conflicts.get(0).getLateralDistance(), is(closeTo(0)));
+	}
+
+	@Test
+	public void testNoConflicts()
+	{
+		Airspace airspace = generateAirspace(
+				// Moving apart
+				new AirspaceObjectMock(new Vector2D(100, 100), new Vector2D(-10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(300, 100), new Vector2D(10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+
+				// Vertically separated
+				new AirspaceObjectMock(new Vector2D(100, 500), new Vector2D(10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(500, 500), new Vector2D(-10, 0), 200, AirspaceObjectMock.HUGE_SIZE, true),
+
+				// Meet after the horizon (40 seconds)
+				new AirspaceObjectMock(new Vector2D(100, 900), new Vector2D(5, 0), 1000, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(500, 900), new Vector2D(-5, 0), 1000, AirspaceObjectMock.HUGE_SIZE, true));
+
+		assertThat(probe(airspace), is(empty()));
+	}
+
+	@Test
+	public void testSameAsBruteForce()
+	{
+		Random random = new Random(1234);
+
+		for (int test = 0; test < 20; test++)
+		{
+			List<AirspaceObjectMock> objects = new ArrayList<>();
+			for (int i = 0; i < 100; i++)
+			{
+				objects.add(new AirspaceObjectMock(
+						new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000),
+						new Vector2D(random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5),
+						random.nextInt(5) * 50,
+						AirspaceObjectMock.HUGE_SIZE,
+						true));
+			}
+
+			Airspace airspace = generateAirspace(objects.toArray(new AirspaceObjectMock[objects.size()]));
+			Set<List<AirspaceObject>> actual = new HashSet<>();
+			for (PredictedConflict conflict : probe(airspace))
+				actual.add(Arrays.asList(conflict.getObject1(), conflict.getObject2()));
+
+			// Test every pair using the closest point of approach (sampled every 0.1 seconds)
+			Set<List<AirspaceObject>> expected = new HashSet<>();
+			for (int a = 0; a < objects.size(); a++)
+			{
+				for (int b = a + 1; b < objects.size(); b++)
+				{
+					if (sampledConflict(objects.get(a), objects.get(b)))
+						expected.add(Arrays.<AirspaceObject>asList(objects.get(a), objects.get(b)));
+				}
+			}
+
+			// Sampling may miss conflicts which only just happen, so only check one way
+			assertThat(actual, hasSize(greaterThanOrEqualTo(expected.size())));
+			assertThat(actual.containsAll(expected), is(true));
+		}
+	}
+
+	@Test
+	public void testSchedule()
+	{
+		Airspace airspace = generateAirspace(
+				new AirspaceObjectMock(new Vector2D(100, 500), new Vector2D(10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(500, 500), new Vector2D(-10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true));
+
+		ConflictProbe probe = new ConflictProbe();
+		probe.setInterval(1);
+		airspace.setConflictProbe(probe);
+
+		// The probe always runs the first time
+		airspace.refresh(0.25f);
+		assertThat(airspace.getPredictedConflicts(), hasSize(1));
+		float firstTime = airspace.getPredictedConflicts().iterator().next().getTime();
+
+		// Then waits for the interval
+		airspace.refresh(0.5f);
+		assertThat(airspace.getPredictedConflicts().iterator().next().getTime(), is(firstTime));
+
+		airspace.refresh(0.5f);
+		assertThat(airspace.getPredictedConflicts().iterator().next().getTime(), is(lessThan(firstTime)));
+
+		// Disabled probe
+		airspace.setConflictProbe(null);
+		assertThat(airspace.getPredictedConflicts(), is(empty()));
+	}
+
+	@Test
+	public void testStaggeredSweep()
+	{
+		Random random = new Random(4321);
+		List<AirspaceObjectMock> objects = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+		{
+			objects.add(new AirspaceObjectMock(
+					new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000),
+					new Vector2D(random.nextFloat() * 10 - 5, random.nextFloat() * 10 - 5),
+					random.nextInt(5) * 50,
+					AirspaceObjectMock.HUGE_SIZE,
+					true));
+		}
+
+		// The objects barely move during the sweep
+		Airspace airspace = generateAirspace(objects.toArray(new AirspaceObjectMock[objects.size()]));
+		ConflictProbe probe = new ConflictProbe();
+		probe.setInterval(0.125f);
+		airspace.setConflictProbe(probe);
+		airspace.refresh(0);
+		Collection<PredictedConflict> firstSweep = new ArrayList<>(probe.getConflicts());
+
+		// A sweep over 8 refreshes finds the same conflicts as probing everything at once
+		for (int i = 0; i < 7; i++)
+		{
+			airspace.refresh(0.125f / 8);
+			assertThat(probe.getConflicts(), contains(firstSweep.toArray()));
+		}
+
+		airspace.refresh(0.125f / 8);
+		Set<Set<AirspaceObject>> staggered = conflictPairs(probe.getConflicts());
+		assertThat(probe.getConflicts(), hasSize(staggered.size()));
+		assertThat(staggered, is(not(empty())));
+
+		probe.probe(airspace);
+		assertThat(staggered, is(conflictPairs(probe.getConflicts())));
+	}
+
+	@Test
+	public void testSweepAfterCull()
+	{
+		// Slots are sorted by altitude: objects about to leave, then the conflicting pair, then others
+		List<AirspaceObjectMock> objects = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			objects.add(new AirspaceObjectMock(new Vector2D(980, 100 + i * 100), new Vector2D(100, 0), 0, 10, true));
+
+		AirspaceObjectMock pair1 = new AirspaceObjectMock(new Vector2D(300, 500), Vector2D.ZERO, 1000, AirspaceObjectMock.HUGE_SIZE, true);
+		AirspaceObjectMock pair2 = new AirspaceObjectMock(new Vector2D(350, 500), Vector2D.ZERO, 1000, AirspaceObjectMock.HUGE_SIZE, true);
+		objects.add(pair1);
+		objects.add(pair2);
+
+		for (int i = 0; i < 13; i++)
+			objects.add(new AirspaceObjectMock(new Vector2D(i * 75, 900), Vector2D.ZERO, 3000, AirspaceObjectMock.HUGE_SIZE, true));
+
+		Airspace airspace = generateAirspace(objects.toArray(new AirspaceObjectMock[objects.size()]));
+		ConflictProbe probe = new ConflictProbe();
+		probe.setInterval(1);
+		airspace.setConflictProbe(probe);
+		airspace.refresh(0);
+
+		// The first quarter probes the leaving objects, which are culled next refresh. This moves
+		//  the pair into slots behind the sweep's progress, but they must still be probed.
+		for (int i = 0; i < 4; i++)
+			airspace.refresh(0.25f);
+
+		assertThat(airspace.getActiveObjects(), hasSize(15));
+		assertThat(conflictPairs(probe.getConflicts()),
+				hasItem((Set<AirspaceObject>) new HashSet<AirspaceObject>(Arrays.asList(pair1, pair2))));
+	}
+
+	@Test
+	public void testConflictsReused()
+	{
+		Airspace airspace = generateAirspace(
+				new AirspaceObjectMock(new Vector2D(100, 500), new Vector2D(10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true),
+				new AirspaceObjectMock(new Vector2D(500, 500), new Vector2D(-10, 0), 0, AirspaceObjectMock.HUGE_SIZE, true));
+
+		ConflictProbe probe = new ConflictProbe();
+		airspace.setConflictProbe(probe);
+		airspace.refresh(0);
+
+		Collection<PredictedConflict> conflicts = probe.getConflicts();
+		PredictedConflict first = conflicts.iterator().next();
+
+		// The list is reused, and each conflict is reused two sweeps later
+		probe.probe(airspace);
+		PredictedConflict second = conflicts.iterator().next();
+		assertThat(probe.getConflicts(), is(sameInstance(conflicts)));
+		assertThat(second, is(not(sameInstance(first))));
+
+		probe.probe(airspace);
+		assertThat(conflicts.iterator().next(), is(sameInstance(first)));
+	}
+
+	/** Returns the pairs of objects in some conflicts (the objects in each pair can be in any order) */
+	private static Set<Set<AirspaceObject>> conflictPairs(Collection<PredictedConflict> conflicts)
+	{
+		Set<Set<AirspaceObject>> pairs = new HashSet<>();
+		for (PredictedConflict conflict : conflicts)
+			pairs.add(new HashSet<>(Arrays.asList(conflict.getObject1(), conflict.getObject2())));
+
+		return pairs;
+	}
+
+	/** Runs the conflict probe in an airspace now */
+	private static List<PredictedConflict> probe(Airspace airspace)
+	{
+		airspace.refresh(0);
+		return new ArrayList<>(airspace.getPredictedConflicts());
+	}
+
+	/** Tests if two objects conflict by moving them forward in small steps */
+	private static boolean sampledConflict(AirspaceObject a, AirspaceObject b)
+	{
+		if (Math.abs(a.getAltitude() - b.getAltitude()) >= SEPARATION)
+			return false;
+
+		for (float t = 0; t <= LogicConstants.CONFLICT_PROBE_HORIZON; t += 0.1f)
+		{
+			Vector2D positionA = a.getPosition().add(a.getVelocity().multiply(t));
+			Vector2D positionB = b.getPosition().add(b.getVelocity().multiply(t));
+
+			if (positionA.distanceTo(positionB) < SEPARATION)
+				return true;
+		}
+
+		return false;
+	}
+
+	/** Generates an airspace containing the given objects */
+	private static Airspace generateAirspace(AirspaceObjectMock... objects)
+	{
+		Airspace airspace = new Airspace(DIMENSIONS, null);
+		airspace.setLateralSeparation(SEPARATION);
+		airspace.setVerticalSeparation(SEPARATION);
+		airspace.setFlightPlanGenerator(null);
+		airspace.getActiveObjects().addAll(Arrays.asList(objects));
+		return airspace;
+	}
+}
@@ -0,0 +1,85 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static seprhou.logic.IsCloseToFloat.closeTo;
+
+/**
+ * Tests for {@link FixedTimestep}
+ */
+@RunWith(JUnit4.class)
+public class FixedTimestepTest
+{
+	@Test
+	public void testSteps()
+	{
+		FixedTimestep timestep = new FixedTimestep(0.25f, 10);
+
+		assertThat(timestep.advance(0.1f), is(0));
+		assertThat(timestep.getAlpha(), is(closeTo(0.4f)));
+
+		assertThat(timestep.advance(0.2f), is(1));
+		assertThat(timestep.getAlpha(), is(closeTo(0.2f)));
+
+		assertThat(timestep.advance(0.5f), is(2));
+		assertThat(timestep.getAlpha(), is(closeTo(0.2f)));
+	}
+
+	@Test
+	public void testFrameRateIndependent()
+	{
+		// The total number of steps is the same whatever the frame rate
+		float[] frameTimes = { 1 / 30f, 1 / 60f, 1 / 144f, 0.05f };
+
+		for (float frameTime : frameTimes)
+		{
+			FixedTimestep timestep = new FixedTimestep(0.125f, 100);
+			int frames = Math.round(10 / frameTime);
+			int steps = 0;
+
+			for (int i = 0; i < frames; i++)
+				steps += timestep.advance(frameTime);
+
+			assertThat((float) steps, is(closeTo(80, 1)));
+		}
+	}
+
+	@Test
+	public void testMaxSteps()
+	{
+		FixedTimestep timestep = new FixedTimestep(0.25f, 3);
+
+		// A very slow frame is limited to the maximum number of steps
+		assertThat(timestep.advance(10.1f), is(3));
+		assertThat(timestep.getAlpha(), is(both(greaterThanOrEqualTo(0f)).and(lessThan(1f))));
+
+		// And the time is not caught up on later
+		assertThat(timestep.advance(0), is(0));
+	}
+
+	@Test
+	public void testReset()
+	{
+		FixedTimestep timestep = new FixedTimestep(1, 1);
+
+		timestep.advance(0.5f);
+		timestep.reset();
+		assertThat(timestep.getAlpha(), is(0f));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidStep()
+	{
+		new FixedTimestep(0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxSteps()
+	{
+		new FixedTimestep(1, 0);
+	}
+}
@@ -0,0 +1,114 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link GridBroadPhase}
+ *
+ * <p>
+ * The grid broad phase must generate exactly the same collision warnings
+ * as the brute force broad phase.
+ */
+@RunWith(JUnit4.class)
+public class GridBroadPhaseTest
+{
+	private static final Rectangle DIMENSIONS = new Rectangle(1000, 1000);
+	private static final float SEPARATION = 100;
+
+	@Test
+	public void testRandomObjects()
+	{
+		Random random = new Random(1234);
+
+		for (int i = 0; i < 20; i++)
+		{
+			List<AirspaceObjectMock> objects = new ArrayList<>();
+
+			for (int j = 0; j < 200; j++)
+			{
+				objects.add(new AirspaceObjectMock(
+						new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000),
+						Vector2D.ZERO,
+						random.nextInt(5) * 50,
+						AirspaceObjectMock.HUGE_SIZE,
+						random.nextInt(10) != 0));
+			}
+
+			assertSameWarnings(objects);
+		}
+	}
+
+	@Test
+	public void testCellBoundaries()
+	{
+		// Objects exactly on and around the edges of the separation distance
+		List<AirspaceObjectMock> objects = new ArrayList<>();
+
+		for (int x = 0; x <= 1000; x += 50)
+		{
+			objects.add(new AirspaceObjectMock(new Vector2D(x, 0), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+			objects.add(new AirspaceObjectMock(new Vector2D(x - 0.001f, 99.999f), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+			objects.add(new AirspaceObjectMock(new Vector2D(x + 0.001f, 200), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		}
+
+		assertSameWarnings(objects);
+	}
+
+	@Test
+	public void testOutsideDimensions()
+	{
+		List<AirspaceObjectMock> objects = new ArrayList<>();
+		objects.add(new AirspaceObjectMock(new Vector2D(-150, -150), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(-100, -100), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(-30, 10), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(5000, 5000), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(5050, 5000), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(950, 5000), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+
+		assertSameWarnings(objects);
+	}
+
+	/** Asserts that the brute force and grid broad phases generate the same warnings */
+	private static void assertSameWarnings(List<AirspaceObjectMock> objects)
+	{
+		List<AirspaceObject[]> expected = findWarnings(objects, new BruteForceBroadPhase());
+		List<AirspaceObject[]> actual = findWarnings(objects, new GridBroadPhase());
+
+		assertThat(actual, hasSize(expected.size()));
+		for (int i = 0; i < expected.size(); i++)
+		{
+			assertThat(actual.get(i)[0], is(sameInstance(expected.get(i)[0])));
+			assertThat(actual.get(i)[1], is(sameInstance(expected.get(i)[1])));
+		}
+	}
+
+	/** Generates the collision warnings for some objects using the given broad phase */
+	private static List<AirspaceObject[]> findWarnings(List<AirspaceObjectMock> objects, BroadPhase broadPhase)
+	{
+		Airspace airspace = new Airspace(DIMENSIONS, null);
+		airspace.setLateralSeparation(SEPARATION);
+		airspace.setVerticalSeparation(SEPARATION);
+		airspace.setFlightPlanGenerator(null);
+		airspace.setBroadPhase(broadPhase);
+		airspace.getActiveObjects().addAll(objects);
+		airspace.refresh(0);
+
+		Collection<CollisionWarning> warnings = airspace.getCollisionWarnings();
+		List<AirspaceObject[]> result = new ArrayList<>();
+
+		for (CollisionWarning warning : warnings)
+			result.add(new AirspaceObject[] { warning.getObject1(), warning.getObject2() });
+
+		return result;
+	}
+}
@@ -0,0 +1,83 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ObjectStateStore}
+ */
+@RunWith(JUnit4.class)
+public class ObjectStateStoreTest
+{
+	@Test
+	public void testSync()
+	{
+		AirspaceObjectMock object1 = new AirspaceObjectMock(new Vector2D(1, 2), new Vector2D(3, 4), 5, 64, true);
+		AirspaceObjectMock object2 = new AirspaceObjectMock(new Vector2D(6, 7), new Vector2D(8, 9), 10, 64, false);
+
+		ObjectStateStore store = new ObjectStateStore();
+		store.sync(Arrays.<AirspaceObject>asList(object1, object2));
+
+		assertThat(store.getCount(), is(2));
+		assertThat(store.getObject(0), is(sameInstance((AirspaceObject) object1)));
+		assertThat(store.getObject(1), is(sameInstance((AirspaceObject) object2)));
+
+		assertThat(store.getX()[1], is(6f));
+		assertThat(store.getY()[1], is(7f));
+		assertThat(store.getVelocityX()[0], is(3f));
+		assertThat(store.getVelocityY()[0], is(4f));
+		assertThat(store.getTargetVelocityX()[0], is(3f));
+		assertThat(store.getTargetVelocityY()[0], is(4f));
+		assertThat(store.getAltitude()[1], is(10f));
+		assertThat(store.getTargetAltitude()[1], is(10f));
+		assertThat(store.getSize()[0], is(64f));
+		assertThat(store.getSolid()[0], is(true));
+		assertThat(store.getSolid()[1], is(false));
+	}
+
+	@Test
+	public void testResync()
+	{
+		List<AirspaceObject> objects = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			objects.add(new AirspaceObjectMock(new Vector2D(i, i), Vector2D.ZERO, i, 64, true));
+
+		ObjectStateStore store = new ObjectStateStore();
+		store.sync(objects);
+		assertThat(store.getCount(), is(100));
+
+		// Shrinking the list releases the old objects
+		objects.subList(10, 100).clear();
+		store.sync(objects);
+		assertThat(store.getCount(), is(10));
+		assertThat(store.getX()[9], is(9f));
+		assertThat(store.getObject(10), is(nullValue()));
+	}
+
+	@Test
+	public void testSecondaryStore()
+	{
+		List<AirspaceObject> objects = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			objects.add(new AirspaceObjectMock(new Vector2D(i, i), Vector2D.ZERO, i, 64, true));
+
+		ObjectStateStore store = new ObjectStateStore();
+		store.sync(objects);
+
+		// A store which does not own the slots can still find objects but does not change their slots
+		ObjectStateStore secondary = new ObjectStateStore(false);
+		secondary.sync(objects.subList(5, 10));
+
+		assertThat(secondary.getSlot(objects.get(7)), is(2));
+		assertThat(secondary.getSlot(objects.get(2)), is(-1));
+		assertThat(store.getSlot(objects.get(7)), is(7));
+	}
+}
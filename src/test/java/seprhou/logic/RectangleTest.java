@@ -210,5 +210,12 @@ public class RectangleTest
 			assertThat("Other Circle: (" + center.getX() + ", " + center.getY() + ") r = " + radius,
 					TEST_RECTANGLE.intersects(center, radius), is(pass));
 		}
+
+		@Test
+		public void intersectsFloatsTest()
+		{
+			assertThat("Other Circle: (" + center.getX() + ", " + center.getY() + ") r = " + radius,
+					TEST_RECTANGLE.intersects(center.getX(), center.getY(), radius), is(pass));
+		}
 	}
 }
@@ -0,0 +1,244 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static seprhou.logic.LogicConstants.*;
+
+/**
+ * Tests for {@link RoutingTable}
+ */
+@RunWith(JUnit4.class)
+public class RoutingTableTest
+{
+	private static final Vector2D A = new Vector2D(0, 0);
+	private static final Vector2D B = new Vector2D(100, 0);
+	private static final Vector2D C = new Vector2D(200, 0);
+	private static final Vector2D EXIT = new Vector2D(300, 0);
+
+	@Test
+	public void testNextWaypoints()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(C, A, B), Arrays.asList(EXIT));
+
+		// Waypoints closer to the exit are kept in the original order
+		assertThat(toList(table.getNextWaypoints(0, 1)), contains(0, 2));
+		assertThat(toList(table.getNextWaypoints(0, 2)), contains(0));
+		assertThat(toList(table.getNextWaypoints(0, 0)), is(empty()));
+	}
+
+	@Test
+	public void testFirstWaypoints()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(A, B, C), Arrays.asList(EXIT));
+
+		assertThat(toList(table.getFirstWaypoints(0)), contains(0, 1, 2));
+	}
+
+	@Test
+	public void testDuplicateWaypoints()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(A, B, new Vector2D(0, 0)), Arrays.asList(new Vector2D(0, 0), EXIT));
+
+		assertThat(table.getCanonicalWaypoint(2), is(0));
+		assertThat(table.getPointWaypoint(0), is(0));
+		assertThat(table.getPointWaypoint(1), is(-1));
+	}
+
+	@Test
+	public void testFindPoint()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(A), Arrays.asList(B, EXIT));
+
+		assertThat(table.findPoint(EXIT), is(1));
+		assertThat(table.findPoint(new Vector2D(100, 0)), is(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindMissingPoint()
+	{
+		new RoutingTable(Arrays.asList(A), Arrays.asList(B)).findPoint(C);
+	}
+
+	@Test
+	public void testMapPoints()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(A, B), Arrays.asList(C, EXIT));
+
+		assertThat(table.getMapPointCount(), is(4));
+		assertThat(table.getMapPoint(1), is(B));
+		assertThat(table.getMapPoint(3), is(EXIT));
+		assertThat(table.findMapPoint(new Vector2D(200, 0)), is(2));
+		assertThat(table.findMapPoint(new Vector2D(1, 2)), is(-1));
+	}
+
+	@Test
+	public void testInternRoutes()
+	{
+		RoutingTable table = new RoutingTable(Arrays.asList(A, B), Arrays.asList(C, EXIT));
+		Route route = table.intern(new int[] { 2, 0, 1, 3 });
+
+		assertThat(route, contains(C, A, B, EXIT));
+		assertThat(table.intern(new int[] { 2, 0, 1, 3 }), is(sameInstance(route)));
+		assertThat(table.intern(Arrays.asList(C, A, B, EXIT)), is(sameInstance(route)));
+		assertThat(table.intern(new int[] { 2, 0, 1, 3, 1 }, 4), is(sameInstance(route)));
+		assertThat(table.intern(Arrays.asList(C, new Vector2D(1, 2))), is(nullValue()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInternInvalidIndex()
+	{
+		new RoutingTable(Arrays.asList(A), Arrays.asList(B)).intern(new int[] { 0, 2 });
+	}
+
+	@Test
+	public void testFlightPlanRoutes()
+	{
+		// Plans on the map use interned routes
+		List<Vector2D> waypoints = Arrays.asList(ENTRY_EXIT_POINTS.get(0), WAYPOINTS.get(0), ENTRY_EXIT_POINTS.get(1));
+		FlightPlan plan1 = new FlightPlan(waypoints, 0, 0, false, false);
+		FlightPlan plan2 = new FlightPlan(new ArrayList<>(waypoints), 0, 0, false, false);
+
+		assertThat(plan1.getRoute(), is(notNullValue()));
+		assertThat(plan1.getWaypoints(), is(sameInstance(plan2.getWaypoints())));
+		assertThat(plan1.getWaypoints(), is(waypoints));
+
+		// Other plans do not
+		FlightPlan offMap = new FlightPlan(Arrays.asList(new Vector2D(1, 2), A), 0, 0, false, false);
+		assertThat(offMap.getRoute(), is(nullValue()));
+		assertThat(offMap.getWaypoints(), contains(new Vector2D(1, 2), A));
+	}
+
+	@Test
+	public void testSameFlightPlansAsScanning()
+	{
+		// The generator must choose exactly the same plans as scanning every waypoint would
+		for (int seed = 0; seed < 500; seed++)
+		{
+			for (int mode = 0; mode < 3; mode++)
+			{
+				boolean canLand = (mode != 1);
+				boolean isOnRunway = (mode == 2);
+
+				FlightPlanGenerator generator = new FlightPlanGenerator(new Random(seed));
+				FlightPlan actual = generator.makeFlightPlanNow(new DummyAirspace(), canLand, isOnRunway);
+				FlightPlan expected = scanningFlightPlan(new Random(seed), canLand, isOnRunway);
+
+				assertThat(actual.getWaypoints(), is(expected.getWaypoints()));
+				assertThat(actual.getInitialSpeed(), is(expected.getInitialSpeed()));
+				assertThat(actual.getInitialAltitude(), is(expected.getInitialAltitude()));
+				assertThat(actual.isLanding(), is(expected.isLanding()));
+			}
+		}
+	}
+
+	/** Converts an array of ints to a list */
+	private static List<Integer> toList(int[] array)
+	{
+		List<Integer> list = new ArrayList<>();
+		for (int value : array)
+			list.add(value);
+
+		return list;
+	}
+
+	/** Generates a flight plan by scanning all the waypoints for each hop (with no other aircraft) */
+	private static FlightPlan scanningFlightPlan(Random random, boolean canLand, boolean isOnRunway)
+	{
+		List<Vector2D> myWaypoints = new ArrayList<>();
+
+		if (isOnRunway)
+		{
+			myWaypoints.add(RUNWAYS.get(0).getStart());
+			myWaypoints.add(RUNWAYS.get(0).getEnd());
+		}
+		else
+		{
+			myWaypoints.add(Utils.randomItem(random, ENTRY_EXIT_POINTS));
+		}
+
+		Vector2D entryPoint = myWaypoints.get(0);
+		Vector2D target;
+		Vector2D landingPoint = null;
+		Vector2D exitPoint;
+		boolean landing;
+
+		if (random.nextInt(LANDING_CHANCE) == 1 && canLand && !isOnRunway)
+		{
+			Runway landingStrip = Utils.randomItem(random, RUNWAYS);
+			landingPoint = landingStrip.getEnd();
+			exitPoint = landingStrip.getStart();
+			target = landingPoint;
+			landing = true;
+		}
+		else
+		{
+			exitPoint = Utils.randomItem(random, ENTRY_EXIT_POINTS, entryPoint);
+			target = exitPoint;
+			landing = false;
+		}
+
+		List<Vector2D> firstWaypoints = new ArrayList<>();
+		for (Vector2D waypoint : WAYPOINTS)
+		{
+			if (entryPoint.distanceTo(waypoint) < 400)
+				firstWaypoints.add(waypoint);
+		}
+
+		Vector2D currentWaypoint = Utils.randomItem(random, firstWaypoints);
+		myWaypoints.add(currentWaypoint);
+
+		int flightPlanLength = random.nextInt(MAX_WAYPOINTS - MIN_WAYPOINTS) + MIN_WAYPOINTS;
+		for (int i = 0; i < flightPlanLength; i++)
+		{
+			List<Vector2D> nextWaypoints = new ArrayList<>();
+			for (Vector2D newWaypoint : WAYPOINTS)
+			{
+				if (newWaypoint.distanceTo(target) < currentWaypoint.distanceTo(target) &&
+						!myWaypoints.contains(newWaypoint))
+				{
+					nextWaypoints.add(newWaypoint);
+				}
+			}
+
+			if (nextWaypoints.size() != 0)
+			{
+				currentWaypoint = Utils.randomItem(random, nextWaypoints);
+				myWaypoints.add(currentWaypoint);
+			}
+		}
+
+		if (landing)
+			myWaypoints.add(landingPoint);
+		myWaypoints.add(exitPoint);
+
+		float initialSpeed = Utils.randomItem(random, INITIAL_SPEEDS);
+		float initialAltitude = Utils.randomItem(random, INITIAL_ALTITUDES);
+		return new FlightPlan(myWaypoints, initialSpeed, initialAltitude, landing, isOnRunway);
+	}
+
+	/** Airspace with no active objects */
+	private static class DummyAirspace extends Airspace
+	{
+		public DummyAirspace()
+		{
+			super(Rectangle.ZERO, null);
+		}
+
+		@Override
+		public Collection<AirspaceObject> getActiveObjects()
+		{
+			return Collections.emptyList();
+		}
+	}
+}
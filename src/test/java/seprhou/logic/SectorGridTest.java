@@ -0,0 +1,301 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SectorGrid}
+ */
+@RunWith(JUnit4.class)
+public class SectorGridTest
+{
+	private static final Rectangle REGION = new Rectangle(2000, 1000);
+	private static final float SEPARATION = 200;
+	private static final float VERTICAL_SEPARATION = 1000;
+
+	@Test
+	public void testSectorLayout()
+	{
+		SectorGrid grid = new SectorGrid(REGION, 3, 2, 0);
+
+		assertThat(grid.getSectors(), hasSize(6));
+		assertThat(grid.getSector(2, 1).getDimensions().getPoint2(), is(REGION.getPoint2()));
+		assertThat(grid.findSector(new Vector2D(100, 100)), is(sameInstance(grid.getSector(0, 0))));
+		assertThat(grid.findSector(new Vector2D(1900, 900)), is(sameInstance(grid.getSector(2, 1))));
+		assertThat(grid.findSector(new Vector2D(-50, 5000)), is(sameInstance(grid.getSector(0, 1))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidColumns()
+	{
+		new SectorGrid(REGION, 0, 1, 0);
+	}
+
+	@Test
+	public void testHandoff()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object = new AirspaceObjectMock(0);
+		object.setPosition(new Vector2D(900, 500));
+		object.setVelocity(new Vector2D(200, 0));
+		object.setTargetVelocity(new Vector2D(200, 0));
+		grid.addObject(object);
+
+		assertThat(grid.getSector(0, 0).getActiveObjects(), contains((AirspaceObject) object));
+
+		// Fly across the boundary and out the other side of the first sector
+		for (int i = 0; i < 2; i++)
+			grid.refresh(1);
+
+		assertThat(grid.getCulledObjects(), is(empty()));
+		assertThat(grid.getSector(0, 0).getActiveObjects(), is(empty()));
+		assertThat(grid.getSector(1, 0).getActiveObjects(), contains((AirspaceObject) object));
+		assertThat(grid.getObjectCount(), is(1));
+	}
+
+	@Test
+	public void testHandoffLanding()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object = new AirspaceObjectMock(0)
+		{
+			@Override public boolean isLanding() { return true; }
+		};
+		object.setPosition(new Vector2D(900, 500));
+		object.setVelocity(new Vector2D(200, 0));
+		object.setTargetVelocity(new Vector2D(200, 0));
+		grid.addObject(object);
+
+		Airspace oldSector = grid.getSector(0, 0);
+		Airspace newSector = grid.getSector(1, 0);
+		oldSector.setLandingPlanes(1);
+
+		// The landing count moves with the object
+		for (int i = 0; i < 2; i++)
+			grid.refresh(1);
+
+		assertThat(newSector.getActiveObjects(), contains((AirspaceObject) object));
+		assertThat(oldSector.getLandingPlanes(), is(0));
+		assertThat(newSector.getLandingPlanes(), is(1));
+	}
+
+	@Test
+	public void testHaloKeepsSlots()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object1 = new AirspaceObjectMock(0);
+		AirspaceObjectMock object2 = new AirspaceObjectMock(1);
+		AirspaceObjectMock object3 = new AirspaceObjectMock(2);
+		object1.setPosition(new Vector2D(500, 500));
+		object2.setPosition(new Vector2D(990, 500));
+		object3.setPosition(new Vector2D(1010, 500));
+		grid.addObject(object1);
+		grid.addObject(object2);
+		grid.addObject(object3);
+
+		grid.refresh(1);
+
+		// The objects near the boundary are in the halo, but still know their slots in their sectors
+		ObjectStateStore store1 = grid.getSector(0, 0).getStateStore();
+		ObjectStateStore store2 = grid.getSector(1, 0).getStateStore();
+		assertThat(store1.getObject(store1.getSlot(object1)), is(sameInstance((AirspaceObject) object1)));
+		assertThat(store1.getObject(store1.getSlot(object2)), is(sameInstance((AirspaceObject) object2)));
+		assertThat(store2.getObject(store2.getSlot(object3)), is(sameInstance((AirspaceObject) object3)));
+	}
+
+	@Test
+	public void testLeaveRegion()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object = new AirspaceObjectMock(0);
+		object.setPosition(new Vector2D(1900, 500));
+		object.setVelocity(new Vector2D(200, 0));
+		object.setTargetVelocity(new Vector2D(200, 0));
+		grid.addObject(object);
+
+		grid.refresh(1);
+
+		assertThat(grid.getCulledObjects(), contains((AirspaceObject) object));
+		assertThat(grid.getObjectCount(), is(0));
+	}
+
+	@Test
+	public void testBoundaryWarning()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object1 = new AirspaceObjectMock(0);
+		AirspaceObjectMock object2 = new AirspaceObjectMock(1);
+		object1.setPosition(new Vector2D(990, 500));
+		object2.setPosition(new Vector2D(1010, 500));
+		grid.addObject(object1);
+		grid.addObject(object2);
+
+		grid.refresh(1);
+
+		// Each object is in a different sector so only the grid can see the conflict
+		assertThat(grid.getSector(0, 0).getCollisionWarnings(), is(empty()));
+		assertThat(grid.getSector(1, 0).getCollisionWarnings(), is(empty()));
+		assertThat(grid.getBoundaryWarnings(), hasSize(1));
+		assertThat(grid.isGameOver(), is(true));
+
+		// Warnings are reused
+		CollisionWarning warning = grid.getBoundaryWarnings().iterator().next();
+		grid.refresh(1);
+		assertThat(grid.getBoundaryWarnings().iterator().next(), is(sameInstance(warning)));
+	}
+
+	@Test
+	public void testHandoffWarning()
+	{
+		SectorGrid grid = makeGrid();
+		AirspaceObjectMock object1 = new AirspaceObjectMock(0);
+		AirspaceObjectMock object2 = new AirspaceObjectMock(1);
+		object1.setPosition(new Vector2D(1010, 500));
+		object1.setVelocity(new Vector2D(-200, 0));
+		object1.setTargetVelocity(new Vector2D(-200, 0));
+		object2.setPosition(new Vector2D(686, 500));
+		grid.addObject(object1);
+		grid.addObject(object2);
+
+		grid.refresh(1);
+
+		// object1 is handed to the first sector 190 inside it, and object2 is further from the
+		//  edge than the separation + size, but they are still close enough for a warning
+		assertThat(grid.getSector(0, 0).getActiveObjects(), hasItem((AirspaceObject) object1));
+		assertThat(grid.getSector(0, 0).getCollisionWarnings(), is(empty()));
+		assertThat(warningIds(grid.getBoundaryWarnings()), contains("0-1"));
+	}
+
+	@Test
+	public void testMatchesSingleAirspace()
+	{
+		Random random = new Random(42);
+		SectorGrid grid = new SectorGrid(REGION, 4, 3, 0);
+		grid.setLateralSeparation(SEPARATION);
+		grid.setVerticalSeparation(VERTICAL_SEPARATION);
+
+		Airspace airspace = new Airspace(REGION, null, 0);
+		airspace.setFlightPlanGenerator(null);
+		airspace.setLateralSeparation(SEPARATION);
+		airspace.setVerticalSeparation(VERTICAL_SEPARATION);
+
+		for (int i = 0; i < 150; i++)
+		{
+			Vector2D position = new Vector2D(random.nextFloat() * 2000, random.nextFloat() * 1000);
+			Vector2D velocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+			float altitude = random.nextInt(6) * 1000;
+
+			for (int copy = 0; copy < 2; copy++)
+			{
+				AirspaceObjectMock object = new AirspaceObjectMock(i);
+				object.setPosition(position);
+				object.setVelocity(velocity);
+				object.setTargetVelocity(velocity);
+				object.setAltitude(altitude);
+				object.setTargetAltitude(altitude);
+
+				if (copy == 0)
+					grid.addObject(object);
+				else
+					airspace.getActiveObjects().add(object);
+			}
+		}
+
+		for (int tick = 0; tick < 20; tick++)
+		{
+			grid.refresh(0.5f);
+			airspace.refresh(0.5f);
+
+			// Every warning should be found exactly once
+			List<String> gridWarnings = new ArrayList<>();
+			for (Airspace sector : grid.getSectors())
+				gridWarnings.addAll(warningIds(sector.getCollisionWarnings()));
+			gridWarnings.addAll(warningIds(grid.getBoundaryWarnings()));
+
+			List<String> expectedWarnings = warningIds(airspace.getCollisionWarnings());
+			Collections.sort(gridWarnings);
+			Collections.sort(expectedWarnings);
+
+			assertThat(gridWarnings, is(expectedWarnings));
+			assertThat(grid.getObjectCount(), is(airspace.getActiveObjects().size()));
+			assertThat(objectIds(grid.getCulledObjects()), is(objectIds(airspace.getCulledObjects())));
+		}
+	}
+
+	@Test
+	public void testParallelMatchesSequential()
+	{
+		SectorGrid parallel = new SectorGrid(REGION, 4, 3, 0);
+		SectorGrid sequential = new SectorGrid(REGION, 4, 3, 0);
+		sequential.setParallel(false);
+		Random random = new Random(7);
+
+		for (int i = 0; i < 100; i++)
+		{
+			Vector2D position = new Vector2D(random.nextFloat() * 2000, random.nextFloat() * 1000);
+			Vector2D velocity = new Vector2D(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+
+			for (SectorGrid grid : Arrays.asList(parallel, sequential))
+			{
+				AirspaceObjectMock object = new AirspaceObjectMock(i);
+				object.setPosition(position);
+				object.setVelocity(velocity);
+				object.setTargetVelocity(velocity);
+				grid.addObject(object);
+			}
+		}
+
+		for (int tick = 0; tick < 10; tick++)
+		{
+			parallel.refresh(1);
+			sequential.refresh(1);
+
+			assertThat(warningIds(parallel.getBoundaryWarnings()), is(warningIds(sequential.getBoundaryWarnings())));
+			for (int i = 0; i < parallel.getSectors().size(); i++)
+			{
+				assertThat(objectIds(parallel.getSectors().get(i).getActiveObjects()),
+						is(objectIds(sequential.getSectors().get(i).getActiveObjects())));
+			}
+		}
+	}
+
+	/** Creates a 2x1 grid with the test separation distances */
+	private static SectorGrid makeGrid()
+	{
+		SectorGrid grid = new SectorGrid(REGION, 2, 1, 0);
+		grid.setLateralSeparation(SEPARATION);
+		grid.setVerticalSeparation(VERTICAL_SEPARATION);
+		return grid;
+	}
+
+	/** Converts a collection of warnings into a list of id pairs */
+	private static List<String> warningIds(Collection<CollisionWarning> warnings)
+	{
+		List<String> result = new ArrayList<>();
+		for (CollisionWarning warning : warnings)
+		{
+			int id1 = ((AirspaceObjectMock) warning.getObject1()).id;
+			int id2 = ((AirspaceObjectMock) warning.getObject2()).id;
+			result.add(Math.min(id1, id2) + "-" + Math.max(id1, id2));
+		}
+
+		return result;
+	}
+
+	/** Converts a collection of objects into a sorted list of ids */
+	private static List<Integer> objectIds(Collection<AirspaceObject> objects)
+	{
+		List<Integer> result = new ArrayList<>();
+		for (AirspaceObject object : objects)
+			result.add(((AirspaceObjectMock) object).id);
+
+		Collections.sort(result);
+		return result;
+	}
+}
@@ -0,0 +1,150 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SpatialIndex}
+ *
+ * <p>
+ * Searches must return the same objects as testing every object.
+ */
+@RunWith(JUnit4.class)
+public class SpatialIndexTest
+{
+	private static final Rectangle DIMENSIONS = new Rectangle(1000, 1000);
+
+	@Test
+	public void testRandomSearches()
+	{
+		Random random = new Random(1234);
+		ObjectStateStore store = new ObjectStateStore();
+		SpatialIndex index = new SpatialIndex();
+
+		for (int i = 0; i < 20; i++)
+		{
+			// Some objects are outside the index bounds
+			List<AirspaceObject> objects = new ArrayList<>();
+			for (int j = 0; j < 200; j++)
+			{
+				objects.add(new AirspaceObjectMock(
+						new Vector2D(random.nextFloat() * 1200 - 100, random.nextFloat() * 1200 - 100),
+						Vector2D.ZERO,
+						random.nextInt(3) * 100,
+						random.nextFloat() * 50,
+						true));
+			}
+
+			store.sync(objects);
+			index.rebuild(DIMENSIONS, store);
+			assertThat(index.getCount(), is(objects.size()));
+
+			for (int j = 0; j < 50; j++)
+			{
+				Vector2D centre = new Vector2D(random.nextFloat() * 1400 - 200, random.nextFloat() * 1400 - 200);
+				float radius = random.nextFloat() * 300;
+
+				assertThat(index.findAt(centre), is(sameInstance(bruteForceFindAt(objects, centre))));
+				assertThat(index.findRadius(centre, radius), is(bruteForceFindRadius(objects, centre, radius)));
+
+				// Visitor finds the same objects in any order
+				final List<AirspaceObject> visited = new ArrayList<>();
+				index.visitRadius(centre, radius, new SpatialIndex.ObjectVisitor()
+				{
+					@Override
+					public void visit(AirspaceObject object)
+					{
+						visited.add(object);
+					}
+				});
+
+				assertThat(visited, containsInAnyOrder(bruteForceFindRadius(objects, centre, radius).toArray()));
+			}
+		}
+	}
+
+	@Test
+	public void testRebuildSmaller()
+	{
+		ObjectStateStore store = new ObjectStateStore();
+		SpatialIndex index = new SpatialIndex();
+		List<AirspaceObject> objects = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			objects.add(new AirspaceObjectMock(new Vector2D(500, 500), Vector2D.ZERO, 0, 10, true));
+
+		store.sync(objects);
+		index.rebuild(DIMENSIONS, store);
+		store.sync(objects.subList(0, 2));
+		index.rebuild(DIMENSIONS, store);
+
+		assertThat(index.getCount(), is(2));
+		assertThat(index.findRadius(new Vector2D(500, 500), 1), contains(objects.get(1), objects.get(0)));
+		assertThat(index.findAt(new Vector2D(505, 500)), is(sameInstance(objects.get(1))));
+	}
+
+	@Test
+	public void testHighestFirst()
+	{
+		ObjectStateStore store = new ObjectStateStore();
+		SpatialIndex index = new SpatialIndex();
+		List<AirspaceObject> objects = new ArrayList<>();
+		objects.add(new AirspaceObjectMock(new Vector2D(500, 500), Vector2D.ZERO, 300, 10, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(500, 500), Vector2D.ZERO, 100, 10, true));
+		objects.add(new AirspaceObjectMock(new Vector2D(500, 500), Vector2D.ZERO, 200, 10, true));
+
+		store.sync(objects);
+		index.rebuild(DIMENSIONS, store);
+
+		assertThat(index.findAt(new Vector2D(500, 500)), is(sameInstance(objects.get(0))));
+		assertThat(index.findRadius(new Vector2D(500, 500), 1), contains(objects.get(0), objects.get(2), objects.get(1)));
+	}
+
+	/** Finds the highest (then last) object occupying a point by testing every object */
+	private static AirspaceObject bruteForceFindAt(List<AirspaceObject> objects, Vector2D centre)
+	{
+		AirspaceObject found = null;
+		for (int i = objects.size() - 1; i >= 0; i--)
+		{
+			AirspaceObject object = objects.get(i);
+			if (object.getPosition().distanceTo(centre) < object.getSize() &&
+					(found == null || object.getAltitude() > found.getAltitude()))
+				found = object;
+		}
+
+		return found;
+	}
+
+	/** Finds the objects in a circle (highest then last object first) by testing every object */
+	private static List<AirspaceObject> bruteForceFindRadius(List<AirspaceObject> objects, Vector2D centre, float radius)
+	{
+		List<AirspaceObject> results = new ArrayList<>();
+		for (int i = objects.size() - 1; i >= 0; i--)
+		{
+			AirspaceObject object = objects.get(i);
+			if (object.getPosition().distanceTo(centre) < radius)
+				results.add(object);
+		}
+
+		// Stable sort keeps the last objects first when the altitudes are the same
+		Collections.sort(results, new Comparator<AirspaceObject>()
+		{
+			@Override
+			public int compare(AirspaceObject o1, AirspaceObject o2)
+			{
+				return Float.compare(o2.getAltitude(), o1.getAltitude());
+			}
+		});
+
+		return results;
+	}
+}
@@ -0,0 +1,126 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SweepAndPruneBroadPhase}
+ *
+ * <p>
+ * The sweep and prune broad phase must generate exactly the same collision warnings
+ * as the brute force broad phase, even as objects move, are added and are removed.
+ */
+@RunWith(JUnit4.class)
+public class SweepAndPruneBroadPhaseTest
+{
+	private static final Rectangle DIMENSIONS = new Rectangle(1000, 1000);
+	private static final float SEPARATION = 100;
+
+	@Test
+	public void testMovingObjects()
+	{
+		Random random = new Random(1234);
+		SweepAndPruneBroadPhase broadPhase = new SweepAndPruneBroadPhase();
+		Airspace airspace = generateAirspace(broadPhase);
+		Collection<AirspaceObject> objects = airspace.getActiveObjects();
+
+		for (int j = 0; j < 200; j++)
+			objects.add(randomObject(random));
+
+		for (int tick = 0; tick < 50; tick++)
+		{
+			// Remove and add some objects
+			List<AirspaceObject> removed = new ArrayList<>();
+			for (AirspaceObject object : objects)
+			{
+				if (random.nextInt(20) == 0)
+					removed.add(object);
+			}
+
+			objects.removeAll(removed);
+			for (int j = 0; j < removed.size(); j++)
+				objects.add(randomObject(random));
+
+			airspace.refresh(1);
+			assertSameWarnings(airspace, broadPhase);
+		}
+	}
+
+	@Test
+	public void testBoundaries()
+	{
+		// Objects exactly on and around the edges of the separation distance
+		Airspace airspace = generateAirspace(new SweepAndPruneBroadPhase());
+		Collection<AirspaceObject> objects = airspace.getActiveObjects();
+
+		for (int x = 0; x <= 1000; x += 50)
+		{
+			objects.add(new AirspaceObjectMock(new Vector2D(x, 0), Vector2D.ZERO, 0, AirspaceObjectMock.HUGE_SIZE, true));
+			objects.add(new AirspaceObjectMock(new Vector2D(x - 0.001f, 99.999f), Vector2D.ZERO, 99.999f, AirspaceObjectMock.HUGE_SIZE, true));
+			objects.add(new AirspaceObjectMock(new Vector2D(x + 0.001f, 200), Vector2D.ZERO, 100, AirspaceObjectMock.HUGE_SIZE, true));
+		}
+
+		airspace.refresh(0);
+		assertSameWarnings(airspace, airspace.getBroadPhase());
+	}
+
+	/** Asserts that the brute force broad phase generates the same warnings as the last refresh */
+	private static void assertSameWarnings(Airspace airspace, BroadPhase broadPhase)
+	{
+		// Warnings are reused so the objects must be copied out
+		List<AirspaceObject> actual = warningObjects(airspace);
+
+		airspace.setBroadPhase(new BruteForceBroadPhase());
+		airspace.calculateCollisions();
+		List<AirspaceObject> expected = warningObjects(airspace);
+		airspace.setBroadPhase(broadPhase);
+
+		assertThat(actual, hasSize(expected.size()));
+		for (int i = 0; i < expected.size(); i++)
+			assertThat(actual.get(i), is(sameInstance(expected.get(i))));
+	}
+
+	/** Returns the pairs of objects in each collision warning as one list */
+	private static List<AirspaceObject> warningObjects(Airspace airspace)
+	{
+		List<AirspaceObject> objects = new ArrayList<>();
+		for (CollisionWarning warning : airspace.getCollisionWarnings())
+		{
+			objects.add(warning.getObject1());
+			objects.add(warning.getObject2());
+		}
+
+		return objects;
+	}
+
+	/** Generates an empty airspace using the given broad phase */
+	private static Airspace generateAirspace(BroadPhase broadPhase)
+	{
+		Airspace airspace = new Airspace(DIMENSIONS, null);
+		airspace.setLateralSeparation(SEPARATION);
+		airspace.setVerticalSeparation(SEPARATION);
+		airspace.setFlightPlanGenerator(null);
+		airspace.setBroadPhase(broadPhase);
+		return airspace;
+	}
+
+	/** Generates an object with a random position, velocity and altitude */
+	private static AirspaceObject randomObject(Random random)
+	{
+		return new AirspaceObjectMock(
+				new Vector2D(random.nextFloat() * 1000, random.nextFloat() * 1000),
+				new Vector2D(random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10),
+				random.nextInt(5) * 50,
+				AirspaceObjectMock.HUGE_SIZE,
+				random.nextInt(10) != 0);
+	}
+}
@@ -0,0 +1,219 @@
+package seprhou.logic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static seprhou.logic.IsCloseToFloat.closeTo;
+
+/**
+ * Tests for {@link Trigonometry}
+ */
+@RunWith(JUnit4.class)
+public class TrigonometryTest
+{
+	private static final Rectangle DIMENSIONS = new Rectangle(1400, 1050);
+
+	/** Time step used to fly the aircraft */
+	private static final float DELTA = 1 / 60f;
+
+	/** Maximum time to fly each aircraft for */
+	private static final float MAX_FLIGHT_TIME = 300;
+
+	@Test
+	public void testStrictSameAsMath()
+	{
+		Random random = new Random(1234);
+
+		for (int i = 0; i < 10000; i++)
+		{
+			float angle = random.nextFloat() * 100 - 50;
+			float x = random.nextFloat() * 200 - 100;
+			float y = random.nextFloat() * 200 - 100;
+
+			assertThat(Trigonometry.STRICT.sin(angle), is(Math.sin(angle)));
+			assertThat(Trigonometry.STRICT.cos(angle), is(Math.cos(angle)));
+			assertThat(Trigonometry.STRICT.atan2(y, x), is((float) Math.atan2(y, x)));
+		}
+	}
+
+	@Test
+	public void testFastSinCosError()
+	{
+		double maxError = 0;
+
+		// Small angles in detail, then larger angles
+		for (int i = -1000000; i <= 1000000; i++)
+		{
+			float angle = i * 1e-5f;
+			maxError = Math.max(maxError, Math.abs(Trigonometry.FAST.sin(angle) - Math.sin(angle)));
+			maxError = Math.max(maxError, Math.abs(Trigonometry.FAST.cos(angle) - Math.cos(angle)));
+		}
+
+		for (int i = -1000000; i <= 1000000; i++)
+		{
+			float angle = i * 1e-3f;
+			maxError = Math.max(maxError, Math.abs(Trigonometry.FAST.sin(angle) - Math.sin(angle)));
+			maxError = Math.max(maxError, Math.abs(Trigonometry.FAST.cos(angle) - Math.cos(angle)));
+		}
+
+		assertThat(maxError, is(lessThanOrEqualTo(Trigonometry.FAST_MAX_SIN_ERROR)));
+	}
+
+	@Test
+	public void testFastAtan2Error()
+	{
+		double maxError = 0;
+
+		// Points around circles of different sizes
+		for (float radius : new float[] { 1e-3f, 1, 100, 1e5f })
+		{
+			for (int i = 0; i < 100000; i++)
+			{
+				double angle = i * 2 * Math.PI / 100000;
+				float x = (float) (radius * Math.cos(angle));
+				float y = (float) (radius * Math.sin(angle));
+
+				// Angles of PI and -PI are the same
+				double error = Math.abs(Trigonometry.FAST.atan2(y, x) - Math.atan2(y, x));
+				maxError = Math.max(maxError, Math.min(error, Math.abs(error - 2 * Math.PI)));
+			}
+		}
+
+		assertThat(maxError, is(lessThanOrEqualTo(Trigonometry.FAST_MAX_ATAN2_ERROR)));
+		assertThat(Trigonometry.FAST.atan2(0, 0), is(0f));
+		assertThat(Trigonometry.FAST.atan2(0, -1), is(closeTo((float) Math.PI, 1e-6f)));
+	}
+
+	@Test
+	public void testGameplayOutcomes()
+	{
+		// Aircraft flown with fast trigonometry must hit the same waypoints and land in the same places
+		int landings = 0;
+
+		for (int seed = 0; seed < 200; seed++)
+		{
+			FlightPlan plan = new FlightPlanGenerator(new Random(seed)).makeFlightPlanNow(new EmptyAirspace());
+
+			AutopilotAircraft strict = fly(plan, Trigonometry.STRICT);
+			AutopilotAircraft fast = fly(plan, Trigonometry.FAST);
+
+			assertThat("seed " + seed, fast.getWaypointsHit(), is(strict.getWaypointsHit()));
+			assertThat("seed " + seed, fast.landed, is(strict.landed));
+			assertThat("seed " + seed, fast.isFinished(), is(strict.isFinished()));
+
+			if (strict.landed)
+				landings++;
+		}
+
+		// Make sure some landings were tested
+		assertThat(landings, is(greaterThan(0)));
+	}
+
+	/** Flies an aircraft until it leaves the airspace or finishes its flight plan */
+	private static AutopilotAircraft fly(FlightPlan plan, Trigonometry trigonometry)
+	{
+		Airspace airspace = new Airspace(DIMENSIONS, null);
+		airspace.setFlightPlanGenerator(null);
+		airspace.setTrigonometry(trigonometry);
+
+		AutopilotAircraft aircraft = new AutopilotAircraft(plan, airspace);
+		airspace.getActiveObjects().add(aircraft);
+
+		for (float time = 0; time < MAX_FLIGHT_TIME && !airspace.getActiveObjects().isEmpty(); time += DELTA)
+			airspace.refresh(DELTA);
+
+		return aircraft;
+	}
+
+	/** Aircraft which steers itself towards each waypoint and lines up to land */
+	private static class AutopilotAircraft extends Aircraft
+	{
+		/** Distance before the runway to line up with it */
+		private static final float LINE_UP_DISTANCE = 300;
+
+		private boolean linedUp;
+		public boolean landed;
+
+		public AutopilotAircraft(FlightPlan flightPlan, Airspace airspace)
+		{
+			super("", 0, 0, AircraftColour.WHITE, flightPlan, 1000, airspace);
+		}
+
+		@Override
+		public void refresh(float dt)
+		{
+			List<Vector2D> waypoints = getFlightPlan().getWaypoints();
+			int next = getLastWaypoint() + 1;
+
+			if (isActive() && next < waypoints.size())
+			{
+				Vector2D target = waypoints.get(next);
+				float speed = getFlightPlan().getInitialSpeed();
+
+				// Approach the runway from the right direction, slowly and at the lowest altitude
+				if (getFlightPlan().isLanding() && next + 2 == waypoints.size())
+				{
+					Vector2D runwayDirection = waypoints.get(next + 1).sub(target).normalize();
+					Vector2D lineUp = target.sub(runwayDirection.multiply(LINE_UP_DISTANCE));
+
+					if (getPosition().distanceTo(lineUp) < getSize())
+						linedUp = true;
+					if (!linedUp)
+						target = lineUp;
+
+					speed = getMinSpeed();
+					setTargetAltitude(getMinAltitude());
+				}
+
+				float angle = target.sub(getPosition()).getAngle(getTrigonometry());
+				setTargetVelocityNoClamping(Vector2D.fromPolar(speed, angle, getTrigonometry()));
+			}
+
+			super.refresh(dt);
+		}
+
+		@Override
+		public void commitRefresh()
+		{
+			boolean wasActive = isActive();
+			super.commitRefresh();
+
+			// The aircraft loses control when it is accepted for landing
+			if (wasActive && !isActive())
+				landed = true;
+		}
+
+		@Override public void draw(Object state) { }
+		@Override public float getSize()             { return LogicConstants.AIRCRAFT_SIZE; }
+		@Override public float getAscentRate()       { return LogicConstants.AIRCRAFT_ASCENT_RATE; }
+		@Override public float getMaxTurnRate()      { return LogicConstants.AIRCRAFT_TURN_RATE; }
+		@Override public float getMinSpeed()         { return LogicConstants.AIRCRAFT_MIN_SPEED; }
+		@Override public float getMaxSpeed()         { return LogicConstants.AIRCRAFT_MAX_SPEED; }
+		@Override public float getMinAltitude()      { return LogicConstants.AIRCRAFT_MIN_ALTITUDE; }
+		@Override public float getMaxAltitude()      { return LogicConstants.AIRCRAFT_MAX_ALTITUDE; }
+		@Override public float getMaxAcceleration()  { return LogicConstants.AIRCRAFT_ACCELERATION; }
+	}
+
+	/** Airspace with no active objects */
+	private static class EmptyAirspace extends Airspace
+	{
+		public EmptyAirspace()
+		{
+			super(Rectangle.ZERO, null);
+		}
+
+		@Override
+		public Collection<AirspaceObject> getActiveObjects()
+		{
+			return Collections.emptyList();
+		}
+	}
+}
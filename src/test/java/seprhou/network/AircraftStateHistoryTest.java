@@ -0,0 +1,126 @@
+package seprhou.network;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link AircraftStateHistory}
+ */
+@RunWith(JUnit4.class)
+public class AircraftStateHistoryTest
+{
+	private AircraftStateHistory history;
+
+	@Before
+	public void setup()
+	{
+		history = new AircraftStateHistory();
+	}
+
+	/** Creates a state which can be told apart from other states */
+	private static AircraftState state(int value)
+	{
+		return AircraftState.applyDeltas(AircraftState.ZERO, 1, new int[] { value });
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		assertThat(history.size(), is(0));
+		assertThat(history.getLatestSequence(), is(0));
+		assertThat(history.get(1), is(nullValue()));
+	}
+
+	@Test
+	public void testGet()
+	{
+		AircraftState state1 = state(1);
+		AircraftState state3 = state(3);
+		history.add(1, state1);
+		history.add(3, state3);
+
+		assertThat(history.size(), is(2));
+		assertThat(history.getLatestSequence(), is(3));
+		assertThat(history.get(1), is(sameInstance(state1)));
+		assertThat(history.get(3), is(sameInstance(state3)));
+		assertThat(history.get(2), is(nullValue()));
+		assertThat(history.get(4), is(nullValue()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSameSequence()
+	{
+		history.add(5, state(1));
+		history.add(5, state(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOlderSequence()
+	{
+		history.add(5, state(1));
+		history.add(4, state(2));
+	}
+
+	@Test
+	public void testWrap()
+	{
+		int total = AircraftStateHistory.MAX_STATES + 10;
+		for (int i = 1; i <= total; i++)
+			history.add(i, state(i));
+
+		// The oldest states are dropped
+		assertThat(history.size(), is(AircraftStateHistory.MAX_STATES));
+		assertThat(history.getLatestSequence(), is(total));
+		assertThat(history.get(10), is(nullValue()));
+
+		for (int i = 11; i <= total; i++)
+			assertThat(history.get(i).get(0), is(i));
+	}
+
+	@Test
+	public void testDiscardBefore()
+	{
+		for (int i = 1; i <= AircraftStateHistory.MAX_STATES + 10; i++)
+			history.add(i * 2, state(i));
+
+		history.discardBefore(101);
+
+		assertThat(history.get(100), is(nullValue()));
+		assertThat(history.get(102).get(0), is(51));
+		assertThat(history.size(), is(AircraftStateHistory.MAX_STATES + 10 - 50));
+
+		// Discarding everything
+		history.discardBefore(1000);
+		assertThat(history.size(), is(0));
+		assertThat(history.getLatestSequence(), is(0));
+
+		history.add(1001, state(1));
+		assertThat(history.size(), is(1));
+	}
+
+	@Test
+	public void testFindLatest()
+	{
+		history.add(10, state(10));
+		history.add(20, state(20));
+		history.add(30, state(30));
+
+		SequenceWindow window = new SequenceWindow();
+		assertThat(history.findLatest(window), is(0));
+
+		window.add(10);
+		window.add(25);
+		assertThat(history.findLatest(window), is(10));
+
+		window.add(20);
+		assertThat(history.findLatest(window), is(20));
+
+		window.add(30);
+		assertThat(history.findLatest(window), is(30));
+	}
+}
@@ -0,0 +1,122 @@
+package seprhou.network;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import seprhou.headless.HeadlessAircraft;
+import seprhou.logic.*;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link AircraftState}
+ */
+@RunWith(JUnit4.class)
+public class AircraftStateTest
+{
+	private static Aircraft makeAircraft(float x, float y, float altitude)
+	{
+		FlightPlan flightPlan = new FlightPlan(Arrays.asList(
+				new Vector2D(x, y),
+				new Vector2D(1000, 1000)), 100, altitude, false, false);
+
+		return (Aircraft) HeadlessAircraft.FACTORY.makeObject(
+				new Airspace(Rectangle.ZERO, null), flightPlan, "Test", AircraftColour.BLUE);
+	}
+
+	@Test
+	public void testCapture()
+	{
+		Aircraft aircraft = makeAircraft(12.5f, -3.25f, 7000);
+		AircraftState state = AircraftState.capture(aircraft);
+
+		assertThat(state.getValue(AircraftState.POSITION_X), is(12.5f));
+		assertThat(state.getValue(AircraftState.POSITION_Y), is(-3.25f));
+		assertThat(state.getValue(AircraftState.ALTITUDE), is(7000f));
+		assertThat(state.getValue(AircraftState.TARGET_ALTITUDE), is(7000f));
+		assertThat(state.getColour(), is(AircraftColour.BLUE));
+	}
+
+	@Test
+	public void testQuantize()
+	{
+		// Values are rounded to the nearest multiple of QUANTUM
+		Aircraft aircraft = makeAircraft(1.03f, 1.01f, 0);
+		AircraftState state = AircraftState.capture(aircraft);
+
+		assertThat(state.get(AircraftState.POSITION_X), is(16));
+		assertThat(state.getValue(AircraftState.POSITION_X), is(1f));
+		assertThat(state.get(AircraftState.POSITION_Y), is(16));
+	}
+
+	@Test
+	public void testUnchanged()
+	{
+		AircraftState state = AircraftState.capture(makeAircraft(100, 200, 5000));
+
+		assertThat(state.getChangedMask(state), is(0));
+		assertThat(state.getDeltas(state, 0).length, is(0));
+		assertThat(AircraftState.applyDeltas(state, 0, new int[0]).getChangedMask(state), is(0));
+	}
+
+	@Test
+	public void testDeltaRoundTrip()
+	{
+		Aircraft aircraft = makeAircraft(100, 200, 5000);
+		AircraftState base = AircraftState.capture(aircraft);
+
+		aircraft.refresh(0.5f);
+		aircraft.setTargetAltitude(6000);
+		AircraftState next = AircraftState.capture(aircraft);
+
+		int mask = next.getChangedMask(base);
+		int[] deltas = next.getDeltas(base, mask);
+		AircraftState rebuilt = AircraftState.applyDeltas(base, mask, deltas);
+
+		assertThat(mask & (1 << AircraftState.TARGET_ALTITUDE), is(not(0)));
+		assertThat(mask & (1 << AircraftState.COLOUR), is(0));
+		assertThat(deltas.length, is(Integer.bitCount(mask)));
+		assertThat(rebuilt.getChangedMask(next), is(0));
+	}
+
+	@Test
+	public void testFullUpdate()
+	{
+		AircraftState state = AircraftState.capture(makeAircraft(100, 200, 5000));
+
+		int mask = state.getChangedMask(AircraftState.ZERO);
+		AircraftState rebuilt = AircraftState.applyDeltas(AircraftState.ZERO, mask, state.getDeltas(AircraftState.ZERO, mask));
+
+		assertThat(rebuilt.getChangedMask(state), is(0));
+	}
+
+	@Test
+	public void testInvalidColour()
+	{
+		AircraftState state = AircraftState.applyDeltas(AircraftState.ZERO,
+				1 << AircraftState.COLOUR, new int[] { AircraftColour.values().length });
+
+		assertThat(state.getColour(), is(nullValue()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFewDeltas()
+	{
+		AircraftState.applyDeltas(AircraftState.ZERO, 0x3, new int[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyDeltas()
+	{
+		AircraftState.applyDeltas(AircraftState.ZERO, 0x1, new int[2]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMask()
+	{
+		AircraftState.applyDeltas(AircraftState.ZERO, 1 << AircraftState.FIELD_COUNT, new int[1]);
+	}
+}
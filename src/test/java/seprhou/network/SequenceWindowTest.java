@@ -0,0 +1,146 @@
+package seprhou.network;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SequenceWindow}
+ */
+@RunWith(JUnit4.class)
+public class SequenceWindowTest
+{
+	private SequenceWindow window;
+
+	@Before
+	public void setup()
+	{
+		window = new SequenceWindow();
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		assertThat(window.getLatest(), is(0));
+		assertThat(window.getMask(), is(0L));
+		assertThat(window.contains(0), is(false));
+		assertThat(window.contains(1), is(false));
+	}
+
+	@Test
+	public void testInvalidSequence()
+	{
+		assertThat(window.add(0), is(false));
+		assertThat(window.add(-5), is(false));
+		assertThat(window.getLatest(), is(0));
+	}
+
+	@Test
+	public void testAdd()
+	{
+		assertThat(window.add(5), is(true));
+		assertThat(window.add(3), is(true));
+		assertThat(window.add(8), is(true));
+
+		assertThat(window.getLatest(), is(8));
+		assertThat(window.getMask(), is(0x29L));
+		assertThat(window.contains(8), is(true));
+		assertThat(window.contains(5), is(true));
+		assertThat(window.contains(3), is(true));
+		assertThat(window.contains(4), is(false));
+		assertThat(window.contains(9), is(false));
+	}
+
+	@Test
+	public void testDuplicate()
+	{
+		window.add(10);
+		window.add(7);
+
+		assertThat(window.add(10), is(false));
+		assertThat(window.add(7), is(false));
+	}
+
+	@Test
+	public void testTooOld()
+	{
+		window.add(100);
+
+		assertThat(window.add(100 - SequenceWindow.SIZE + 1), is(true));
+		assertThat(window.add(100 - SequenceWindow.SIZE), is(false));
+		assertThat(window.contains(100 - SequenceWindow.SIZE), is(false));
+	}
+
+	@Test
+	public void testShiftLast()
+	{
+		window.add(1);
+		window.add(2);
+		window.add(2 + SequenceWindow.SIZE - 1);
+
+		// 1 has dropped out but 2 is still the oldest in the window
+		assertThat(window.contains(1), is(false));
+		assertThat(window.contains(2), is(true));
+		assertThat(window.getMask(), is(0x8000000000000001L));
+	}
+
+	@Test
+	public void testLargeShift()
+	{
+		window.add(1);
+		window.add(2);
+
+		for (int shift = SequenceWindow.SIZE; shift <= SequenceWindow.SIZE + 2; shift++)
+		{
+			int latest = window.getLatest() + shift;
+			assertThat(window.add(latest), is(true));
+			assertThat(window.getMask(), is(1L));
+			assertThat(window.contains(latest), is(true));
+		}
+	}
+
+	@Test
+	public void testAddAll()
+	{
+		SequenceWindow other = new SequenceWindow();
+		other.add(70);
+		other.add(69);
+		other.add(10);
+
+		window.add(5);
+		window.add(60);
+		window.addAll(other.getLatest(), other.getMask());
+
+		assertThat(window.getLatest(), is(70));
+		assertThat(window.contains(70), is(true));
+		assertThat(window.contains(69), is(true));
+		assertThat(window.contains(60), is(true));
+		assertThat(window.contains(10), is(true));
+		assertThat(window.contains(5), is(false));
+	}
+
+	@Test
+	public void testAddAllEmpty()
+	{
+		window.add(5);
+		window.addAll(0, 0);
+
+		assertThat(window.getLatest(), is(5));
+		assertThat(window.getMask(), is(1L));
+	}
+
+	@Test
+	public void testClear()
+	{
+		window.add(5);
+		window.clear();
+
+		assertThat(window.getLatest(), is(0));
+		assertThat(window.contains(5), is(false));
+		assertThat(window.add(5), is(true));
+	}
+}
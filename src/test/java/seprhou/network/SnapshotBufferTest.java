@@ -0,0 +1,140 @@
+package seprhou.network;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import seprhou.headless.HeadlessAircraft;
+import seprhou.logic.*;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link SnapshotBuffer}
+ */
+@RunWith(JUnit4.class)
+public class SnapshotBufferTest
+{
+	private static final FlightPlan FLIGHT_PLAN = new FlightPlan(Arrays.asList(
+			new Vector2D(0, 0),
+			new Vector2D(1000, 0)), 0, 0, false, false);
+
+	private SnapshotBuffer buffer;
+	private Aircraft aircraft;
+
+	@Before
+	public void setup()
+	{
+		buffer = new SnapshotBuffer();
+		aircraft = (Aircraft) HeadlessAircraft.FACTORY.makeObject(
+				new Airspace(Rectangle.ZERO, null), FLIGHT_PLAN, "Test", AircraftColour.WHITE);
+	}
+
+	/** Creates a state moving along the X axis */
+	private static AircraftState state(float x, float velocityX)
+	{
+		int mask = (1 << AircraftState.POSITION_X) | (1 << AircraftState.VELOCITY_X) | (1 << AircraftState.TARGET_VELOCITY_X);
+		int quantizedVelocity = Math.round(velocityX / AircraftState.QUANTUM);
+
+		return AircraftState.applyDeltas(AircraftState.ZERO, mask, new int[]
+		{
+			Math.round(x / AircraftState.QUANTUM), quantizedVelocity, quantizedVelocity
+		});
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		aircraft.setMotion(10, 20, 0, 0);
+
+		assertThat(buffer.apply(aircraft, 1), is(false));
+		assertThat(aircraft.getPosition(), is(new Vector2D(10, 20)));
+	}
+
+	@Test
+	public void testInterpolate()
+	{
+		buffer.add(1, state(0, 100));
+		buffer.add(2, state(100, 200));
+
+		assertThat(buffer.apply(aircraft, 1.5f), is(true));
+		assertThat(aircraft.getPosition(), is(new Vector2D(50, 0)));
+		assertThat(aircraft.getVelocity(), is(new Vector2D(150, 0)));
+	}
+
+	@Test
+	public void testExtrapolate()
+	{
+		buffer.add(1, state(0, 100));
+
+		buffer.apply(aircraft, 1.25f);
+		assertThat(aircraft.getPosition(), is(new Vector2D(25, 0)));
+
+		// Clamped to MAX_EXTRAPOLATION
+		buffer.apply(aircraft, 5);
+		assertThat(aircraft.getPosition(), is(new Vector2D(100 * SnapshotBuffer.MAX_EXTRAPOLATION, 0)));
+	}
+
+	@Test
+	public void testBeforeFirstState()
+	{
+		buffer.add(1, state(0, 100));
+		buffer.add(2, state(100, 100));
+
+		// Not moved backwards
+		buffer.apply(aircraft, 0.5f);
+		assertThat(aircraft.getPosition(), is(new Vector2D(0, 0)));
+	}
+
+	@Test
+	public void testOldStates()
+	{
+		buffer.add(1, state(0, 100));
+		buffer.add(2, state(100, 100));
+		buffer.add(3, state(200, 100));
+
+		// Older states are ignored
+		buffer.add(2.5f, state(0, 0));
+		assertThat(buffer.size(), is(3));
+
+		// The first state is not needed after time 2
+		buffer.apply(aircraft, 2.5f);
+		assertThat(buffer.size(), is(2));
+		assertThat(aircraft.getPosition(), is(new Vector2D(150, 0)));
+	}
+
+	@Test
+	public void testWrap()
+	{
+		for (int i = 1; i <= SnapshotBuffer.MAX_STATES + 8; i++)
+			buffer.add(i, state(i * 100, 100));
+
+		assertThat(buffer.size(), is(SnapshotBuffer.MAX_STATES));
+
+		buffer.apply(aircraft, 9.5f);
+		assertThat(aircraft.getPosition(), is(new Vector2D(950, 0)));
+
+		buffer.apply(aircraft, SnapshotBuffer.MAX_STATES + 7.5f);
+		assertThat(buffer.size(), is(2));
+		assertThat(aircraft.getPosition(), is(new Vector2D((SnapshotBuffer.MAX_STATES + 7.5f) * 100, 0)));
+	}
+
+	@Test
+	public void testInterpolationBetweenApplies()
+	{
+		buffer.add(1, state(0, 100));
+		buffer.add(2, state(100, 100));
+
+		buffer.apply(aircraft, 1.25f);
+		aircraft.refresh(0.25f);
+		buffer.apply(aircraft, 1.5f);
+
+		// Drawn moving from the first applied position to the second
+		assertThat(aircraft.getInterpolatedPosition(0), is(new Vector2D(25, 0)));
+		assertThat(aircraft.getInterpolatedPosition(0.5f), is(new Vector2D(37.5f, 0)));
+		assertThat(aircraft.getInterpolatedPosition(1), is(new Vector2D(50, 0)));
+	}
+}